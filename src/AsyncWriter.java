@@ -0,0 +1,268 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The `AsyncWriter` class moves output off the thread that produces it. Text
+ * written by the command thread, including the messages printed by the
+ * table, is copied into the slots of a bounded ring buffer, and a dedicated
+ * writer thread drains full slots in order into the underlying writer. The
+ * command thread only waits for I/O when every slot is full, on `flush` and
+ * on `close`.
+ *
+ * The producer fills the slot at `tail` without holding the lock, since the
+ * writer thread never touches a slot before it is published by advancing
+ * `tail`. An I/O error on the writer thread is rethrown to the producer by
+ * its next publish, flush or close.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class AsyncWriter extends Writer {
+
+    private static final int DEFAULT_SLOTS = 64;
+    private static final int DEFAULT_SLOT_SIZE = 1 << 14;
+
+    private Writer out;
+    private char[][] slots;
+    private int[] lengths;
+    private long head;
+    private long tail;
+    private int fill;
+    private boolean closed;
+    private IOException failure;
+    private ReentrantLock ring;
+    private Condition published;
+    private Condition drained;
+    private Thread thread;
+
+    /**
+     * Constructs a new `AsyncWriter` with the default ring buffer and starts
+     * its writer thread.
+     *
+     * @param out
+     *            The writer the text is written to.
+     */
+    public AsyncWriter(Writer out) {
+        this(out, DEFAULT_SLOTS, DEFAULT_SLOT_SIZE);
+    }
+
+
+    /**
+     * Constructs a new `AsyncWriter` and starts its writer thread.
+     *
+     * @param out
+     *            The writer the text is written to.
+     * @param slotCount
+     *            The number of slots in the ring buffer.
+     * @param slotSize
+     *            The number of characters in each slot.
+     */
+    public AsyncWriter(Writer out, int slotCount, int slotSize) {
+        if (slotCount < 1 || slotSize < 1) {
+            throw new IllegalArgumentException(
+                "The ring buffer needs at least one slot of one character");
+        }
+        this.out = out;
+        slots = new char[slotCount][slotSize];
+        lengths = new int[slotCount];
+        head = 0;
+        tail = 0;
+        fill = 0;
+        closed = false;
+        ring = new ReentrantLock();
+        published = ring.newCondition();
+        drained = ring.newCondition();
+        thread = new Thread(this::drain, "output-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+
+    @Override
+    public void write(char[] chars, int offset, int length)
+        throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            while (length > 0) {
+                char[] slot = slots[(int)(tail % slots.length)];
+                int count = Math.min(length, slot.length - fill);
+                System.arraycopy(chars, offset, slot, fill, count);
+                fill += count;
+                offset += count;
+                length -= count;
+                if (fill == slot.length) {
+                    publish();
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            while (length > 0) {
+                char[] slot = slots[(int)(tail % slots.length)];
+                int count = Math.min(length, slot.length - fill);
+                text.getChars(offset, offset + count, slot, fill);
+                fill += count;
+                offset += count;
+                length -= count;
+                if (fill == slot.length) {
+                    publish();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Waits until everything written so far has reached the underlying
+     * writer, then flushes it.
+     *
+     * @throws IOException
+     *             If the writer thread failed to write.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            if (fill > 0) {
+                publish();
+            }
+            ring.lock();
+            try {
+                while (head < tail && failure == null) {
+                    drained.awaitUninterruptibly();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+            finally {
+                ring.unlock();
+            }
+            out.flush();
+        }
+    }
+
+
+    /**
+     * Writes out the remaining text, stops the writer thread and closes the
+     * underlying writer.
+     *
+     * @throws IOException
+     *             If the remaining text cannot be written or the writer
+     *             cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            try {
+                flush();
+            }
+            finally {
+                ring.lock();
+                try {
+                    closed = true;
+                    published.signal();
+                }
+                finally {
+                    ring.unlock();
+                }
+                try {
+                    thread.join();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.close();
+            }
+        }
+    }
+
+
+    /**
+     * Hands the slot being filled to the writer thread and waits until the
+     * next slot is free.
+     */
+    private void publish() throws IOException {
+        ring.lock();
+        try {
+            lengths[(int)(tail % slots.length)] = fill;
+            tail++;
+            fill = 0;
+            published.signal();
+            while (tail - head >= slots.length && failure == null) {
+                drained.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        finally {
+            ring.unlock();
+        }
+    }
+
+
+    /**
+     * Runs on the writer thread: writes published slots in order until the
+     * writer is closed and every slot is written.
+     */
+    private void drain() {
+        while (true) {
+            int slot;
+            ring.lock();
+            try {
+                while (head == tail && !closed) {
+                    published.awaitUninterruptibly();
+                }
+                if (head == tail) {
+                    return;
+                }
+                slot = (int)(head % slots.length);
+            }
+            finally {
+                ring.unlock();
+            }
+
+            IOException error = null;
+            try {
+                out.write(slots[slot], 0, lengths[slot]);
+            }
+            catch (IOException e) {
+                error = e;
+            }
+
+            ring.lock();
+            try {
+                head++;
+                if (error != null && failure == null) {
+                    failure = error;
+                }
+                drained.signalAll();
+            }
+            finally {
+                ring.unlock();
+            }
+        }
+    }
+
+
+    /**
+     * Rejects writes after the writer was closed.
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import student.TestCase;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the AsyncWriter class. It
+ *          checks that text passes through the ring buffer in order, that a
+ *          full ring makes the producer wait, and that errors on the writer
+ *          thread reach the producer.
+ */
+public class AsyncWriterTest extends TestCase {
+
+    /**
+     * Tests that text larger than the whole ring arrives complete and in
+     * order.
+     *
+     * @throws IOException
+     *             If the output cannot be written.
+     */
+    @Test
+    public void testOrderPreserved() throws IOException {
+        StringWriter target = new StringWriter();
+        AsyncWriter writer = new AsyncWriter(target, 2, 5);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String line = "line " + i + "\n";
+            expected.append(line);
+            if (i % 2 == 0) {
+                writer.write(line);
+            }
+            else {
+                writer.write(line.toCharArray(), 0, line.length());
+            }
+        }
+        writer.flush();
+        assertEquals(expected.toString(), target.toString());
+        writer.write("end");
+        writer.close();
+        assertEquals(expected + "end", target.toString());
+    }
+
+
+    /**
+     * Tests that a failed write on the writer thread is reported to the
+     * producer.
+     *
+     * @throws IOException
+     *             If the writer cannot be closed.
+     */
+    @Test
+    public void testWriteFailure() throws IOException {
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] chars, int offset, int length)
+                throws IOException {
+                throw new IOException("disk full");
+            }
+
+
+            @Override
+            public void flush() {
+                // Nothing is buffered
+            }
+
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+        AsyncWriter writer = new AsyncWriter(broken, 1, 4);
+        Exception thrown = null;
+        try {
+            writer.write("more than one slot");
+            writer.flush();
+        }
+        catch (IOException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+        assertEquals("disk full", thrown.getMessage());
+    }
+
+
+    /**
+     * Tests that writes after close are rejected.
+     *
+     * @throws IOException
+     *             If the writer cannot be closed.
+     */
+    @Test
+    public void testWriteAfterClose() throws IOException {
+        AsyncWriter writer = new AsyncWriter(new StringWriter());
+        writer.close();
+        writer.close();
+        Exception thrown = null;
+        try {
+            writer.write("x");
+        }
+        catch (IOException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+}
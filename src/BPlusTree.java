@@ -0,0 +1,351 @@
+import java.util.function.IntConsumer;
+
+/**
+ * The `BPlusTree` class maps int keys to int values and keeps the keys in
+ * sorted order. Every entry lives in a leaf, the leaves are linked from the
+ * smallest keys to the largest, and the inner nodes only hold separator keys
+ * that guide a search to the right leaf. Nodes hold up to `ORDER` keys in
+ * int arrays, so a search reads a few dense arrays rather than following a
+ * pointer per key, and a range is read by finding its first leaf and walking
+ * the leaf chain.
+ *
+ * A full node is split in two on insert. Removing an entry only takes it out
+ * of its leaf: nodes are not merged again, so the tree keeps the shape it had
+ * at its largest until it is emptied or cleared.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class BPlusTree {
+
+    /** The largest number of entries in a leaf and children in a node. */
+    public static final int ORDER = 64;
+    /** The value returned for a key that is not in the tree. */
+    public static final int NONE = -1;
+
+    private Node root;
+    private int size;
+    private int splitKey;
+
+    /**
+     * Receives the entries of the tree one at a time.
+     */
+    public interface Visitor {
+
+        /**
+         * Visits an entry of the tree.
+         *
+         * @param key
+         *            The key of the entry.
+         * @param value
+         *            The value of the entry.
+         */
+        void visit(int key, int value);
+    }
+
+
+    /**
+     * Constructs a new, empty `BPlusTree` object.
+     */
+    public BPlusTree() {
+        clear();
+    }
+
+
+    /**
+     * Returns the value stored under a key.
+     *
+     * @param key
+     *            The key to look up.
+     * @return The value, or `NONE` if the key is not in the tree.
+     */
+    public int get(int key) {
+        Leaf leaf = findLeaf(key);
+        int pos = lowerBound(leaf.keys, leaf.count, key);
+        return pos < leaf.count && leaf.keys[pos] == key
+            ? leaf.values[pos]
+            : NONE;
+    }
+
+
+    /**
+     * Stores a value under a key that is not in the tree yet.
+     *
+     * @param key
+     *            The key of the entry.
+     * @param value
+     *            The value of the entry, not `NONE`.
+     * @return `true` if the entry was added, `false` if the key was already
+     *         in the tree.
+     */
+    public boolean put(int key, int value) {
+        if (get(key) != NONE) {
+            return false;
+        }
+        Node right = insert(root, key, value);
+        if (right != null) {
+            Inner top = new Inner();
+            top.children[0] = root;
+            top.children[1] = right;
+            top.keys[0] = splitKey;
+            top.count = 2;
+            root = top;
+        }
+        size++;
+        return true;
+    }
+
+
+    /**
+     * Removes the entry with a key.
+     *
+     * @param key
+     *            The key of the entry.
+     * @return The value of the removed entry, or `NONE` if the key was not in
+     *         the tree.
+     */
+    public int remove(int key) {
+        Leaf leaf = findLeaf(key);
+        int pos = lowerBound(leaf.keys, leaf.count, key);
+        if (pos == leaf.count || leaf.keys[pos] != key) {
+            return NONE;
+        }
+        int value = leaf.values[pos];
+        leaf.count--;
+        System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.count
+            - pos);
+        System.arraycopy(leaf.values, pos + 1, leaf.values, pos, leaf.count
+            - pos);
+        size--;
+        if (size == 0) {
+            clear(); // Drop the empty nodes
+        }
+        return value;
+    }
+
+
+    /**
+     * Removes every entry from the tree.
+     */
+    public void clear() {
+        root = new Leaf();
+        size = 0;
+    }
+
+
+    /**
+     * Passes the entries with a key in a range to a visitor, in key order.
+     *
+     * @param low
+     *            The smallest key, inclusive.
+     * @param high
+     *            The largest key, inclusive.
+     * @param visitor
+     *            The visitor receiving each entry.
+     */
+    public void forEachInRange(int low, int high, Visitor visitor) {
+        Leaf leaf = findLeaf(low);
+        int pos = lowerBound(leaf.keys, leaf.count, low);
+        while (leaf != null) {
+            for (; pos < leaf.count; pos++) {
+                if (leaf.keys[pos] > high) {
+                    return;
+                }
+                visitor.visit(leaf.keys[pos], leaf.values[pos]);
+            }
+            leaf = leaf.next;
+            pos = 0;
+        }
+    }
+
+
+    /**
+     * Passes every value of the tree to an action, in key order.
+     *
+     * @param action
+     *            The action to perform on each value.
+     */
+    public void forEachValue(IntConsumer action) {
+        forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, (key,
+            value) -> action.accept(value));
+    }
+
+
+    /**
+     * Returns the number of entries in the tree
+     *
+     * @return Number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Finds the leaf that holds a key, or would hold it.
+     */
+    private Leaf findLeaf(int key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner)node;
+            node = inner.children[upperBound(inner.keys, inner.count - 1,
+                key)];
+        }
+        return (Leaf)node;
+    }
+
+
+    /**
+     * Inserts an entry below a node. If the node had to be split, the new
+     * right half is returned and its smallest key is left in `splitKey`.
+     */
+    private Node insert(Node node, int key, int value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf)node;
+            int pos = lowerBound(leaf.keys, leaf.count, key);
+            System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count
+                - pos);
+            System.arraycopy(leaf.values, pos, leaf.values, pos + 1,
+                leaf.count - pos);
+            leaf.keys[pos] = key;
+            leaf.values[pos] = value;
+            leaf.count++;
+            return leaf.count == ORDER ? splitLeaf(leaf) : null;
+        }
+
+        Inner inner = (Inner)node;
+        int child = upperBound(inner.keys, inner.count - 1, key);
+        Node right = insert(inner.children[child], key, value);
+        if (right == null) {
+            return null;
+        }
+        System.arraycopy(inner.keys, child, inner.keys, child + 1, inner.count
+            - 1 - child);
+        System.arraycopy(inner.children, child + 1, inner.children, child
+            + 2, inner.count - 1 - child);
+        inner.keys[child] = splitKey;
+        inner.children[child + 1] = right;
+        inner.count++;
+        return inner.count == ORDER ? splitInner(inner) : null;
+    }
+
+
+    /**
+     * Moves the upper half of a full leaf into a new leaf.
+     */
+    private Leaf splitLeaf(Leaf leaf) {
+        int half = ORDER / 2;
+        Leaf right = new Leaf();
+        right.count = ORDER - half;
+        System.arraycopy(leaf.keys, half, right.keys, 0, right.count);
+        System.arraycopy(leaf.values, half, right.values, 0, right.count);
+        leaf.count = half;
+        right.next = leaf.next;
+        leaf.next = right;
+        splitKey = right.keys[0];
+        return right;
+    }
+
+
+    /**
+     * Moves the upper half of the children of a full node into a new node.
+     * The separator between the halves moves up to the parent.
+     */
+    private Inner splitInner(Inner inner) {
+        int half = ORDER / 2;
+        Inner right = new Inner();
+        right.count = ORDER - half;
+        System.arraycopy(inner.children, half, right.children, 0,
+            right.count);
+        System.arraycopy(inner.keys, half, right.keys, 0, right.count - 1);
+        for (int i = half; i < ORDER; i++) {
+            inner.children[i] = null;
+        }
+        inner.count = half;
+        splitKey = inner.keys[half - 1];
+        return right;
+    }
+
+
+    /**
+     * Returns the position of the first key that is not smaller than a key.
+     */
+    private static int lowerBound(int[] keys, int count, int key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Returns the position of the first key that is larger than a key.
+     */
+    private static int upperBound(int[] keys, int count, int key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * A node of the tree with its number of entries or children.
+     */
+    private abstract static class Node {
+
+        protected int[] keys;
+        protected int count;
+    }
+
+
+    /**
+     * A leaf holding sorted keys and their values.
+     */
+    private static class Leaf extends Node {
+
+        private int[] values = new int[ORDER];
+        private Leaf next;
+
+        /**
+         * Creates an empty leaf.
+         */
+        Leaf() {
+            keys = new int[ORDER];
+        }
+    }
+
+
+    /**
+     * An inner node: child `i` holds the keys from separator `i - 1` up to,
+     * but not including, separator `i`.
+     */
+    private static class Inner extends Node {
+
+        private Node[] children = new Node[ORDER];
+
+        /**
+         * Creates a node without children.
+         */
+        Inner() {
+            keys = new int[ORDER - 1];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the BPlusTree class. It
+ *          checks lookups, duplicate keys and range walks, and compares the
+ *          tree with a sorted map over enough changes to split inner nodes.
+ */
+public class BPlusTreeTest extends TestCase {
+
+    private BPlusTree tree;
+
+    /**
+     * Sets up an empty tree before each test method.
+     */
+    @Before
+    public void setUp() {
+        tree = new BPlusTree();
+    }
+
+
+    /**
+     * Returns the keys of the tree in a range, in the order they are
+     * visited.
+     */
+    private List<Integer> keys(int low, int high) {
+        List<Integer> keys = new ArrayList<Integer>();
+        tree.forEachInRange(low, high, (key, value) -> keys.add(key));
+        return keys;
+    }
+
+
+    /**
+     * Tests put, get and remove on a single leaf.
+     */
+    @Test
+    public void testPutGetRemove() {
+        assertTrue(tree.put(5, 50));
+        assertTrue(tree.put(-3, 30));
+        assertFalse(tree.put(5, 51));
+        assertEquals(50, tree.get(5));
+        assertEquals(BPlusTree.NONE, tree.get(4));
+        assertEquals(2, tree.size());
+        assertEquals(30, tree.remove(-3));
+        assertEquals(BPlusTree.NONE, tree.remove(-3));
+        assertEquals(1, tree.size());
+    }
+
+
+    /**
+     * Tests that range walks cross leaves and stop at the upper bound.
+     */
+    @Test
+    public void testRange() {
+        for (int key = 1000; key > 0; key--) {
+            tree.put(key, key * 2);
+        }
+        List<Integer> keys = keys(100, 300);
+        assertEquals(201, keys.size());
+        assertEquals(100, (int)keys.get(0));
+        assertEquals(300, (int)keys.get(200));
+        assertEquals(1000, keys(Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+        assertEquals(0, keys(2000, 3000).size());
+        int[] sum = { 0 };
+        tree.forEachValue(value -> sum[0] += value);
+        assertEquals(1001000, sum[0]);
+    }
+
+
+    /**
+     * Tests the tree against a sorted map over random puts and removes.
+     */
+    @Test
+    public void testRandomChanges() {
+        Random random = new Random(11);
+        TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(20000) - 10000;
+            if (random.nextInt(4) == 0) {
+                Integer value = expected.remove(key);
+                assertEquals(value == null ? BPlusTree.NONE : value, tree
+                    .remove(key));
+            }
+            else {
+                boolean added = !expected.containsKey(key);
+                if (added) {
+                    expected.put(key, i);
+                }
+                assertEquals(added, tree.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), tree.size());
+        List<Integer> keys = keys(-5000, 5000);
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : expected.subMap(-5000, true,
+            5000, true).entrySet()) {
+            assertEquals((int)entry.getKey(), (int)keys.get(i++));
+            assertEquals((int)entry.getValue(), tree.get(entry.getKey()));
+        }
+        assertEquals(i, keys.size());
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The `BatchExecutor` class performs a whole command file in parallel. The
+ * commands are read up front and split into segments at every print, since a
+ * print looks at the whole table. Within a segment each command is assigned
+ * to a lane by a hash of its ID, the lanes run in parallel on a fork-join
+ * pool against a `ConcurrentHashTable`, and the commands of a lane run in
+ * file order, so commands on the same ID keep their relative order.
+ *
+ * Every command writes into its own buffer, including the messages printed
+ * by the table while the command runs, and the buffers are written out in
+ * the original command order once the segment is done. Results and record
+ * output match a sequential run. Because inserts on different IDs may run in
+ * a different order, the slots shown by a print and the point at which an
+ * expansion message appears can differ from a sequential run.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class BatchExecutor {
+
+    private static final int LANES_PER_THREAD = 4;
+    private static final int MIN_PARALLEL_SEGMENT = 64;
+
+    private ForkJoinPool pool;
+    private int lanes;
+    private CommandOutput output;
+    private CommandExecutor executor;
+
+    /**
+     * Constructs a new `BatchExecutor` with its own table and thread pool.
+     *
+     * @param memoryPoolSize
+     *            The size of the memory pool in bytes.
+     * @param initialCapacity
+     *            The initial capacity of the hash table.
+     * @param offHeap
+     *            `true` to keep the memory pool outside the Java heap.
+     * @param writer
+     *            The PrintWriter object the results are written to.
+     * @param parallelism
+     *            The number of worker threads.
+     */
+    public BatchExecutor(
+        int memoryPoolSize,
+        int initialCapacity,
+        boolean offHeap,
+        PrintWriter writer,
+        int parallelism) {
+        pool = new ForkJoinPool(parallelism);
+        lanes = parallelism * LANES_PER_THREAD;
+        output = new CommandOutput(writer);
+        PrintWriter routed = new PrintWriter(output);
+        executor = new CommandExecutor(new ConcurrentHashTable(memoryPoolSize,
+            initialCapacity, routed, offHeap), routed);
+    }
+
+
+    /**
+     * Reads every command of a file.
+     *
+     * @param reader
+     *            The reader positioned at the start of the file.
+     * @return The commands in file order.
+     * @throws IOException
+     *             If the file cannot be read.
+     */
+    public static List<Command> readAll(CommandReader reader)
+        throws IOException {
+        List<Command> commands = new ArrayList<Command>();
+        Command command = reader.next();
+        while (command != null) {
+            commands.add(command);
+            command = reader.next();
+        }
+        return commands;
+    }
+
+
+    /**
+     * Performs the commands and writes their output in command order.
+     *
+     * @param commands
+     *            The commands in file order.
+     * @throws Exception
+     *             If a command fails.
+     */
+    public void run(List<Command> commands) throws Exception {
+        int start = 0;
+        while (start < commands.size()) {
+            int end = start;
+            while (end < commands.size() && commands.get(end).isKeyed()) {
+                end++;
+            }
+            runSegment(commands, start, end);
+            if (end < commands.size()) {
+                executor.execute(commands.get(end)); // Prints run alone
+            }
+            start = end + 1;
+        }
+        output.flush();
+    }
+
+
+    /**
+     * Returns the metrics of the table the commands are performed on.
+     *
+     * @return The metrics of the table.
+     */
+    public TableMetrics getMetrics() {
+        return executor.getMetrics();
+    }
+
+
+    /**
+     * Shuts down the worker threads.
+     */
+    public void close() {
+        pool.shutdown();
+    }
+
+
+    /**
+     * Performs a run of keyed commands, in parallel lanes if the run is long
+     * enough, and writes their output in command order.
+     */
+    private void runSegment(final List<Command> commands, int start, int end)
+        throws Exception {
+        if (end - start < MIN_PARALLEL_SEGMENT) {
+            for (int i = start; i < end; i++) {
+                executor.execute(commands.get(i));
+            }
+            return;
+        }
+
+        final StringBuilder[] results = new StringBuilder[end - start];
+        final List<List<Integer>> laneCommands = new ArrayList<List<Integer>>();
+        for (int lane = 0; lane < lanes; lane++) {
+            laneCommands.add(new ArrayList<Integer>());
+        }
+        for (int i = start; i < end; i++) {
+            laneCommands.get(laneOf(commands.get(i).getId())).add(i);
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        final int offset = start;
+        for (final List<Integer> lane : laneCommands) {
+            if (lane.isEmpty()) {
+                continue;
+            }
+            tasks.add(new Callable<Void>() {
+                public Void call() {
+                    try {
+                        for (int i : lane) {
+                            StringBuilder result = new StringBuilder();
+                            results[i - offset] = result;
+                            output.capture(result);
+                            executor.execute(commands.get(i));
+                        }
+                    }
+                    finally {
+                        output.capture(null);
+                    }
+                    return null;
+                }
+            });
+        }
+        for (Future<Void> task : pool.invokeAll(tasks)) {
+            task.get(); // Rethrows the failure of a lane
+        }
+
+        for (StringBuilder result : results) {
+            output.write(result.toString());
+        }
+    }
+
+
+    /**
+     * Returns the lane of an ID.
+     */
+    private int laneOf(int id) {
+        int mixed = id * 0x9E3779B9;
+        return ((mixed ^ (mixed >>> 16)) & 0x7FFFFFFF) % lanes;
+    }
+
+
+    /**
+     * A Writer that sends the output of the current thread into the buffer of
+     * the command it is running, or straight to the final output when the
+     * thread is not running a command of a parallel segment.
+     */
+    private static class CommandOutput extends Writer {
+
+        private ThreadLocal<StringBuilder> current;
+        private PrintWriter out;
+
+        /**
+         * Constructs a new `CommandOutput` writing to the given output.
+         */
+        CommandOutput(PrintWriter out) {
+            this.current = new ThreadLocal<StringBuilder>();
+            this.out = out;
+        }
+
+
+        /**
+         * Sends the output of the calling thread to a buffer.
+         */
+        void capture(StringBuilder buffer) {
+            current.set(buffer);
+        }
+
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            StringBuilder target = current.get();
+            if (target != null) {
+                target.append(buffer, offset, length);
+            }
+            else {
+                out.write(buffer, offset, length);
+            }
+        }
+
+
+        @Override
+        public void write(String text, int offset, int length) {
+            StringBuilder target = current.get();
+            if (target != null) {
+                target.append(text, offset, offset + length);
+            }
+            else {
+                out.write(text, offset, length);
+            }
+        }
+
+
+        @Override
+        public void flush() {
+            out.flush();
+        }
+
+
+        @Override
+        public void close() {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import student.TestCase;
+import org.junit.Test;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the BatchExecutor class. It
+ *          runs the same random command list in parallel and sequentially
+ *          and compares the output of the two runs.
+ */
+public class BatchExecutorTest extends TestCase {
+
+    /**
+     * Builds a random list of inserts, searches and deletes over a small set
+     * of IDs so that many commands hit the same ID, with a print of the
+     * memory pool in the middle.
+     */
+    private List<Command> randomCommands() {
+        List<Command> commands = new ArrayList<Command>();
+        Random random = new Random(7);
+        for (int i = 0; i < 4000; i++) {
+            int id = random.nextInt(300);
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                commands.add(new Command("insert", id, new Record(id, "T" + i,
+                    "2111011200", i, (short)1, (short)2, 3, "D", "K"), null));
+            }
+            else if (choice == 1) {
+                commands.add(new Command("search", id, null, null));
+            }
+            else {
+                commands.add(new Command("delete", id, null, null));
+            }
+            if (i == 2000) {
+                commands.add(new Command("print", 0, null, "blocks"));
+            }
+        }
+        return commands;
+    }
+
+
+    /**
+     * Removes the expansion messages and free block lines, which depend on
+     * the order in which the lanes ran.
+     */
+    private String withoutLayout(String output) {
+        StringBuilder kept = new StringBuilder();
+        for (String line : output.split("\n")) {
+            if (!line.contains("expanded") && !line.matches("\\d+:.*")) {
+                kept.append(line).append("\n");
+            }
+        }
+        return kept.toString();
+    }
+
+
+    /**
+     * Tests that a parallel run gives the same results in the same order as
+     * a sequential run.
+     *
+     * @throws Exception
+     *             If a command fails.
+     */
+    @Test
+    public void testMatchesSequentialRun() throws Exception {
+        List<Command> commands = randomCommands();
+
+        StringWriter sequential = new StringWriter();
+        PrintWriter sequentialWriter = new PrintWriter(sequential);
+        CommandExecutor executor = new CommandExecutor(new HashTable(64, 4,
+            sequentialWriter), sequentialWriter);
+        for (Command command : commands) {
+            executor.execute(command);
+        }
+        sequentialWriter.flush();
+
+        StringWriter parallel = new StringWriter();
+        BatchExecutor batch = new BatchExecutor(64, 4, false, new PrintWriter(
+            parallel), 4);
+        try {
+            batch.run(commands);
+        }
+        finally {
+            batch.close();
+        }
+
+        assertEquals(withoutLayout(sequential.toString()), withoutLayout(
+            parallel.toString()));
+        assertTrue(parallel.toString().contains("FreeBlock List:"));
+    }
+}
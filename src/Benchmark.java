@@ -0,0 +1,373 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The `Benchmark` class measures the hash table operations and the whole
+ * command pipeline. It is a self-contained harness in the style of JMH:
+ * every benchmark runs a number of warmup iterations that are discarded,
+ * then a number of measured iterations, and reports the mean time per
+ * operation with its standard deviation. Results are summed into a sink
+ * that is printed at the end, so the JIT cannot discard the work.
+ *
+ * The `HashTable` benchmarks are `insert`, `insertAll` (the same inserts
+ * as one bulk load), `searchHit`, `searchMiss`, `searchTombstone` (hits
+ * whose probe paths cross tombstones), `delete` and `expandTable`. Each runs
+ * for every combination of:
+ *
+ * - the number of records,
+ * - the load factor the table is filled to, which sets its capacity,
+ * - the ID distribution: `sequential`, `random`, or `adversarial`, where
+ *   the IDs share a handful of home slots under `id % capacity`.
+ *
+ * The `endToEnd` benchmark writes a command file with `WorkloadGenerator`
+ * and runs `SemManager.beginParsing` on it, which writes `output.txt` to the
+ * working directory like any other run.
+ *
+ * Usage: `java Benchmark [filter]`, where only benchmarks whose name
+ * contains the filter are run.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class Benchmark {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final int[] SIZES = { 1000, 100000 };
+    private static final double[] LOADS = { 0.1, 0.45 };
+    private static final String[] KEYS = { "sequential", "random",
+        "adversarial" };
+
+    private static long sink = 0;
+
+    /**
+     * Runs the benchmarks and prints one line of results for each.
+     *
+     * @param args
+     *            Optionally, a filter on the benchmark names.
+     * @throws IOException
+     *             If the command file of the end to end benchmark cannot be
+     *             written.
+     */
+    public static void main(String[] args) throws IOException {
+        String filter = args.length > 0 ? args[0] : "";
+        System.out.println(String.format("%-16s %8s %6s %12s %14s %12s",
+            "Benchmark", "(size)", "(load)", "(keys)", "Score", "Stdev"));
+        for (int size : SIZES) {
+            for (double load : LOADS) {
+                for (String keys : KEYS) {
+                    for (Case bench : tableCases(size, load, keys)) {
+                        if (bench.name.contains(filter)) {
+                            report(bench, size, String.valueOf(load), keys);
+                        }
+                    }
+                }
+            }
+        }
+        for (int size : SIZES) {
+            Case bench = endToEnd(size);
+            if (bench.name.contains(filter)) {
+                report(bench, size, "-", "-");
+            }
+        }
+        System.out.println("# sink " + sink);
+    }
+
+
+    /**
+     * Runs a benchmark and prints its mean time per operation.
+     */
+    private static void report(Case bench, int size, String load, String keys)
+        throws IOException {
+        double[] scores = new double[MEASURE_ITERATIONS];
+        for (int i = 0; i < WARMUP_ITERATIONS + MEASURE_ITERATIONS; i++) {
+            bench.setUp();
+            long start = System.nanoTime();
+            int operations = bench.run();
+            long elapsed = System.nanoTime() - start;
+            if (i >= WARMUP_ITERATIONS) {
+                scores[i - WARMUP_ITERATIONS] = (double)elapsed / operations;
+            }
+        }
+        double mean = 0;
+        for (double score : scores) {
+            mean += score / scores.length;
+        }
+        double variance = 0;
+        for (double score : scores) {
+            variance += (score - mean) * (score - mean) / (scores.length - 1);
+        }
+        System.out.println(String.format(
+            "%-16s %8d %6s %12s %8.1f ns/op %12.1f", bench.name, size, load,
+            keys, mean, Math.sqrt(variance)));
+    }
+
+
+    /**
+     * Creates the `HashTable` benchmarks for one combination of parameters.
+     */
+    private static List<Case> tableCases(int size, double load, String keys) {
+        int capacity = 4;
+        while (capacity * load < size) {
+            capacity *= 2;
+        }
+        int[] ids = ids(2 * size, keys, capacity);
+        Record[] records = new Record[2 * size];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = record(ids[i]);
+        }
+        Record[] loaded = Arrays.copyOf(records, size);
+        int poolSize = 128 * size;
+        int tableCapacity = capacity;
+
+        List<Case> cases = new ArrayList<Case>();
+        cases.add(new Case("insert") {
+            void setUp() {
+                table = new HashTable(poolSize, tableCapacity, quiet());
+            }
+
+
+            int run() {
+                for (int i = 0; i < size; i++) {
+                    sink += table.insert(records[i]) ? 1 : 0;
+                }
+                return size;
+            }
+        });
+        cases.add(new Case("insertAll") {
+            void setUp() {
+                table = new HashTable(poolSize, tableCapacity, quiet());
+            }
+
+
+            int run() {
+                sink += table.insertAll(loaded, (record, added) -> {
+                    // Results are counted by the return value
+                });
+                return size;
+            }
+        });
+        cases.add(new Case("searchHit") {
+            void setUp() {
+                if (table == null) {
+                    table = filled(poolSize, tableCapacity, records, size);
+                }
+            }
+
+
+            int run() {
+                for (int i = 0; i < size; i++) {
+                    sink += table.search(ids[i], false).getCost();
+                }
+                return size;
+            }
+        });
+        cases.add(new Case("searchMiss") {
+            void setUp() {
+                if (table == null) {
+                    table = filled(poolSize, tableCapacity, records, size);
+                }
+            }
+
+
+            int run() {
+                for (int i = size; i < 2 * size; i++) {
+                    sink += table.search(ids[i], false) == null ? 1 : 0;
+                }
+                return size;
+            }
+        });
+        cases.add(new Case("searchTombstone") {
+            void setUp() {
+                if (table == null) {
+                    table = filled(poolSize, tableCapacity, records, size);
+                    for (int i = 1; i < size; i += 2) {
+                        table.delete(ids[i]);
+                    }
+                }
+            }
+
+
+            int run() {
+                for (int i = 0; i < size; i += 2) {
+                    sink += table.search(ids[i], false).getCost();
+                }
+                return (size + 1) / 2;
+            }
+        });
+        cases.add(new Case("delete") {
+            void setUp() {
+                table = filled(poolSize, tableCapacity, records, size);
+            }
+
+
+            int run() {
+                for (int i = 0; i < size; i++) {
+                    sink += table.delete(ids[i]) ? 1 : 0;
+                }
+                return size;
+            }
+        });
+        cases.add(new Case("expandTable") {
+            void setUp() {
+                table = filled(poolSize, tableCapacity, records, size);
+            }
+
+
+            int run() {
+                table.expandTable();
+                sink += table.getCapacity();
+                return 1;
+            }
+        });
+        return cases;
+    }
+
+
+    /**
+     * Creates the benchmark that runs a generated command file through
+     * `SemManager.beginParsing`.
+     */
+    private static Case endToEnd(int size) throws IOException {
+        Path file = Files.createTempFile("commands", ".txt");
+        file.toFile().deleteOnExit();
+        int count = 5 * size / 2;
+        WorkloadGenerator generator = new WorkloadGenerator();
+        generator.setMix(2, 2, 1, 0);
+        generator.setKeys("sequential");
+        try (Writer out = new OutputWriter(file.toString())) {
+            generator.generate(out, count);
+        }
+
+        return new Case("endToEnd") {
+            void setUp() {
+                // Each run builds its own table
+            }
+
+
+            int run() {
+                SemManager.beginParsing(file.toString(), 64, 4);
+                return count;
+            }
+        };
+    }
+
+
+    /**
+     * Generates distinct, non-negative IDs with the given distribution.
+     * Adversarial IDs are spread over only a few home slots of a table of
+     * the given capacity.
+     */
+    private static int[] ids(int count, String keys, int capacity) {
+        int[] ids = new int[count];
+        Random random = new Random(42);
+        HashSet<Integer> used = new HashSet<Integer>();
+        long span = Integer.MAX_VALUE / capacity;
+        for (int i = 0; i < count; i++) {
+            switch (keys) {
+                case "sequential":
+                    ids[i] = i;
+                    break;
+                case "random":
+                    do {
+                        ids[i] = random.nextInt(Integer.MAX_VALUE);
+                    }
+                    while (!used.add(ids[i]));
+                    break;
+                default:
+                    ids[i] = (int)((i % span) * capacity + i / span);
+                    break;
+            }
+        }
+        return ids;
+    }
+
+
+    /**
+     * Creates a benchmark record with the given ID.
+     */
+    private static Record record(int id) {
+        return new Record(id, "Seminar " + id, "0610071600", 60,
+            (short)(id % 100), (short)(id % 50), 30, "Benchmark seminar",
+            "VT, HCI");
+    }
+
+
+    /**
+     * Creates a table holding the first records of an array.
+     */
+    private static HashTable filled(
+        int poolSize,
+        int capacity,
+        Record[] records,
+        int count) {
+        HashTable table = new HashTable(poolSize, capacity, quiet());
+        for (int i = 0; i < count; i++) {
+            table.insert(records[i]);
+        }
+        return table;
+    }
+
+
+    /**
+     * Returns a PrintWriter that discards its output.
+     */
+    private static PrintWriter quiet() {
+        return new PrintWriter(new Writer() {
+            public void write(char[] text, int offset, int length) {
+                // Discarded
+            }
+
+
+            public void flush() {
+                // Nothing buffered
+            }
+
+
+            public void close() {
+                // Nothing to release
+            }
+        });
+    }
+
+
+    /**
+     * One benchmark: `setUp` prepares an iteration without being timed and
+     * `run` performs the timed work.
+     */
+    private abstract static class Case {
+
+        private final String name;
+        protected HashTable table;
+
+        /**
+         * Creates a benchmark with the given name.
+         */
+        Case(String name) {
+            this.name = name;
+        }
+
+
+        /**
+         * Prepares one iteration.
+         */
+        abstract void setUp() throws IOException;
+
+
+        /**
+         * Performs one iteration.
+         *
+         * @return The number of operations performed.
+         */
+        abstract int run() throws IOException;
+    }
+}
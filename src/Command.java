@@ -0,0 +1,129 @@
+/**
+ * The `Command` class represents one command read from the input file: an
+ * insert carrying the record to insert, a search or delete carrying an ID, a
+ * print carrying what to print, a search by keyword, location, date or cost
+ * carrying its query, or a range of IDs.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class Command {
+
+    private String verb;
+    private int id;
+    private Record record;
+    private String argument;
+    private int[] numbers;
+
+    /**
+     * Constructs a new `Command` object without numeric parameters.
+     *
+     * @param verb
+     *            The command name: `insert`, `search`, `delete`, `print`,
+     *            `save`, `load`, `keyword` or `date`.
+     * @param id
+     *            The ID the command applies to, or 0 for the other commands.
+     * @param record
+     *            The record to insert, or `null` for other commands.
+     * @param argument
+     *            What to print, the snapshot file, the keyword query or the
+     *            dates, or `null` for other commands.
+     */
+    public Command(String verb, int id, Record record, String argument) {
+        this(verb, id, record, argument, null);
+    }
+
+
+    /**
+     * Constructs a new `Command` object.
+     *
+     * @param verb
+     *            The command name.
+     * @param id
+     *            The ID the command applies to, or 0 for the other commands.
+     * @param record
+     *            The record to insert, or `null` for other commands.
+     * @param argument
+     *            The text argument of the command, or `null`.
+     * @param numbers
+     *            The numeric parameters of a `radius`, `box`, `cost` or
+     *            `range` command, or `null`.
+     */
+    public Command(
+        String verb,
+        int id,
+        Record record,
+        String argument,
+        int[] numbers) {
+        this.verb = verb;
+        this.id = id;
+        this.record = record;
+        this.argument = argument;
+        this.numbers = numbers;
+    }
+
+
+    /**
+     * Returns the command name.
+     *
+     * @return The verb of the command.
+     */
+    public String getVerb() {
+        return verb;
+    }
+
+
+    /**
+     * Returns the ID the command applies to.
+     *
+     * @return The ID of the command.
+     */
+    public int getId() {
+        return id;
+    }
+
+
+    /**
+     * Returns the record carried by an insert.
+     *
+     * @return The record to insert, or `null`.
+     */
+    public Record getRecord() {
+        return record;
+    }
+
+
+    /**
+     * Returns the argument of a print, save, load or keyword search.
+     *
+     * @return What to print, the snapshot file or the keyword query, or
+     *         `null`.
+     */
+    public String getArgument() {
+        return argument;
+    }
+
+
+    /**
+     * Returns whether the command reads or changes a single ID, so it can be
+     * reordered with commands on other IDs.
+     *
+     * @return `true` for insert, search and delete, `false` for every other
+     *         command.
+     */
+    public boolean isKeyed() {
+        return verb.equals("insert") || verb.equals("search") || verb.equals(
+            "delete");
+    }
+
+
+    /**
+     * Returns the numeric parameters of the command.
+     *
+     * @return The parameters in the order they were given, or `null`.
+     */
+    public int[] getNumbers() {
+        return numbers;
+    }
+}
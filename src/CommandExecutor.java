@@ -0,0 +1,176 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The `CommandExecutor` class performs commands on a record table and writes
+ * their results to the output. Record messages are built by a
+ * `RecordFormatter`; each thread gets its own formatter, so one executor can
+ * be shared by the threads of a batch run. The table is wrapped in an
+ * `IndexedTable`, which answers the keyword, location, date and cost
+ * searches and builds the index each of them needs on first use.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class CommandExecutor {
+
+    private IndexedTable ht;
+    private PrintWriter writer;
+    private ThreadLocal<RecordFormatter> formatter;
+
+    /**
+     * Constructs a new `CommandExecutor` object.
+     *
+     * @param ht
+     *            The table the commands are performed on. Records it already
+     *            holds are indexed.
+     * @param writer
+     *            The PrintWriter object used for output.
+     */
+    public CommandExecutor(RecordTable ht, PrintWriter writer) {
+        this.ht = new IndexedTable(ht);
+        this.writer = writer;
+        this.formatter = ThreadLocal.withInitial(() -> new RecordFormatter(
+            writer));
+    }
+
+
+    /**
+     * Returns the metrics of the table the commands are performed on.
+     *
+     * @return The metrics of the table.
+     */
+    public TableMetrics getMetrics() {
+        return ht.getMetrics();
+    }
+
+
+    /**
+     * Performs one command and writes its result.
+     *
+     * @param command
+     *            The command to perform.
+     */
+    public void execute(Command command) {
+        int id = command.getId();
+
+        switch (command.getVerb()) {
+            case "insert":
+                Record record = command.getRecord();
+                boolean inserted = ht.insert(record);
+
+                if (inserted) {
+                    formatter.get().inserted(record);
+                }
+                else {
+                    formatter.get().duplicate(id);
+                }
+                break;
+
+            case "search":
+                Record searchedRecord = ht.search(id, true);
+
+                if (searchedRecord != null) {
+                    formatter.get().found(searchedRecord);
+                }
+                break;
+
+            case "keyword":
+                String query = command.getArgument();
+                Record[] matches = ht.searchKeywords(Arrays.asList(query
+                    .split(" ")));
+                formatter.get().matches(matches, "with keywords " + query);
+                break;
+
+            case "radius":
+                int[] circle = command.getNumbers();
+                formatter.get().matches(ht.searchRadius(circle[0], circle[1],
+                    circle[2]), "within " + circle[2] + " of (" + circle[0]
+                        + ", " + circle[1] + ")");
+                break;
+
+            case "box":
+                int[] box = command.getNumbers();
+                formatter.get().matches(ht.searchBox(box[0], box[1], box[2],
+                    box[3]), "in box (" + box[0] + ", " + box[1] + ") to ("
+                        + box[2] + ", " + box[3] + ")");
+                break;
+
+            case "date":
+                String[] dates = command.getArgument().split(" ");
+                formatter.get().matches(ht.searchDates(dates[0], dates[1]),
+                    "dated " + dates[0] + " to " + dates[1]);
+                break;
+
+            case "cost":
+                int[] costs = command.getNumbers();
+                formatter.get().matches(ht.searchCosts(costs[0], costs[1]),
+                    costs[0] == Integer.MIN_VALUE
+                        ? "with cost at most " + costs[1]
+                        : "with cost " + costs[0] + " to " + costs[1]);
+                break;
+
+            case "delete":
+                boolean deletedStatus = ht.delete(id);
+
+                if (deletedStatus) {
+                    formatter.get().deleted(id);
+                }
+                else {
+                    formatter.get().notDeleted(id);
+                }
+                break;
+
+            case "print":
+                if (command.getArgument().equals("blocks")) {
+                    ht.printMemoryBlocks();
+                }
+                else if (command.getArgument().equals("stats")) {
+                    writer.print(ht.getMetrics().toText());
+                }
+                else {
+                    ht.printHashTable();
+                }
+                break;
+
+            case "range":
+                int[] ids = command.getNumbers();
+                List<Record> inRange = new ArrayList<Record>();
+                ht.forEachInRange(ids[0], ids[1], inRange::add);
+                formatter.get().matches(inRange.toArray(new Record[0]),
+                    "with IDs " + ids[0] + " to " + ids[1]);
+                break;
+
+            case "save":
+                try {
+                    ht.save(command.getArgument());
+                    writer.println("Snapshot saved to " + command
+                        .getArgument());
+                }
+                catch (IOException e) {
+                    writer.println("Save FAILED -- Cannot write snapshot to "
+                        + command.getArgument());
+                }
+                break;
+
+            case "load":
+                try {
+                    ht.load(command.getArgument());
+                    writer.println("Snapshot loaded from " + command
+                        .getArgument());
+                }
+                catch (IOException e) {
+                    writer.println("Load FAILED -- Cannot read snapshot from "
+                        + command.getArgument());
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+}
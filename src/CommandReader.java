@@ -0,0 +1,584 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The `CommandReader` class reads commands from an input file one at a time.
+ * Blank lines and lines with an unknown command are skipped.
+ *
+ * The file is read in large blocks into a byte buffer and parsed in place:
+ * lines are found by scanning for line breaks, numbers are parsed straight
+ * from their digits and whitespace is collapsed while copying, so no regular
+ * expressions or intermediate String arrays are involved. Strings are only
+ * created for the fields kept in the record. The records produced are the
+ * same as those of the former Scanner based parser: the title line is kept
+ * as is, the description is joined with single spaces, and the keywords are
+ * interned in the shared `KeywordDictionary` rather than joined into one
+ * String.
+ *
+ * A reader created with `mapped` memory-maps the file instead of copying it
+ * through a read buffer, and parses the commands straight out of the mapped
+ * region. The file is mapped one window at a time, each window starting at
+ * the first unparsed byte, so files larger than 2 GB are handled too.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class CommandReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int WINDOW_SIZE = 1 << 30;
+    private static final byte[] INSERT = { 'i', 'n', 's', 'e', 'r', 't' };
+    private static final byte[] SEARCH = { 's', 'e', 'a', 'r', 'c', 'h' };
+    private static final byte[] DELETE = { 'd', 'e', 'l', 'e', 't', 'e' };
+    private static final byte[] PRINT = { 'p', 'r', 'i', 'n', 't' };
+    private static final byte[] KEYWORD = { 'k', 'e', 'y', 'w', 'o', 'r',
+        'd' };
+    private static final byte[] RADIUS = { 'r', 'a', 'd', 'i', 'u', 's' };
+    private static final byte[] BOX = { 'b', 'o', 'x' };
+    private static final byte[] DATE = { 'd', 'a', 't', 'e' };
+    private static final byte[] COST = { 'c', 'o', 's', 't' };
+    private static final byte[] RANGE = { 'r', 'a', 'n', 'g', 'e' };
+    private static final byte[] SAVE = { 's', 'a', 'v', 'e' };
+    private static final byte[] LOAD = { 'l', 'o', 'a', 'd' };
+
+    private ReadableByteChannel channel;
+    private FileChannel mappedFile;
+    private long windowStart;
+    private int windowSize;
+    private ByteBuffer buffer;
+    private boolean endOfInput;
+    private byte[] scratch;
+    private int[] codes;
+    private int lineStart;
+    private int lineEnd;
+    private int cursor;
+    private int tokenStart;
+    private int tokenEnd;
+
+    /**
+     * Constructs a new `CommandReader` object for the given file.
+     *
+     * @param filename
+     *            The name of the file that contains the commands.
+     * @throws IOException
+     *             If the file cannot be opened.
+     */
+    public CommandReader(String filename) throws IOException {
+        this(FileChannel.open(Paths.get(filename), StandardOpenOption.READ));
+    }
+
+
+    /**
+     * Constructs a new `CommandReader` object reading from a channel.
+     *
+     * @param channel
+     *            The channel that supplies the commands.
+     */
+    public CommandReader(ReadableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+
+    /**
+     * Constructs a new `CommandReader` object reading from a channel with a
+     * buffer of the given initial size. The buffer grows if a line does not
+     * fit.
+     *
+     * @param channel
+     *            The channel that supplies the commands.
+     * @param bufferSize
+     *            The initial size of the read buffer in bytes.
+     */
+    public CommandReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize);
+        buffer.limit(0);
+        endOfInput = false;
+        scratch = new byte[256];
+        codes = new int[16];
+    }
+
+
+    /**
+     * Creates a `CommandReader` that memory-maps the given file.
+     *
+     * @param filename
+     *            The name of the file that contains the commands.
+     * @return The new reader.
+     * @throws IOException
+     *             If the file cannot be opened.
+     */
+    public static CommandReader mapped(String filename) throws IOException {
+        return mapped(FileChannel.open(Paths.get(filename),
+            StandardOpenOption.READ), WINDOW_SIZE);
+    }
+
+
+    /**
+     * Creates a `CommandReader` that memory-maps a file in windows of the
+     * given size. A window grows if a line does not fit.
+     *
+     * @param file
+     *            The open file that contains the commands.
+     * @param windowSize
+     *            The number of bytes mapped at a time.
+     * @return The new reader.
+     */
+    public static CommandReader mapped(FileChannel file, int windowSize) {
+        CommandReader reader = new CommandReader(file, 0);
+        reader.mappedFile = file;
+        reader.windowStart = 0;
+        reader.windowSize = windowSize;
+        return reader;
+    }
+
+
+    /**
+     * Reads the next command from the file.
+     *
+     * @return The next command, or `null` at the end of the file.
+     * @throws IOException
+     *             If the file cannot be read.
+     */
+    public Command next() throws IOException {
+        while (readLine()) {
+            if (!nextToken()) {
+                continue; // Blank line
+            }
+
+            if (tokenIs(INSERT)) {
+                int id = parseInt(requireToken());
+                String title = decode(requireLine(), lineEnd);
+                requireLine();
+                String date = decode(requireToken(), tokenEnd);
+                int length = parseInt(requireToken());
+                short x = parseShort(requireToken());
+                short y = parseShort(requireToken());
+                int cost = parseInt(requireToken());
+                requireLine();
+                int[] keywords = internTokens();
+                requireLine();
+                String description = joinTokens((byte)' ');
+                Record record = new Record(id, title, date, length, x, y, cost,
+                    description, keywords);
+                return new Command("insert", id, record, null);
+            }
+            if (tokenIs(SEARCH)) {
+                requireToken();
+                if (tokenIs(KEYWORD)) {
+                    return new Command("keyword", 0, null, joinTokens(
+                        (byte)' '));
+                }
+                if (tokenIs(RADIUS)) {
+                    return new Command("radius", 0, null, null, parseInts(3));
+                }
+                if (tokenIs(BOX)) {
+                    return new Command("box", 0, null, null, parseInts(4));
+                }
+                if (tokenIs(DATE)) {
+                    String from = parseDate(requireToken());
+                    String to = parseDate(requireToken());
+                    return new Command("date", 0, null, from + " " + to);
+                }
+                if (tokenIs(COST)) {
+                    int low = parseInt(requireToken());
+                    if (!nextToken()) {
+                        return new Command("cost", 0, null, null, new int[] {
+                            Integer.MIN_VALUE, low });
+                    }
+                    return new Command("cost", 0, null, null, new int[] { low,
+                        parseInt(tokenStart) });
+                }
+                return new Command("search", parseInt(tokenStart), null,
+                    null);
+            }
+            if (tokenIs(DELETE)) {
+                return new Command("delete", parseInt(requireToken()), null,
+                    null);
+            }
+            if (tokenIs(RANGE)) {
+                return new Command("range", 0, null, null, parseInts(2));
+            }
+            if (tokenIs(PRINT)) {
+                String printCondition = nextToken()
+                    ? decode(tokenStart, tokenEnd)
+                    : "";
+                return new Command("print", 0, null, printCondition);
+            }
+            if (tokenIs(SAVE) || tokenIs(LOAD)) {
+                String verb = tokenIs(SAVE) ? "save" : "load";
+                String file = nextToken() ? decode(tokenStart, tokenEnd) : "";
+                return new Command(verb, 0, null, file);
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Closes the input file.
+     *
+     * @throws IOException
+     *             If the file cannot be closed.
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+
+    /**
+     * Finds the next line in the buffer, reading more of the file when the
+     * line is not complete yet. A line ends at "\n", "\r\n" or "\r".
+     *
+     * @return `true` if a line was found, `false` at the end of the file.
+     */
+    private boolean readLine() throws IOException {
+        int scan = buffer.position();
+        while (true) {
+            int limit = buffer.limit();
+            while (scan < limit) {
+                byte b = buffer.get(scan);
+                if (b == '\n' || b == '\r') {
+                    if (b == '\r' && scan + 1 == limit && !endOfInput) {
+                        break; // Need the next byte to spot "\r\n"
+                    }
+                    setLine(buffer.position(), scan);
+                    int next = scan + 1;
+                    if (b == '\r' && next < limit && buffer.get(next) == '\n') {
+                        next++;
+                    }
+                    buffer.position(next);
+                    return true;
+                }
+                scan++;
+            }
+            if (endOfInput) {
+                if (buffer.position() == limit) {
+                    return false;
+                }
+                setLine(buffer.position(), limit);
+                buffer.position(limit);
+                return true;
+            }
+            scan -= fill();
+        }
+    }
+
+
+    /**
+     * Moves the unread bytes to the front of the buffer, growing it if it is
+     * full, and reads more of the file after them.
+     *
+     * @return The number of bytes the unread data moved towards the front.
+     */
+    private int fill() throws IOException {
+        if (mappedFile != null) {
+            return mapNextWindow();
+        }
+        int shift = buffer.position();
+        if (shift == 0 && buffer.limit() == buffer.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity());
+            larger.put(buffer);
+            buffer = larger;
+        }
+        else {
+            buffer.compact();
+        }
+        int read = channel.read(buffer);
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        if (read == -1) {
+            endOfInput = true;
+        }
+        buffer.flip();
+        return shift;
+    }
+
+
+    /**
+     * Maps the window of the file that starts at the first unparsed byte,
+     * doubling the window if the current one holds less than a full line.
+     *
+     * @return The number of bytes the unread data moved towards the front.
+     */
+    private int mapNextWindow() throws IOException {
+        int shift = buffer.position();
+        long start = windowStart + shift;
+        long size = windowSize;
+        if (shift == 0 && buffer.capacity() > 0 && buffer.limit() == buffer
+            .capacity()) {
+            size = Math.min(2L * buffer.capacity(), Integer.MAX_VALUE);
+        }
+        long length = Math.min(size, mappedFile.size() - start);
+        buffer = mappedFile.map(MapMode.READ_ONLY, start, length);
+        windowStart = start;
+        if (start + length >= mappedFile.size()) {
+            endOfInput = true;
+        }
+        return shift;
+    }
+
+
+    /**
+     * Sets the bounds of the current line and moves the token cursor to its
+     * start.
+     */
+    private void setLine(int start, int end) {
+        lineStart = start;
+        lineEnd = end;
+        cursor = start;
+    }
+
+
+    /**
+     * Reads the next line of a multi-line command.
+     *
+     * @return The start of the line.
+     * @throws NoSuchElementException
+     *             If the file ends first.
+     */
+    private int requireLine() throws IOException {
+        if (!readLine()) {
+            throw new NoSuchElementException("No line found");
+        }
+        return lineStart;
+    }
+
+
+    /**
+     * Finds the next whitespace separated token of the current line.
+     *
+     * @return `true` if a token was found, `false` at the end of the line.
+     */
+    private boolean nextToken() {
+        int pos = cursor;
+        while (pos < lineEnd && isSpace(buffer.get(pos))) {
+            pos++;
+        }
+        if (pos == lineEnd) {
+            cursor = pos;
+            return false;
+        }
+        tokenStart = pos;
+        while (pos < lineEnd && !isSpace(buffer.get(pos))) {
+            pos++;
+        }
+        tokenEnd = pos;
+        cursor = pos;
+        return true;
+    }
+
+
+    /**
+     * Parses the given number of integer tokens from the current line.
+     *
+     * @param count
+     *            The number of integers to parse.
+     * @return The integers in the order they appear.
+     * @throws NumberFormatException
+     *             If the line has fewer tokens or one is not an integer.
+     */
+    private int[] parseInts(int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = parseInt(requireToken());
+        }
+        return values;
+    }
+
+
+    /**
+     * Decodes a date token, which must be exactly ten digits.
+     *
+     * @param start
+     *            The start of the token.
+     * @return The date.
+     * @throws NumberFormatException
+     *             If the token is not a date.
+     */
+    private String parseDate(int start) {
+        String date = decode(start, tokenEnd);
+        if (RecordCodec.packDate(date) == 0) {
+            throw new NumberFormatException("Invalid date: " + date);
+        }
+        return date;
+    }
+
+
+    /**
+     * Finds the next token of the current line, which must be present.
+     *
+     * @return The start of the token.
+     * @throws NumberFormatException
+     *             If the line has no more tokens.
+     */
+    private int requireToken() {
+        if (!nextToken()) {
+            throw new NumberFormatException("Missing field in line: "
+                + decode(lineStart, lineEnd));
+        }
+        return tokenStart;
+    }
+
+
+    /**
+     * Checks whether the current token is the given word.
+     */
+    private boolean tokenIs(byte[] word) {
+        if (tokenEnd - tokenStart != word.length) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (buffer.get(tokenStart + i) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Parses the current token as an int, accepting the same input as
+     * Integer.parseInt.
+     *
+     * @param start
+     *            The start of the token.
+     * @return The value of the token.
+     * @throws NumberFormatException
+     *             If the token is not a valid int.
+     */
+    private int parseInt(int start) {
+        int pos = start;
+        boolean negative = false;
+        byte first = buffer.get(pos);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            pos++;
+        }
+        if (pos == tokenEnd) {
+            throw invalidNumber();
+        }
+        long value = 0;
+        while (pos < tokenEnd) {
+            int digit = buffer.get(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalidNumber();
+            }
+            value = value * 10 + digit;
+            if (value > (long)Integer.MAX_VALUE + 1) {
+                throw invalidNumber();
+            }
+            pos++;
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw invalidNumber();
+        }
+        return (int)value;
+    }
+
+
+    /**
+     * Parses the current token as a short, accepting the same input as
+     * Short.parseShort.
+     */
+    private short parseShort(int start) {
+        int value = parseInt(start);
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw invalidNumber();
+        }
+        return (short)value;
+    }
+
+
+    /**
+     * Creates the exception thrown for a malformed number token.
+     */
+    private NumberFormatException invalidNumber() {
+        return new NumberFormatException("For input string: \"" + decode(
+            tokenStart, tokenEnd) + "\"");
+    }
+
+
+    /**
+     * Joins the remaining tokens of the current line with a separator.
+     *
+     * @param separator
+     *            The byte written between tokens.
+     * @return The joined tokens.
+     */
+    private String joinTokens(byte separator) {
+        int length = 0;
+        while (nextToken()) {
+            int needed = length + (tokenEnd - tokenStart) + 1;
+            if (needed > scratch.length) {
+                byte[] larger = new byte[Math.max(needed, 2 * scratch.length)];
+                System.arraycopy(scratch, 0, larger, 0, length);
+                scratch = larger;
+            }
+            if (length > 0) {
+                scratch[length++] = separator;
+            }
+            for (int pos = tokenStart; pos < tokenEnd; pos++) {
+                scratch[length++] = buffer.get(pos);
+            }
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Interns the remaining tokens of the current line in the shared
+     * `KeywordDictionary`.
+     *
+     * @return The codes of the tokens, in order.
+     */
+    private int[] internTokens() {
+        KeywordDictionary pool = KeywordDictionary.shared();
+        int count = 0;
+        while (nextToken()) {
+            if (count == codes.length) {
+                codes = Arrays.copyOf(codes, 2 * codes.length);
+            }
+            codes[count++] = pool.codeOf(decode(tokenStart, tokenEnd));
+        }
+        return Arrays.copyOf(codes, count);
+    }
+
+
+    /**
+     * Decodes a range of the buffer as UTF-8.
+     */
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, 2 * scratch.length)];
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(start + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Checks whether a byte separates tokens, using the same characters as
+     * the regular expression \s.
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f'
+            || b == '\r';
+    }
+}
@@ -0,0 +1,261 @@
+import student.TestCase;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the CommandReader class. It
+ *          checks the parsing of every command, irregular whitespace and line
+ *          endings, lines longer than the read buffer, memory-mapped files read
+ *          in small windows, and malformed input.
+ */
+public class CommandReaderTest extends TestCase {
+
+    private static final String INPUT = "insert 2\n"
+        + "Computational Biology  at VT \n"
+        + "      0610071600       60     20     10 30\n"
+        + "Bioinformatics computation_biology\tBiology   VT\n"
+        + "    Introduction to   bioinformatics \n"
+        + "\n"
+        + "search    2\r\n"
+        + "unknown 5\r"
+        + "delete -7\n"
+        + "print blocks\n"
+        + "print\n"
+        + "   \n";
+
+    /**
+     * Creates a reader over the given text.
+     */
+    private CommandReader reader(String text, int bufferSize) {
+        return new CommandReader(Channels.newChannel(new ByteArrayInputStream(
+            text.getBytes(StandardCharsets.UTF_8))), bufferSize);
+    }
+
+
+    /**
+     * Reads the sample input with the given buffer size and checks every
+     * command.
+     */
+    private void checkInput(int bufferSize) throws IOException {
+        checkInput(reader(INPUT, bufferSize));
+    }
+
+
+    /**
+     * Checks every command of the sample input read by the given reader.
+     */
+    private void checkInput(CommandReader reader) throws IOException {
+
+        Command insert = reader.next();
+        assertEquals("insert", insert.getVerb());
+        assertEquals(2, insert.getId());
+        Record expected = new Record(2, "Computational Biology  at VT ",
+            "0610071600", 60, (short)20, (short)10, 30,
+            "Introduction to bioinformatics",
+            "Bioinformatics, computation_biology, Biology, VT");
+        assertEquals(expected, insert.getRecord());
+
+        Command search = reader.next();
+        assertEquals("search", search.getVerb());
+        assertEquals(2, search.getId());
+
+        Command delete = reader.next();
+        assertEquals("delete", delete.getVerb());
+        assertEquals(-7, delete.getId());
+
+        assertEquals("blocks", reader.next().getArgument());
+        assertEquals("", reader.next().getArgument());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+
+    /**
+     * Tests parsing with the default buffer.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testParseCommands() throws IOException {
+        checkInput(1 << 16);
+    }
+
+
+    /**
+     * Tests parsing with a buffer smaller than a line, so lines are split
+     * across reads and the buffer has to grow.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testSmallBuffer() throws IOException {
+        checkInput(4);
+        checkInput(7);
+    }
+
+
+    /**
+     * Tests parsing a memory-mapped file, with windows large enough for the
+     * whole file and with windows smaller than a line, which have to grow and
+     * be remapped further into the file.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testMappedFile() throws IOException {
+        Path file = Files.createTempFile("commands", ".txt");
+        try {
+            Files.write(file, INPUT.getBytes(StandardCharsets.UTF_8));
+            for (int windowSize : new int[] { 1 << 16, 4, 7 }) {
+                checkInput(CommandReader.mapped(FileChannel.open(file,
+                    StandardOpenOption.READ), windowSize));
+            }
+            checkInput(CommandReader.mapped(file.toString()));
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+
+    /**
+     * Tests parsing of keyword searches.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testKeywordSearch() throws IOException {
+        CommandReader reader = reader("search keyword  VT AND\tHCI \n"
+            + "search keyword\n", 16);
+        Command search = reader.next();
+        assertEquals("keyword", search.getVerb());
+        assertEquals("VT AND HCI", search.getArgument());
+        assertFalse(search.isKeyed());
+        assertEquals("", reader.next().getArgument());
+    }
+
+
+    /**
+     * Tests parsing of radius and box searches.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testLocationSearch() throws IOException {
+        CommandReader reader = reader("search radius 10 -20 5\n"
+            + "search box 1 2  3\t4\n", 16);
+        Command radius = reader.next();
+        assertEquals("radius", radius.getVerb());
+        assertTrue(Arrays.equals(new int[] { 10, -20, 5 }, radius
+            .getNumbers()));
+        assertFalse(radius.isKeyed());
+        Command box = reader.next();
+        assertEquals("box", box.getVerb());
+        assertTrue(Arrays.equals(new int[] { 1, 2, 3, 4 }, box.getNumbers()));
+    }
+
+
+    /**
+     * Tests parsing of date and cost range searches.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testRangeSearch() throws IOException {
+        CommandReader reader = reader("search date 0610010000 0612312359\n"
+            + "search cost 20 40\nsearch cost 30\nsearch date 0610 0611\n",
+            16);
+        assertEquals("0610010000 0612312359", reader.next().getArgument());
+        assertTrue(Arrays.equals(new int[] { 20, 40 }, reader.next()
+            .getNumbers()));
+        assertTrue(Arrays.equals(new int[] { Integer.MIN_VALUE, 30 }, reader
+            .next().getNumbers()));
+        Exception thrown = null;
+        try {
+            reader.next();
+        }
+        catch (NumberFormatException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+
+
+    /**
+     * Tests parsing of ID ranges.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testIdRange() throws IOException {
+        Command range = reader("range 5 -7\n", 16).next();
+        assertEquals("range", range.getVerb());
+        assertTrue(Arrays.equals(new int[] { 5, -7 }, range.getNumbers()));
+        assertFalse(range.isKeyed());
+    }
+
+
+    /**
+     * Tests that an insert without all of its lines fails.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testTruncatedInsert() throws IOException {
+        CommandReader reader = reader("insert 1\nTitle\n", 16);
+        Exception thrown = null;
+        try {
+            reader.next();
+        }
+        catch (NoSuchElementException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+
+
+    /**
+     * Tests that malformed and out of range numbers are rejected.
+     *
+     * @throws IOException
+     *             If the input cannot be read.
+     */
+    @Test
+    public void testInvalidNumbers() throws IOException {
+        String[] inputs = { "search 12x\n", "delete 2147483648\n",
+            "insert 1\nT\n0610071600 60 40000 10 30\nK\nD\n", "search\n" };
+        for (String input : inputs) {
+            Exception thrown = null;
+            try {
+                reader(input, 16).next();
+            }
+            catch (NumberFormatException e) {
+                thrown = e;
+            }
+            assertNotNull(thrown);
+        }
+        assertEquals(Integer.MIN_VALUE, reader("search -2147483648", 16).next()
+            .getId());
+    }
+}
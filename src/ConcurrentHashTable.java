@@ -0,0 +1,721 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * The `ConcurrentHashTable` class is a thread-safe version of `HashTable`
+ * that can be shared by many threads. It offers the same insert, search,
+ * delete and print operations and produces the same output.
+ *
+ * Each slot is a single long holding the ID in its upper half and the memory
+ * pool position in its lower half, so a slot is always read and written as a
+ * whole. Searches take no slot locks: they read the current slot array once
+ * and probe it with volatile reads. Inserts and deletes lock one of a fixed
+ * set of stripes chosen from the ID, so operations on the same ID run one at
+ * a time while operations on different IDs run in parallel and claim empty
+ * slots with compare-and-set. An expansion takes every stripe, builds the
+ * new slot array on the side and then publishes it, so readers always see
+ * either the old or the new array in full.
+ *
+ * The memory pool is guarded by a read-write lock. A search re-reads its slot
+ * under the read lock before reading the record bytes, which guarantees the
+ * block has not been freed and reused in the meantime.
+ *
+ * Snapshots use the same file format as `HashTable`, so a snapshot saved by
+ * either table can be loaded by the other.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class ConcurrentHashTable implements RecordTable {
+
+    private static final double LOAD_FACTOR_THRESHOLD = 0.5;
+    private static final double TOMBSTONE_THRESHOLD = 0.25;
+    private static final int STRIPES = 64;
+    private static final int EMPTY = -1;
+    private static final int TOMBSTONE = -2;
+    private static final long EMPTY_SLOT = pack(Integer.MIN_VALUE, EMPTY);
+    private static final long TOMBSTONE_SLOT = pack(Integer.MIN_VALUE + 1,
+        TOMBSTONE);
+
+    private volatile AtomicLongArray slots;
+    private AtomicInteger size;
+    private AtomicInteger tombstones;
+    private ReentrantLock[] stripes;
+    private ReentrantReadWriteLock poolLock;
+    private ProbeStrategy strategy;
+    private MemoryManager memory;
+    private KeywordDictionary keywords;
+    private PrintWriter writer;
+
+    /**
+     * Constructs a new `ConcurrentHashTable` object with the specified memory
+     * pool size, initial capacity, and PrintWriter object.
+     *
+     * @param memoryPoolSize
+     *            The size of the memory pool in bytes.
+     * @param initialCapacity
+     *            The initial capacity of the hash table.
+     * @param writer
+     *            The PrintWriter object used for output.
+     */
+    public ConcurrentHashTable(
+        int memoryPoolSize,
+        int initialCapacity,
+        PrintWriter writer) {
+        this(memoryPoolSize, initialCapacity, writer, false);
+    }
+
+
+    /**
+     * Constructs a new `ConcurrentHashTable` object with the specified memory
+     * pool size, initial capacity, PrintWriter object and memory pool
+     * placement.
+     *
+     * @param memoryPoolSize
+     *            The size of the memory pool in bytes.
+     * @param initialCapacity
+     *            The initial capacity of the hash table, rounded up to a
+     *            power of two of at least 2.
+     * @param writer
+     *            The PrintWriter object used for output.
+     * @param offHeap
+     *            `true` to keep the memory pool outside the Java heap,
+     *            `false` to keep it on the heap.
+     */
+    public ConcurrentHashTable(
+        int memoryPoolSize,
+        int initialCapacity,
+        PrintWriter writer,
+        boolean offHeap) {
+        int capacity = 2;
+        while (capacity < initialCapacity) {
+            capacity *= 2; // The double hashing step covers powers of two
+        }
+        slots = emptySlots(capacity);
+        size = new AtomicInteger();
+        tombstones = new AtomicInteger();
+        stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        poolLock = new ReentrantReadWriteLock();
+        strategy = new DoubleHashProbe();
+        memory = new MemoryManager(memoryPoolSize, writer, offHeap);
+        keywords = new KeywordDictionary();
+        this.writer = writer;
+    }
+
+
+    /**
+     * Inserts a record into the table if it doesn't already exist and expands
+     * the table if it reaches a load factor threshold.
+     *
+     * @param record
+     *            The record to be inserted into the table.
+     * @return `true` if the record is inserted successfully, `false` if a
+     *         record with the same ID already exists.
+     */
+    public boolean insert(Record record) {
+        int id = record.getId();
+        KeywordDictionary dictionary = keywords;
+        byte[] data = RecordCodec.encode(record, dictionary);
+        ReentrantLock lock = stripeFor(id);
+
+        while (true) {
+            boolean forceResize = false;
+            lock.lock();
+            try {
+                AtomicLongArray current = slots;
+                if (find(current, id) != -1) {
+                    // Record with the same id already exists
+                    return false;
+                }
+                if (!needsResize(current)) {
+                    if (dictionary != keywords) {
+                        // A snapshot was loaded since the record was encoded
+                        dictionary = keywords;
+                        data = RecordCodec.encode(record, dictionary);
+                    }
+                    int handle = allocate(data);
+                    if (claim(current, id, handle)) {
+                        size.incrementAndGet();
+                        return true;
+                    }
+                    release(handle); // Every slot was taken by other stripes
+                    forceResize = true;
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+            resize(forceResize);
+        }
+    }
+
+
+    /**
+     * Searches for a record with a given ID in the table without taking any
+     * slot lock.
+     *
+     * @param id
+     *            The ID of the record to search for.
+     * @param searchMode
+     *            `true` to print a message if the search fails,
+     *            `false` otherwise.
+     * @return The found record, `null` if not found.
+     */
+    public Record search(int id, boolean searchMode) {
+        while (true) {
+            AtomicLongArray current = slots;
+            int index = find(current, id);
+            if (index == -1) {
+                break;
+            }
+            Record record = read(current, index, current.get(index));
+            if (record != null) {
+                return record;
+            }
+            // The slot changed before the record could be read, try again
+        }
+        if (searchMode == true) {
+            writer.println("Search FAILED -- There is no record with ID " + id);
+        }
+        return null;
+    }
+
+
+    /**
+     * Looks up a record by ID without printing a message. Searches of this
+     * table are not counted in the metrics, so this is a quiet search.
+     *
+     * @param id
+     *            The ID of the record to look up.
+     * @return The record, `null` if not found.
+     */
+    public Record lookup(int id) {
+        return search(id, false);
+    }
+
+
+    /**
+     * Deletes a record with a given ID by marking its slot as a tombstone.
+     *
+     * @param id
+     *            The ID of the record to be deleted.
+     * @return `true` if the record is found and successfully deleted, `false`
+     *         otherwise.
+     */
+    public boolean delete(int id) {
+        ReentrantLock lock = stripeFor(id);
+        lock.lock();
+        try {
+            AtomicLongArray current = slots;
+            int index = find(current, id);
+            if (index == -1) {
+                return false;
+            }
+            int handle = handleOf(current.get(index));
+            // Live slots are only changed under their own stripe lock
+            current.set(index, TOMBSTONE_SLOT);
+            size.decrementAndGet();
+            tombstones.incrementAndGet();
+            release(handle);
+            return true;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Doubles the size of the hash table, or rounds it up to the next power
+     * of two, and rehashes the existing slots into the new table while
+     * holding every stripe lock.
+     */
+    public void expandTable() {
+        lockAll();
+        try {
+            rebuild(nextCapacity(slots.length()));
+        }
+        finally {
+            unlockAll();
+        }
+    }
+
+
+    /**
+     * Prints the contents of the hash table, including the index and ID of
+     * the record
+     *
+     * @return the hash table as the output
+     */
+    public String printHashTable() {
+        lockAll();
+        try {
+            AtomicLongArray current = slots;
+            StringBuilder output = new StringBuilder("HashTable:\n");
+            int count = 0;
+            for (int i = 0; i < current.length(); i++) {
+                long slot = current.get(i);
+                if (slot == TOMBSTONE_SLOT) {
+                    output.append(i).append(": TOMBSTONE\n");
+                }
+                else if (slot != EMPTY_SLOT) {
+                    output.append(i).append(": ").append(keyOf(slot)).append(
+                        "\n");
+                    count++;
+                }
+            }
+            output.append("total records: ").append(count);
+
+            writer.print(output);
+            return output.toString();
+        }
+        finally {
+            unlockAll();
+        }
+    }
+
+
+    /**
+     * Passes every record of the table to an action, in slot order, while
+     * holding every stripe lock.
+     *
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachRecord(Consumer<Record> action) {
+        lockAll();
+        try {
+            AtomicLongArray current = slots;
+            for (int i = 0; i < current.length(); i++) {
+                long slot = current.get(i);
+                if (handleOf(slot) >= 0) {
+                    action.accept(read(current, i, slot));
+                }
+            }
+        }
+        finally {
+            unlockAll();
+        }
+    }
+
+
+    /**
+     * Passes the records with an ID in a range to an action, in increasing
+     * ID order. The slots are in hash order, so the matching records are
+     * collected and sorted first.
+     *
+     * @param low
+     *            The smallest ID, inclusive.
+     * @param high
+     *            The largest ID, inclusive.
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachInRange(int low, int high, Consumer<Record> action) {
+        List<Record> found = new ArrayList<Record>();
+        forEachRecord(record -> {
+            if (record.getId() >= low && record.getId() <= high) {
+                found.add(record);
+            }
+        });
+        found.sort(Comparator.comparingInt(Record::getId));
+        found.forEach(action);
+    }
+
+
+    /**
+     * Saves the slots and the memory pool to a snapshot file while holding
+     * every stripe lock.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public void save(String filename) throws IOException {
+        lockAll();
+        poolLock.writeLock().lock();
+        try {
+            AtomicLongArray current = slots;
+            SlotTable table = new SlotTable(current.length(), strategy);
+            for (int i = 0; i < current.length(); i++) {
+                long slot = current.get(i);
+                if (slot == TOMBSTONE_SLOT) {
+                    table.put(i, Integer.MIN_VALUE + 1, 0);
+                    table.remove(i);
+                }
+                else if (slot != EMPTY_SLOT) {
+                    table.put(i, keyOf(slot), handleOf(slot));
+                }
+            }
+            new Snapshot(table, memory, keywords).save(filename);
+        }
+        finally {
+            poolLock.writeLock().unlock();
+            unlockAll();
+        }
+    }
+
+
+    /**
+     * Replaces the slots and the memory pool with the ones in a snapshot
+     * file while holding every stripe lock. Searches that started on the old
+     * slots notice the new slot array and start over. The table is left
+     * unchanged if the file cannot be loaded.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be read or is not a valid snapshot.
+     */
+    public void load(String filename) throws IOException {
+        lockAll();
+        poolLock.writeLock().lock();
+        try {
+            Snapshot snapshot = Snapshot.load(filename, strategy, writer,
+                memory.isOffHeap());
+            SlotTable table = snapshot.getTable();
+            AtomicLongArray loaded = new AtomicLongArray(table.getCapacity());
+            for (int i = 0; i < table.getCapacity(); i++) {
+                loaded.set(i, pack(table.getKey(i), table.getHandle(i)));
+            }
+            memory = snapshot.getMemory();
+            keywords = snapshot.getKeywords();
+            size.set(table.getSize());
+            tombstones.set(table.getTombstoneCount());
+            slots = loaded;
+        }
+        finally {
+            poolLock.writeLock().unlock();
+            unlockAll();
+        }
+    }
+
+
+    /**
+     * Prints the free blocks of the memory pool
+     */
+    public void printMemoryBlocks() {
+        poolLock.writeLock().lock();
+        try {
+            memory.printFreeBlocks();
+        }
+        finally {
+            poolLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Returns metrics holding the current number of records, capacity and
+     * tombstones of the table. Operations are not timed here, since
+     * `TableMetrics` is only recorded by the single threaded tables.
+     *
+     * @return The state of the table.
+     */
+    public TableMetrics getMetrics() {
+        TableMetrics metrics = new TableMetrics();
+        metrics.setState(size.get(), slots.length(), tombstones.get());
+        return metrics;
+    }
+
+
+    /**
+     * Returns the PrintWriter the table writes its own messages to
+     *
+     * @return The writer of the table
+     */
+    public PrintWriter getWriter() {
+        return writer;
+    }
+
+
+    /**
+     * Changes the PrintWriter the table and its memory pool write their
+     * messages to.
+     *
+     * @param writer
+     *            The writer to use from now on.
+     */
+    public void setWriter(PrintWriter writer) {
+        this.writer = writer;
+        memory.setWriter(writer);
+    }
+
+
+    /**
+     * Returns the size of the hash table
+     *
+     * @return Size of the Hash Table
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+
+    /**
+     * Returns the number of live records in the table
+     *
+     * @return Number of live records
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+
+    /**
+     * Probes a slot array for a live record without locking.
+     *
+     * @param current
+     *            The slot array to probe.
+     * @param id
+     *            The ID of the record.
+     * @return The index of the record, or -1 if it is not present.
+     */
+    private int find(AtomicLongArray current, int id) {
+        int length = current.length();
+        int index = strategy.home(id, length);
+        int step = strategy.step(id, length);
+        for (int probes = 1; probes <= length; probes++) {
+            long slot = current.get(index);
+            if (keyOf(slot) == id && handleOf(slot) >= 0) {
+                return index;
+            }
+            if (slot == EMPTY_SLOT) {
+                return -1;
+            }
+            index = strategy.next(index, step, probes, length);
+        }
+        return -1;
+    }
+
+
+    /**
+     * Claims the first empty slot or tombstone on the probe path of an ID.
+     * Other stripes may claim slots at the same time, so a slot is only taken
+     * if it still holds what was read.
+     *
+     * @param current
+     *            The slot array to insert into.
+     * @param id
+     *            The ID of the record.
+     * @param handle
+     *            The position of the record in the memory pool.
+     * @return `true` if a slot was claimed, `false` if the probe path is full.
+     */
+    private boolean claim(AtomicLongArray current, int id, int handle) {
+        int length = current.length();
+        int index = strategy.home(id, length);
+        int step = strategy.step(id, length);
+        long value = pack(id, handle);
+        int probes = 0;
+        while (probes < length) {
+            long slot = current.get(index);
+            if (slot == EMPTY_SLOT || slot == TOMBSTONE_SLOT) {
+                if (current.compareAndSet(index, slot, value)) {
+                    if (slot == TOMBSTONE_SLOT) {
+                        tombstones.decrementAndGet();
+                    }
+                    return true;
+                }
+                continue; // Lost the slot to another stripe, look again
+            }
+            probes++;
+            index = strategy.next(index, step, probes, length);
+        }
+        return false;
+    }
+
+
+    /**
+     * Decodes a record after checking, under the pool read lock, that its
+     * slot still holds the same record in the current slot array.
+     *
+     * @return The record, or `null` if the slot changed.
+     */
+    private Record read(AtomicLongArray current, int index, long slot) {
+        poolLock.readLock().lock();
+        try {
+            if (slots != current || current.get(index) != slot) {
+                return null;
+            }
+            return RecordCodec.decode(memory.get(handleOf(slot)), keywords);
+        }
+        finally {
+            poolLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Stores record bytes in the memory pool.
+     */
+    private int allocate(byte[] data) {
+        poolLock.writeLock().lock();
+        try {
+            return memory.insert(data);
+        }
+        finally {
+            poolLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Frees a block of the memory pool.
+     */
+    private void release(int handle) {
+        poolLock.writeLock().lock();
+        try {
+            memory.remove(handle);
+        }
+        finally {
+            poolLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Checks whether the table has to be expanded or purged of tombstones
+     * before the next insert.
+     */
+    private boolean needsResize(AtomicLongArray current) {
+        int length = current.length();
+        return size.get() >= length * LOAD_FACTOR_THRESHOLD || tombstones
+            .get() > length * TOMBSTONE_THRESHOLD;
+    }
+
+
+    /**
+     * Expands the table, or rehashes it at the same capacity when only the
+     * tombstones are over their threshold, unless another thread already
+     * did.
+     *
+     * @param force
+     *            `true` to expand even if the thresholds are not reached.
+     */
+    private void resize(boolean force) {
+        lockAll();
+        try {
+            int length = slots.length();
+            if (force || size.get() >= length * LOAD_FACTOR_THRESHOLD) {
+                rebuild(nextCapacity(length));
+            }
+            else if (tombstones.get() > length * TOMBSTONE_THRESHOLD) {
+                rebuild(length);
+            }
+        }
+        finally {
+            unlockAll();
+        }
+    }
+
+
+    /**
+     * Rehashes every live slot into a new slot array and publishes it. Must
+     * be called while holding every stripe lock.
+     */
+    private void rebuild(int capacity) {
+        AtomicLongArray current = slots;
+        AtomicLongArray rebuilt = emptySlots(capacity);
+        for (int i = 0; i < current.length(); i++) {
+            long slot = current.get(i);
+            if (handleOf(slot) >= 0) {
+                claim(rebuilt, keyOf(slot), handleOf(slot));
+            }
+        }
+        tombstones.set(0);
+        slots = rebuilt;
+
+        if (capacity > current.length()) {
+            writer.println("Hash table expanded to " + capacity + " records");
+        }
+    }
+
+
+    /**
+     * Returns the capacity the table expands to: the smallest power of two
+     * above the given capacity, which is double the capacity unless a
+     * snapshot with a prime capacity was loaded.
+     */
+    private static int nextCapacity(int capacity) {
+        return Integer.highestOneBit(capacity) * 2;
+    }
+
+
+    /**
+     * Returns the stripe lock guarding an ID.
+     */
+    private ReentrantLock stripeFor(int id) {
+        int mixed = id * 0x9E3779B9;
+        return stripes[(mixed ^ (mixed >>> 16)) & (STRIPES - 1)];
+    }
+
+
+    /**
+     * Acquires every stripe lock in order.
+     */
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+
+    /**
+     * Releases every stripe lock.
+     */
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+
+    /**
+     * Creates a slot array with every slot empty.
+     */
+    private static AtomicLongArray emptySlots(int capacity) {
+        AtomicLongArray created = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            created.set(i, EMPTY_SLOT);
+        }
+        return created;
+    }
+
+
+    /**
+     * Packs an ID and a memory pool position into one slot value.
+     */
+    private static long pack(int id, int handle) {
+        return ((long)id << 32) | (handle & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Returns the ID stored in a slot value.
+     */
+    private static int keyOf(long slot) {
+        return (int)(slot >>> 32);
+    }
+
+
+    /**
+     * Returns the memory pool position stored in a slot value.
+     */
+    private static int handleOf(long slot) {
+        return (int)slot;
+    }
+}
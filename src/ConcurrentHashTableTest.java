@@ -0,0 +1,139 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the ConcurrentHashTable class.
+ *          It checks that a single thread sees the same behavior as the
+ *          HashTable class and that concurrent inserts, searches and deletes
+ *          from many threads leave the table in the expected state.
+ */
+public class ConcurrentHashTableTest extends TestCase {
+
+    private StringWriter output;
+    private ConcurrentHashTable ht;
+
+    /**
+     * Sets up an empty table before each test method.
+     */
+    @Before
+    public void setUp() {
+        output = new StringWriter();
+        ht = new ConcurrentHashTable(64, 4, new PrintWriter(output, true));
+    }
+
+
+    /**
+     * Creates a small record with the given ID.
+     */
+    private Record record(int id) {
+        return new Record(id, "Seminar " + id, "2111011200", 60, (short)10,
+            (short)20, 100, "Description", "Keyword1, Keyword2");
+    }
+
+
+    /**
+     * Tests insert, duplicate insert, search, delete and print from a single
+     * thread against the output of the HashTable class.
+     */
+    @Test
+    public void testSingleThreadMatchesHashTable() {
+        StringWriter expected = new StringWriter();
+        HashTable reference = new HashTable(64, 4, new PrintWriter(expected,
+            true));
+        int[] ids = { 1, 2, 3, 3, 10, 18 };
+        for (int id : ids) {
+            assertEquals(reference.insert(record(id)), ht.insert(record(id)));
+        }
+        assertEquals(reference.delete(2), ht.delete(2));
+        assertEquals(reference.delete(2), ht.delete(2));
+        assertEquals(record(3), ht.search(3, true));
+        assertNull(ht.search(2, true));
+        reference.search(2, true);
+        assertEquals(reference.printHashTable(), ht.printHashTable());
+        assertEquals(reference.getCapacity(), ht.getCapacity());
+        assertEquals(expected.toString(), output.toString());
+    }
+
+
+    /**
+     * Tests that concurrent inserts from many threads are all kept, that
+     * each record is found afterwards, and that deleting half of them from
+     * many threads leaves exactly the other half.
+     *
+     * @throws Exception
+     *             If a worker thread fails.
+     */
+    @Test
+    public void testConcurrentInsertSearchDelete() throws Exception {
+        final int threads = 8;
+        final int perThread = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threads; t++) {
+                final int base = t * perThread;
+                results.add(pool.submit(new Callable<Integer>() {
+                    public Integer call() {
+                        int found = 0;
+                        for (int i = 0; i < perThread; i++) {
+                            ht.insert(record(base + i));
+                            if (ht.search(base + i / 2, false) != null) {
+                                found++;
+                            }
+                        }
+                        return found;
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(perThread, (int)result.get());
+            }
+            assertEquals(threads * perThread, ht.getSize());
+
+            results.clear();
+            for (int t = 0; t < threads; t++) {
+                final int base = t * perThread;
+                results.add(pool.submit(new Callable<Integer>() {
+                    public Integer call() {
+                        int deleted = 0;
+                        for (int i = 0; i < perThread; i += 2) {
+                            if (ht.delete(base + i)) {
+                                deleted++;
+                            }
+                        }
+                        return deleted;
+                    }
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(perThread / 2, (int)result.get());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        for (int id = 0; id < threads * perThread; id++) {
+            Record found = ht.search(id, false);
+            if (id % 2 == 0) {
+                assertNull(found);
+            }
+            else {
+                assertEquals(record(id), found);
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * The `DoubleHashProbe` class is the original probing scheme of the hash
+ * table. The home slot is the ID modulo the capacity and the step is an odd
+ * number derived from the remaining bits of the ID, so every slot of a power
+ * of two table is visited. The ID can be mixed by an `IdHash` first, which
+ * spreads IDs that share their low bits.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class DoubleHashProbe implements ProbeStrategy {
+
+    private final IdHash hash;
+
+    /**
+     * Constructs a new `DoubleHashProbe` that uses the IDs as they are.
+     */
+    public DoubleHashProbe() {
+        this(IdHash.LEGACY);
+    }
+
+
+    /**
+     * Constructs a new `DoubleHashProbe` that hashes the IDs first.
+     *
+     * @param hash
+     *            The function applied to each ID.
+     */
+    public DoubleHashProbe(IdHash hash) {
+        this.hash = hash;
+    }
+
+
+    /**
+     * Returns the hash of the ID modulo the capacity.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The home slot of the ID.
+     */
+    @Override
+    public int home(int id, int capacity) {
+        return hash.mix(id) % capacity;
+    }
+
+
+    /**
+     * Returns an odd step taken from the bits of the hash above the home
+     * slot. The step is less than the capacity, so it also visits every slot
+     * of a table whose capacity is prime.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The probe step of the ID.
+     */
+    @Override
+    public int step(int id, int capacity) {
+        return (((hash.mix(id) / capacity) % (capacity / 2)) * 2) + 1;
+    }
+
+
+    /**
+     * Returns the slot one step after the given one.
+     *
+     * @param index
+     *            The slot probed last.
+     * @param step
+     *            The probe step of the ID.
+     * @param probe
+     *            The number of slots probed so far.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The next slot to probe.
+     */
+    @Override
+    public int next(int index, int step, int probe, int capacity) {
+        return (index + step) % capacity;
+    }
+
+
+    /**
+     * Checks whether the capacity is a power of two or a prime of at least
+     * 2, the capacities an odd step smaller than the capacity covers.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return `true` if the capacity is covered, `false` otherwise.
+     */
+    @Override
+    public boolean covers(int capacity) {
+        return capacity >= 2 && (Integer.bitCount(capacity) == 1 || isPrime(
+            capacity));
+    }
+
+
+    /**
+     * Creates an empty slot table that uses double hashing with tombstones.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The new slot table.
+     */
+    @Override
+    public SlotTable createTable(int capacity) {
+        return new SlotTable(capacity, this);
+    }
+
+
+    /**
+     * Returns the function applied to each ID.
+     *
+     * @return The hash of the IDs.
+     */
+    @Override
+    public IdHash getHash() {
+        return hash;
+    }
+
+
+    /**
+     * Checks whether a number of at least 2 is prime. The prime capacity
+     * policy of `HashTable` uses the same test, so the capacities it picks
+     * are the ones `covers` accepts.
+     *
+     * @param number
+     *            The number to test, at least 2.
+     * @return `true` if the number is prime, `false` otherwise.
+     */
+    static boolean isPrime(int number) {
+        for (int divisor = 2; divisor <= number / divisor; divisor++) {
+            if (number % divisor == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,24 +1,62 @@
-
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * The `HashTable` class represents a data structure that allows for efficient
  * insertion, deletion, and searching of records based on their ID. It provides
  * methods for managing records in the hash table, such as insertion, search,
  * deletion, and expansion.
+ *
+ * Records are not kept as objects. Each record is encoded by `RecordCodec`,
+ * with its keywords coded against the table's `KeywordDictionary`, into the
+ * memory pool managed by a `MemoryManager`, and the slots of the table, kept
+ * in a `SlotTable`, only hold the ID and pool position of each record. The
+ * probe sequence is set by a `ProbeStrategy`: the original double hashing
+ * by default, linear, quadratic, or Robin Hood hashing, with the IDs used as
+ * they are or mixed by an `IdHash`. The capacity doubles on every expansion
+ * unless the prime capacity policy is chosen.
+ *
+ * Deleted slots become tombstones. Searches probe past them, inserts reuse
+ * the first tombstone on the probe path, and once the share of tombstones in
+ * the table passes a configurable threshold the next insert rehashes the
+ * table at its current capacity to clear them.
+ *
+ * By default an expansion rehashes every record at once. In incremental mode
+ * the old slots are kept next to the doubled table and a bounded number of
+ * them is moved on every insert and delete, with searches and deletes
+ * consulting both tables until the move is complete.
+ *
+ * The slots and the memory pool can be saved to a binary `Snapshot` and
+ * loaded back without replaying the commands that built them.
+ *
+ * Every insert, search and delete is timed and its probe length recorded in
+ * the table's `TableMetrics`, along with every expansion and purge.
  * 
  * @author Aayush Bagrecha
  * @author Yash Shrikant
  * @version 1.0
  */
-public class HashTable {
+public class HashTable implements RecordTable {
 
     private static final double LOAD_FACTOR_THRESHOLD = 0.5;
+    private static final double DEFAULT_TOMBSTONE_THRESHOLD = 0.25;
 
-    private Record[] table;
+    private ProbeStrategy strategy;
+    private SlotTable table;
+    private SlotTable oldTable;
+    private int migrateIndex;
+    private int migrateStep;
     private int size;
-    private int memoryPoolSize;
-    private int[] freeBlocks;
+    private double tombstoneThreshold;
+    private boolean primeCapacity;
+    private MemoryManager memory;
+    private KeywordDictionary keywords;
+    private TableMetrics metrics;
     private PrintWriter writer;
 
     /**
@@ -36,22 +74,45 @@ public class HashTable {
         int memoryPoolSize,
         int initialCapacity,
         PrintWriter writer) {
-        table = new Record[initialCapacity];
-        size = 0;
-        this.memoryPoolSize = memoryPoolSize;
-        freeBlocks = new int[memoryPoolSize];
+        this(memoryPoolSize, initialCapacity, writer, false);
+    }
 
-        for (int i = 0; i < memoryPoolSize; i++) {
-            freeBlocks[i] = -1;
-        }
 
+    /**
+     * Constructs a new `HashTable` object with the specified memory pool size,
+     * initial capacity, PrintWriter object and memory pool placement.
+     *
+     * @param memoryPoolSize
+     *            The size of the memory pool in bytes.
+     * @param initialCapacity
+     *            The initial capacity of the hash table, rounded up to a
+     *            power of two of at least 2.
+     * @param writer
+     *            The PrintWriter object used for output.
+     * @param offHeap
+     *            `true` to keep the memory pool outside the Java heap,
+     *            `false` to keep it on the heap.
+     */
+    public HashTable(
+        int memoryPoolSize,
+        int initialCapacity,
+        PrintWriter writer,
+        boolean offHeap) {
+        strategy = new DoubleHashProbe();
+        table = strategy.createTable(fitCapacity(initialCapacity));
+        size = 0;
+        tombstoneThreshold = DEFAULT_TOMBSTONE_THRESHOLD;
+        memory = new MemoryManager(memoryPoolSize, writer, offHeap);
+        keywords = new KeywordDictionary();
+        metrics = new TableMetrics();
         this.writer = writer;
     }
 
 
     /**
      * Inserts a record into the table if it doesn't already exist and expands
-     * the table if it reaches a load factor threshold.
+     * the table if it reaches a load factor threshold. The record takes the
+     * first tombstone on its probe path if there is one.
      *
      * @param record
      *            The record to be inserted into the table.
@@ -59,21 +120,135 @@ public class HashTable {
      *         record with the same ID already exists.
      */
     public boolean insert(Record record) {
-        if (search(record.getId(), false) != null) {
+        long start = System.nanoTime();
+        boolean inserted = insertRecord(record);
+        metrics.recordInsert(inserted, System.nanoTime() - start);
+        metrics.recordProbes(table.getLastProbeCount());
+        return inserted;
+    }
+
+
+    /**
+     * Inserts a record, expanding the table or purging its tombstones first
+     * if needed.
+     */
+    private boolean insertRecord(Record record) {
+        int id = record.getId();
+        migrate();
+        int index = table.findIndex(id);
+        if (table.isLive(index, id) || findOld(id) != -1) {
             // Record with the same id already exists
             return false;
         }
 
-        if (size >= table.length * LOAD_FACTOR_THRESHOLD) {
+        if (oldTable == null && table.getTombstoneCount() > table
+            .getCapacity() * tombstoneThreshold) {
+            purgeTombstones();
+            index = table.findIndex(id);
+        }
+        if (size >= table.getCapacity() * LOAD_FACTOR_THRESHOLD) {
             expandTable();
+            index = table.findIndex(id);
         }
-        int index = findIndex(record.getId());
-        table[index] = record;
+        while (index == -1) {
+            // Every slot on the probe path holds another record
+            expandTable();
+            index = table.findIndex(id);
+        }
+        int start = memory.insert(RecordCodec.encode(record, keywords));
+        table.put(index, id, start);
         size++;
         return true;
     }
 
 
+    /**
+     * Inserts many records at once, with the same outcome as inserting them
+     * one by one: the first record with an ID wins, later ones are reported
+     * as duplicates, and the expansion messages of the sequential inserts
+     * are printed before the records that would have caused them.
+     *
+     * The table is grown to the capacity the records need once, up front,
+     * instead of doubling and rehashing on the way, and each record is
+     * placed with a single probe that also finds its duplicates. If
+     * duplicates leave the table larger than the sequential inserts would
+     * have, it is rehashed once more at the smaller capacity. An incremental
+     * expansion in progress is finished first.
+     *
+     * @param records
+     *            The records to be inserted, in order.
+     * @param result
+     *            Called with each record, in order, and `true` if it was
+     *            inserted or `false` if its ID was already taken.
+     * @return The number of records inserted.
+     */
+    public int insertAll(
+        Record[] records,
+        BiConsumer<Record, Boolean> result) {
+        if (records.length == 0) {
+            return 0;
+        }
+        finishMigration();
+        if (table.getTombstoneCount() > table.getCapacity()
+            * tombstoneThreshold) {
+            purgeTombstones();
+        }
+        int capacity = table.getCapacity();
+        int needed = table.getCapacity();
+        while (size + records.length - 1 >= needed * LOAD_FACTOR_THRESHOLD) {
+            needed = nextCapacity(needed);
+        }
+        if (needed > capacity) {
+            resize(needed);
+        }
+
+        int inserted = 0;
+        for (Record record : records) {
+            long start = System.nanoTime();
+            int id = record.getId();
+            int index = table.findIndex(id);
+            boolean added = !table.isLive(index, id);
+            while (index == -1) {
+                long grown = System.nanoTime();
+                resize(nextCapacity(table.getCapacity()));
+                metrics.recordExpansion(System.nanoTime() - grown);
+                index = table.findIndex(id);
+            }
+            if (added) {
+                if (size >= capacity * LOAD_FACTOR_THRESHOLD) {
+                    capacity = nextCapacity(capacity);
+                    writer.println("Hash table expanded to " + capacity
+                        + " records");
+                }
+                int handle = memory.insert(RecordCodec.encode(record,
+                    keywords));
+                table.put(index, id, handle);
+                size++;
+                inserted++;
+            }
+            metrics.recordInsert(added, System.nanoTime() - start);
+            metrics.recordProbes(table.getLastProbeCount());
+            result.accept(record, added);
+        }
+        if (capacity < table.getCapacity()) {
+            resize(capacity);
+        }
+        return inserted;
+    }
+
+
+    /**
+     * Rehashes every record into a table of the given capacity without
+     * printing anything or recording an expansion, as presizing a bulk load
+     * is not one.
+     */
+    private void resize(int capacity) {
+        SlotTable resized = strategy.createTable(capacity);
+        table.moveTo(resized, 0, table.getCapacity());
+        table = resized;
+    }
+
+
     /**
      * Searches for a record with a given ID in the table.
      *
@@ -86,14 +261,37 @@ public class HashTable {
      *         as deleted.
      */
     public Record search(int id, boolean searchMode) {
-        int index = findIndex(id);
-        if (table[index] != null && table[index].getId() == id && !table[index]
-            .isDeleted()) {
-            return table[index];
-        }
-        if (searchMode == true) {
+        long start = System.nanoTime();
+        Record found = lookup(id);
+        metrics.recordSearch(found != null, System.nanoTime() - start);
+        metrics.recordProbes(table.getLastProbeCount());
+        if (found == null && searchMode == true) {
             writer.println("Search FAILED -- There is no record with ID " + id);
         }
+        return found;
+    }
+
+
+    /**
+     * Looks up a record by ID in the table and in the old slots of an
+     * incremental expansion, without printing a message or counting the
+     * lookup as a search in the metrics.
+     *
+     * @param id
+     *            The ID of the record to look up.
+     * @return The record, `null` if not found.
+     */
+    public Record lookup(int id) {
+        int index = table.findIndex(id);
+        if (table.isLive(index, id)) {
+            return RecordCodec.decode(memory.get(table.getHandle(index)),
+                keywords);
+        }
+        int oldIndex = findOld(id);
+        if (oldIndex != -1) {
+            return RecordCodec.decode(memory.get(oldTable.getHandle(
+                oldIndex)), keywords);
+        }
         return null;
     }
 
@@ -107,11 +305,28 @@ public class HashTable {
      *         `false` otherwise.
      */
     public boolean delete(int id) {
-        int index = findIndex(id);
-        if (table[index] != null && table[index].getId() == id && !table[index]
-            .isDeleted()) {
-            table[index].setDeleted(true); // Mark the record as deleted with a
-                                           // tombstone
+        long start = System.nanoTime();
+        boolean deleted = deleteRecord(id);
+        metrics.recordDelete(deleted, System.nanoTime() - start);
+        metrics.recordProbes(table.getLastProbeCount());
+        return deleted;
+    }
+
+
+    /**
+     * Turns the slot of a record into a tombstone and releases its block.
+     */
+    private boolean deleteRecord(int id) {
+        migrate();
+        int index = table.findIndex(id);
+        if (table.isLive(index, id)) {
+            memory.remove(table.remove(index));
+            size--;
+            return true;
+        }
+        int oldIndex = findOld(id);
+        if (oldIndex != -1) {
+            memory.remove(oldTable.remove(oldIndex));
             size--;
             return true;
         }
@@ -120,8 +335,9 @@ public class HashTable {
 
 
     /**
-     * Doubles the size of the hash table and rehashes the existing records into
-     * the new table.
+     * Doubles the size of the hash table, or takes the next prime above
+     * double its size under the prime capacity policy, and rehashes the
+     * existing slots into the new table.
      * This method is used to maintain an efficient load factor and prevent hash
      * collisions.
      * After expansion, all non-deleted records are reinserted into the newly
@@ -129,6 +345,8 @@ public class HashTable {
      * The expansion process involves creating a new hash table, copying the
      * existing records
      * into it, and updating the internal state of the hash table.
+     * In incremental mode the records are only moved over the following
+     * inserts and deletes.
      *
      * @throws NullPointerException
      *             If the existing hash table or any of its
@@ -139,37 +357,251 @@ public class HashTable {
      *             output.
      */
     public void expandTable() {
-        Record[] oldTable = table;
-        table = new Record[2 * oldTable.length];
-        size = 0;
+        long start = System.nanoTime();
+        finishMigration();
+        SlotTable expanded = strategy.createTable(nextCapacity(table
+            .getCapacity()));
+        if (migrateStep > 0) {
+            oldTable = table;
+            migrateIndex = 0;
+        }
+        else {
+            table.moveTo(expanded, 0, table.getCapacity());
+        }
+        table = expanded;
+        metrics.recordExpansion(System.nanoTime() - start);
 
-        writer.println("Hash table expanded to " + table.length + " records");
+        writer.println("Hash table expanded to " + table.getCapacity()
+            + " records");
+    }
 
-        for (Record record : oldTable) {
-            if (record != null && !record.isDeleted()) {
-                insert(record); // Reinsert non-deleted records
-            }
+
+    /**
+     * Rehashes the live records into a table of the same capacity, which
+     * removes every tombstone without growing the table.
+     */
+    public void purgeTombstones() {
+        finishMigration();
+        SlotTable purged = strategy.createTable(table.getCapacity());
+        table.moveTo(purged, 0, table.getCapacity());
+        table = purged;
+        metrics.recordPurge();
+    }
+
+
+    /**
+     * Sets the share of the table that tombstones may take up before the next
+     * insert purges them.
+     *
+     * @param threshold
+     *            The tombstone ratio, greater than 0 and at most 1.
+     * @throws IllegalArgumentException
+     *             If the threshold is out of range.
+     */
+    public void setTombstoneThreshold(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException(
+                "Tombstone threshold must be in (0, 1]: " + threshold);
         }
+        tombstoneThreshold = threshold;
     }
 
 
     /**
-     * Finds the index of a record with the given ID in the hash table.
+     * Changes the probe sequence of the table and rehashes every record with
+     * it at the current capacity, or at the next capacity the new sequence
+     * covers if it does not cover the current one.
+     *
+     * @param probeStrategy
+     *            The probe sequence to use from now on.
+     */
+    public void setProbeStrategy(ProbeStrategy probeStrategy) {
+        finishMigration();
+        strategy = probeStrategy;
+        SlotTable rehashed = strategy.createTable(coveredCapacity(table
+            .getCapacity()));
+        table.moveTo(rehashed, 0, table.getCapacity());
+        table = rehashed;
+    }
+
+
+    /**
+     * Switches between capacities that double on every expansion and prime
+     * capacities. A prime capacity takes every bit of the hash into account
+     * when it is taken modulo the capacity, where a power of two only keeps
+     * the low bits. Switching to prime capacities rehashes every record at
+     * the next prime at or above the current capacity.
+     *
+     * @param prime
+     *            `true` for prime capacities, `false` to double the
+     *            capacity.
+     */
+    public void setPrimeCapacity(boolean prime) {
+        primeCapacity = prime;
+        int capacity = fitCapacity(table.getCapacity());
+        if (prime && capacity != table.getCapacity()) {
+            finishMigration();
+            SlotTable rehashed = strategy.createTable(capacity);
+            table.moveTo(rehashed, 0, table.getCapacity());
+            table = rehashed;
+        }
+    }
+
+
+    /**
+     * Switches between rehashing every record when the table expands and
+     * moving them a few slots at a time.
+     *
+     * @param slotsPerOperation
+     *            The number of old slots moved on each insert and delete
+     *            while an expansion is in progress, or 0 to rehash every
+     *            record during the expansion itself.
+     * @throws IllegalArgumentException
+     *             If the number of slots is negative.
+     */
+    public void setIncrementalResize(int slotsPerOperation) {
+        if (slotsPerOperation < 0) {
+            throw new IllegalArgumentException(
+                "Slots per operation must not be negative: "
+                    + slotsPerOperation);
+        }
+        if (slotsPerOperation == 0) {
+            finishMigration();
+        }
+        migrateStep = slotsPerOperation;
+    }
+
+
+    /**
+     * Returns whether an incremental expansion is still moving records
+     *
+     * @return `true` while old slots remain to be moved, `false` otherwise
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+
+    /**
+     * Returns the number of tombstones in the hash table
+     *
+     * @return Number of tombstones
+     */
+    public int getTombstoneCount() {
+        return table.getTombstoneCount();
+    }
+
+
+    /**
+     * Finds the index of a record with the given ID in the hash table. The
+     * probe skips tombstones and stops at the first empty slot.
      *
      * @param id
      *            The ID of the record to search for.
-     * @return The index of the record in the hash table, or -1 if the record
-     *         is not found.
+     * @return The index of the record in the hash table if it is present,
+     *         otherwise the slot an insert of the ID would take: the first
+     *         tombstone on the probe path, or the empty slot that ended it.
+     *         -1 if every slot on the probe path holds another record.
      */
     public int findIndex(int id) {
-        int index = id % table.length;
-        int step = (((id / table.length) % (table.length / 2)) * 2) + 1;
+        return table.findIndex(id);
+    }
+
 
-        while (table[index] != null && table[index].getId() != id) {
-            index = (index + step) % table.length;
+    /**
+     * Looks up a record in the slots an incremental expansion has not moved
+     * yet.
+     *
+     * @param id
+     *            The ID of the record.
+     * @return The index of the record in the old slots, or -1 if there is no
+     *         expansion in progress or the record is not there.
+     */
+    private int findOld(int id) {
+        if (oldTable == null) {
+            return -1;
         }
+        int index = oldTable.findIndex(id);
+        return oldTable.isLive(index, id) ? index : -1;
+    }
 
-        return index;
+
+    /**
+     * Returns the smallest capacity at or above the given one that the probe
+     * sequence covers in full: a prime under the prime capacity policy if
+     * the strategy covers primes, otherwise a power of two. Either way it is
+     * at least 2, the smallest capacity the double hashing step works with.
+     */
+    private int fitCapacity(int capacity) {
+        if (primeCapacity) {
+            int prime = nextPrime(capacity);
+            if (strategy.covers(prime)) {
+                return prime;
+            }
+        }
+        int fitted = 2;
+        while (fitted < capacity) {
+            fitted *= 2;
+        }
+        return fitted;
+    }
+
+
+    /**
+     * Returns the given capacity if the probe sequence covers it, otherwise
+     * the next capacity it does.
+     */
+    private int coveredCapacity(int capacity) {
+        return strategy.covers(capacity) ? capacity : fitCapacity(capacity);
+    }
+
+
+    /**
+     * Returns the capacity the table expands to from the given capacity:
+     * double the capacity, rounded up to the next prime or power of two.
+     * A table loaded from a snapshot with a capacity of the other policy
+     * so moves back to one its own policy covers instead of doubling it.
+     */
+    private int nextCapacity(int capacity) {
+        return fitCapacity(2 * capacity);
+    }
+
+
+    /**
+     * Returns the smallest prime at or above a number, found by trial
+     * division, which takes well under a millisecond for any capacity.
+     */
+    private static int nextPrime(int number) {
+        int candidate = Math.max(number, 2);
+        while (!DoubleHashProbe.isPrime(candidate)) {
+            candidate++;
+        }
+        return candidate;
+    }
+
+
+    /**
+     * Moves the next batch of old slots into the table while an incremental
+     * expansion is in progress.
+     */
+    private void migrate() {
+        if (oldTable != null) {
+            migrateIndex = oldTable.moveTo(table, migrateIndex, migrateStep);
+            if (migrateIndex >= oldTable.getCapacity()) {
+                oldTable = null;
+            }
+        }
+    }
+
+
+    /**
+     * Moves every remaining old slot into the table.
+     */
+    private void finishMigration() {
+        if (oldTable != null) {
+            oldTable.moveTo(table, migrateIndex, oldTable.getCapacity());
+            oldTable = null;
+        }
     }
 
 
@@ -181,16 +613,16 @@ public class HashTable {
      */
     public String printHashTable() {
 
+        finishMigration();
         String output = "HashTable:\n";
         int count = 0;
-        for (int i = 0; i < table.length; i++) {
-            Record record = table[i];
-            if (record != null) {
-                if (record.isDeleted()) {
+        for (int i = 0; i < table.getCapacity(); i++) {
+            if (!table.isEmpty(i)) {
+                if (table.isTombstone(i)) {
                     output += ((i + ": TOMBSTONE")) + "\n";
                 }
                 else {
-                    output += ((i + ": " + record.getId())) + "\n";
+                    output += ((i + ": " + table.getKey(i))) + "\n";
                     count++;
                 }
             }
@@ -204,17 +636,131 @@ public class HashTable {
 
 
     /**
-     * Prints the free blocks of the hash table
+     * Passes every record of the table to an action, in slot order. An
+     * incremental expansion in progress is finished first.
+     *
+     * @param action
+     *            The action to perform on each record.
      */
-    public void printMemoryBlocks() {
-        writer.println("\nFreeBlock List:");
-        for (int block : freeBlocks) {
-            if (block == -1)
-                continue;
-            else
-                writer.println(block + " ");
+    public void forEachRecord(Consumer<Record> action) {
+        finishMigration();
+        for (int i = 0; i < table.getCapacity(); i++) {
+            if (table.getHandle(i) >= 0) {
+                action.accept(RecordCodec.decode(memory.get(table.getHandle(
+                    i)), keywords));
+            }
         }
-        writer.println("There are no freeblocks in the memory pool");
+    }
+
+
+    /**
+     * Passes the records with an ID in a range to an action, in increasing
+     * ID order. The slots are in hash order, so the matching records are
+     * collected and sorted first.
+     *
+     * @param low
+     *            The smallest ID, inclusive.
+     * @param high
+     *            The largest ID, inclusive.
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachInRange(int low, int high, Consumer<Record> action) {
+        List<Record> found = new ArrayList<Record>();
+        forEachRecord(record -> {
+            if (record.getId() >= low && record.getId() <= high) {
+                found.add(record);
+            }
+        });
+        found.sort(Comparator.comparingInt(Record::getId));
+        found.forEach(action);
+    }
+
+
+    /**
+     * Saves the slots and the memory pool to a snapshot file. An incremental
+     * expansion in progress is finished first.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public void save(String filename) throws IOException {
+        finishMigration();
+        new Snapshot(table, memory, keywords).save(filename);
+    }
+
+
+    /**
+     * Replaces the slots and the memory pool with the ones in a snapshot
+     * file. The table is left unchanged if the file cannot be loaded. If the
+     * probe sequence does not cover the saved capacity, the records are
+     * rehashed at the next capacity it does.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be read or is not a valid snapshot.
+     */
+    public void load(String filename) throws IOException {
+        Snapshot snapshot = Snapshot.load(filename, strategy, writer, memory
+            .isOffHeap());
+        oldTable = null;
+        table = snapshot.getTable();
+        memory = snapshot.getMemory();
+        keywords = snapshot.getKeywords();
+        size = table.getSize();
+        int capacity = coveredCapacity(table.getCapacity());
+        if (capacity != table.getCapacity()) {
+            SlotTable rehashed = strategy.createTable(capacity);
+            table.moveTo(rehashed, 0, table.getCapacity());
+            table = rehashed;
+        }
+    }
+
+
+    /**
+     * Returns the metrics of the table with its current number of records,
+     * capacity and tombstones.
+     *
+     * @return The metrics recorded since the table was created.
+     */
+    public TableMetrics getMetrics() {
+        metrics.setState(size, table.getCapacity(), table
+            .getTombstoneCount());
+        return metrics;
+    }
+
+
+    /**
+     * Returns the PrintWriter the table writes its own messages to
+     *
+     * @return The writer of the table
+     */
+    public PrintWriter getWriter() {
+        return writer;
+    }
+
+
+    /**
+     * Changes the PrintWriter the table and its memory pool write their
+     * messages to.
+     *
+     * @param writer
+     *            The writer to use from now on.
+     */
+    public void setWriter(PrintWriter writer) {
+        this.writer = writer;
+        memory.setWriter(writer);
+    }
+
+
+    /**
+     * Prints the free blocks of the memory pool
+     */
+    public void printMemoryBlocks() {
+        memory.printFreeBlocks();
     }
 
 
@@ -224,6 +770,6 @@ public class HashTable {
      * @return Size of the Hash Table
      */
     public int getCapacity() {
-        return table.length; // Returns the size of the Hash table
+        return table.getCapacity(); // Returns the size of the Hash table
     }
 }
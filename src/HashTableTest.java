@@ -4,6 +4,7 @@ import org.junit.Test;
 import java.io.PrintWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 
 /**
  * @author Aayush Bagrecha
@@ -132,8 +133,8 @@ public class HashTableTest extends TestCase {
         // Verify that the deletion was successful
         assertTrue(deletionResult);
 
-        // Check if the record is marked as deleted
-        assertTrue(record1.isDeleted());
+        // Check that the record can no longer be found
+        assertNull(ht.search(1, false));
     }
 
 
@@ -401,8 +402,8 @@ public class HashTableTest extends TestCase {
     /**
      * Test method to delete a record that is found in the hash table and is not
      * marked as deleted.
-     * It verifies that the deletion returns true, indicating success, and marks
-     * the record as deleted.
+     * It verifies that the deletion returns true, indicating success, and that
+     * the record can no longer be found.
      */
     @Test
     public void testDeleteRecordFoundNotDeleted() {
@@ -415,10 +416,9 @@ public class HashTableTest extends TestCase {
         // Delete the record with ID 1
         boolean deletionResult = ht1.delete(1);
 
-        // Assert that the deletion was successful and the record is marked as
-        // deleted
+        // Assert that the deletion was successful and the record is gone
         assertTrue(deletionResult);
-        assertTrue(record.isDeleted());
+        assertNull(ht1.search(1, false));
     }
 
 
@@ -490,6 +490,241 @@ public class HashTableTest extends TestCase {
     }
 
 
+    /**
+     * Test method to verify that a record read back from the memory pool is
+     * equal to the record that was inserted, and that deleting it returns its
+     * block to the pool.
+     */
+    @Test
+    public void testRecordStoredInMemoryPool() {
+        ht.insert(record1);
+        ht.insert(record2);
+
+        Record foundRecord = ht.search(2, false);
+        assertNotSame(record2, foundRecord);
+        assertEquals(record2, foundRecord);
+        assertEquals("Keyword3, Keyword4", foundRecord.getKeywords());
+
+        ht.delete(1);
+        ht.delete(2);
+        ht.printMemoryBlocks();
+        assertNull(ht.search(2, false));
+        assertTrue(ht.insert(record2));
+        assertEquals(record2, ht.search(2, false));
+    }
+
+
+    /**
+     * Test method to insert, search and delete many records whose IDs collide
+     * on their home slot, so every lookup has to follow a probe sequence.
+     */
+    @Test
+    public void testCollidingRecords() {
+        for (int i = 0; i < 40; i++) {
+            int id = i * 64;
+            assertTrue(ht.insert(new Record(id, "Seminar", "2111011200", 60,
+                (short)10, (short)20, 100, "Description", "Keyword")));
+        }
+        for (int i = 0; i < 40; i += 2) {
+            assertTrue(ht.delete(i * 64));
+        }
+        for (int i = 0; i < 40; i++) {
+            Record found = ht.search(i * 64, false);
+            if (i % 2 == 0) {
+                assertNull(found);
+            }
+            else {
+                assertNotNull(found);
+                assertEquals(i * 64, found.getId());
+            }
+        }
+        assertNull(ht.search(41 * 64, false));
+    }
+
+
+    /**
+     * Test method to verify that a search probes past a tombstone to find a
+     * record further along the probe sequence, and that an insert reuses the
+     * tombstone instead of a later empty slot.
+     */
+    @Test
+    public void testTombstoneSkippedAndReused() {
+        HashTable hash = new HashTable(64, 16, new PrintWriter(System.out));
+        hash.insert(new Record(1, "A", "2111011200", 60, (short)1, (short)1,
+            10, "D", "K"));
+        hash.insert(new Record(17, "B", "2111011200", 60, (short)1, (short)1,
+            10, "D", "K"));
+        assertEquals(4, hash.findIndex(17));
+
+        assertTrue(hash.delete(1));
+        assertNotNull(hash.search(17, false));
+        assertEquals(1, hash.getTombstoneCount());
+
+        // ID 33 also starts at slot 1 and takes over the tombstone
+        assertTrue(hash.insert(new Record(33, "C", "2111011200", 60, (short)1,
+            (short)1, 10, "D", "K")));
+        assertEquals(1, hash.findIndex(33));
+        assertEquals(0, hash.getTombstoneCount());
+        assertFalse(hash.insert(new Record(17, "B", "2111011200", 60, (short)1,
+            (short)1, 10, "D", "K")));
+    }
+
+
+    /**
+     * Test method to verify that tombstones are purged without growing the
+     * table once they pass the configured threshold.
+     */
+    @Test
+    public void testTombstonePurge() {
+        HashTable hash = new HashTable(64, 16, new PrintWriter(System.out));
+        hash.setTombstoneThreshold(0.125);
+        for (int id = 0; id < 6; id++) {
+            hash.insert(new Record(id, "A", "2111011200", 60, (short)1,
+                (short)1, 10, "D", "K"));
+        }
+        for (int id = 0; id < 3; id++) {
+            hash.delete(id);
+        }
+        assertEquals(3, hash.getTombstoneCount());
+
+        hash.insert(new Record(100, "A", "2111011200", 60, (short)1, (short)1,
+            10, "D", "K"));
+        assertEquals(0, hash.getTombstoneCount());
+        assertEquals(16, hash.getCapacity());
+        for (int id = 3; id < 6; id++) {
+            assertNotNull(hash.search(id, false));
+        }
+        assertNotNull(hash.search(100, false));
+    }
+
+
+    /**
+     * Test method to verify that an out of range tombstone threshold is
+     * rejected.
+     */
+    @Test
+    public void testInvalidTombstoneThreshold() {
+        Exception thrown = null;
+        try {
+            ht.setTombstoneThreshold(0);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+
+
+    /**
+     * Test method to verify that an incremental expansion keeps every record
+     * reachable while old slots are still being moved, including records
+     * deleted before they were moved.
+     */
+    @Test
+    public void testIncrementalResize() {
+        HashTable hash = new HashTable(64, 16, new PrintWriter(System.out));
+        hash.setIncrementalResize(2);
+        for (int id = 0; id < 9; id++) {
+            assertTrue(hash.insert(new Record(id, "A", "2111011200", 60,
+                (short)1, (short)1, 10, "D", "K")));
+        }
+        assertEquals(32, hash.getCapacity());
+        assertTrue(hash.isResizing());
+        for (int id = 0; id < 9; id++) {
+            assertNotNull(hash.search(id, false));
+        }
+        assertTrue(hash.delete(7));
+        assertFalse(hash.insert(new Record(3, "A", "2111011200", 60, (short)1,
+            (short)1, 10, "D", "K")));
+
+        for (int id = 100; id < 108; id++) {
+            hash.insert(new Record(id, "A", "2111011200", 60, (short)1,
+                (short)1, 10, "D", "K"));
+        }
+        assertFalse(hash.isResizing());
+        assertNull(hash.search(7, false));
+        assertNotNull(hash.search(8, false));
+        assertNotNull(hash.search(107, false));
+        assertTrue(hash.printHashTable().endsWith("total records: 16"));
+    }
+
+
+    /**
+     * Tests that the metrics count every operation, probe and expansion.
+     */
+    @Test
+    public void testMetrics() {
+        ht.insert(record1);
+        ht.insert(record1);
+        ht.insert(record2);
+        ht.insert(new Record(5, "T", "0610071600", 1, (short)1, (short)1, 1,
+            "D", "K"));
+        ht.search(1, false);
+        ht.search(9, false);
+        ht.delete(2);
+
+        TableMetrics metrics = ht.getMetrics();
+        assertEquals(4, metrics.getInsertLatency().getCount());
+        assertEquals(7, metrics.getProbes().getCount());
+        assertEquals(1, metrics.getExpansions());
+        assertEquals(2 / 8.0, metrics.getLoadFactor(), 1e-9);
+        String text = metrics.toText();
+        assertTrue(text.startsWith("Stats:\ninsert: 3 inserted, 1 duplicates"));
+        assertTrue(text.contains("search: 1 found, 1 not found"));
+        assertTrue(text.contains("delete: 1 deleted, 0 not found"));
+        assertTrue(text.contains("capacity: 8, load factor: 0.250, "
+            + "tombstones: 1\n"));
+        assertTrue(metrics.toJson().contains("\"expansions\": {\"count\": 1"));
+    }
+
+
+    /**
+     * Tests that a bulk load gives the same results, messages and capacity as
+     * inserting the records one by one, with duplicates both within the
+     * records and already in the table.
+     */
+    @Test
+    public void testInsertAll() {
+        Record[] records = new Record[40];
+        for (int i = 0; i < records.length; i++) {
+            int id = i % 3 == 2 ? 7 * (i - 1) : 7 * i;
+            records[i] = new Record(id, "Seminar " + i, "2111011200", 60,
+                (short)1, (short)1, 10, "Description", "Keyword" + i % 4);
+        }
+
+        StringWriter sequentialOut = new StringWriter();
+        PrintWriter sequentialWriter = new PrintWriter(sequentialOut);
+        HashTable sequential = new HashTable(64, 4, sequentialWriter);
+        sequential.insert(records[5]);
+        for (Record record : records) {
+            sequentialWriter.println(record.getId() + " " + sequential
+                .insert(record));
+        }
+
+        StringWriter bulkOut = new StringWriter();
+        PrintWriter bulkWriter = new PrintWriter(bulkOut);
+        HashTable bulk = new HashTable(64, 4, bulkWriter);
+        bulk.insert(records[5]);
+        int inserted = bulk.insertAll(records, (record, added) -> bulkWriter
+            .println(record.getId() + " " + added));
+
+        sequentialWriter.flush();
+        bulkWriter.flush();
+        assertEquals(26, inserted);
+        assertEquals(0, bulk.getMetrics().getExpansions());
+        assertEquals(sequentialOut.toString(), bulkOut.toString());
+        assertTrue(bulkOut.toString().contains("Hash table expanded to 64"));
+        assertEquals(sequential.getCapacity(), bulk.getCapacity());
+        for (Record record : records) {
+            assertEquals(record.getId(), bulk.search(record.getId(), false)
+                .getId());
+        }
+        assertEquals(0, ht.insertAll(new Record[0], (record, added) -> {
+            // No records
+        }));
+    }
+
+
     /**
      * Test method to calculate the size of a record based on its properties.
      */
@@ -0,0 +1,169 @@
+import java.util.Locale;
+
+/**
+ * The `Histogram` class counts non-negative values, such as latencies in
+ * nanoseconds or probe lengths, in buckets whose width grows with the value,
+ * in the manner of an HDR histogram. Values below 64 each get a bucket of
+ * their own, and each larger power of two range is split into 64 buckets of
+ * equal width, so a value read back from the histogram is within 1.6% of the
+ * values counted in its bucket.
+ *
+ * Recording a value finds its bucket with a few shifts and increments one
+ * counter, with no allocation, so it is cheap enough for every operation.
+ * Values of 2^44 and above are counted in the last bucket. The histogram is
+ * not synchronized.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class Histogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_BITS = 44;
+    private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+    private long[] counts;
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * Constructs a new, empty `Histogram` object.
+     */
+    public Histogram() {
+        counts = new long[(MAX_BITS - SUB_BITS + 1) * SUB_BUCKETS];
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+
+    /**
+     * Counts a value.
+     *
+     * @param value
+     *            The value, negative values are counted as 0.
+     */
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+        counts[bucketOf(clamped)]++;
+        count++;
+        sum += clamped;
+        max = Math.max(max, clamped);
+    }
+
+
+    /**
+     * Returns the number of values counted
+     *
+     * @return Number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+
+    /**
+     * Returns the largest value counted
+     *
+     * @return The largest value, or 0 if none was counted
+     */
+    public long getMax() {
+        return max;
+    }
+
+
+    /**
+     * Returns the mean of the values counted
+     *
+     * @return The mean, or 0 if no value was counted
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double)sum / count;
+    }
+
+
+    /**
+     * Returns the value below which a share of the counted values fall.
+     *
+     * @param percentile
+     *            The share of the values, from 0 to 100.
+     * @return The largest value of the bucket holding the percentile, at
+     *         most the largest value counted, or 0 if no value was counted.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+
+    /**
+     * Describes the histogram in one line: the count, mean, median, 90th,
+     * 99th and 99.9th percentiles and the largest value.
+     *
+     * @return The description.
+     */
+    public String toText() {
+        return String.format(Locale.ROOT, "count %d, mean %.1f, p50 %d, "
+            + "p90 %d, p99 %d, p99.9 %d, max %d", count, getMean(),
+            getValueAtPercentile(50), getValueAtPercentile(90),
+            getValueAtPercentile(99), getValueAtPercentile(99.9), max);
+    }
+
+
+    /**
+     * Describes the histogram as a JSON object with the same fields as
+     * `toText`.
+     *
+     * @return The JSON object.
+     */
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"count\": %d, \"mean\": %.1f, "
+            + "\"p50\": %d, \"p90\": %d, \"p99\": %d, \"p999\": %d, "
+            + "\"max\": %d}", count, getMean(), getValueAtPercentile(50),
+            getValueAtPercentile(90), getValueAtPercentile(99),
+            getValueAtPercentile(99.9), max);
+    }
+
+
+    /**
+     * Returns the bucket of a value: the value itself below 64, otherwise
+     * the power of two range of the value and its top six bits below the
+     * leading one.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int)value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int)((value >>> shift)
+            - SUB_BUCKETS);
+    }
+
+
+    /**
+     * Returns the largest value counted in a bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        int block = bucket >>> SUB_BITS;
+        int offset = bucket & (SUB_BUCKETS - 1);
+        if (block == 0) {
+            return offset;
+        }
+        long lowest = (long)(SUB_BUCKETS + offset) << (block - 1);
+        return lowest + (1L << (block - 1)) - 1;
+    }
+}
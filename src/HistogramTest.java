@@ -0,0 +1,76 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the Histogram class. It
+ *          checks exact small values, the precision of large values and the
+ *          percentiles, mean and maximum.
+ */
+public class HistogramTest extends TestCase {
+
+    private Histogram histogram;
+
+    /**
+     * Sets up an empty histogram before each test method.
+     */
+    @Before
+    public void setUp() {
+        histogram = new Histogram();
+    }
+
+
+    /**
+     * Tests that values below 64 are kept exactly.
+     */
+    @Test
+    public void testSmallValues() {
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(9, histogram.getValueAtPercentile(90));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(5.5, histogram.getMean(), 1e-9);
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+
+    /**
+     * Tests that large values are read back within the bucket precision.
+     */
+    @Test
+    public void testLargeValues() {
+        long[] values = { 100, 1000, 123456, 987654321L, 1L << 40 };
+        for (long value : values) {
+            Histogram single = new Histogram();
+            single.record(value);
+            single.record(2 * value);
+            long read = single.getValueAtPercentile(50);
+            assertTrue(read >= value);
+            assertTrue(read <= value + value / 64);
+        }
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals((1L << 44) - 1, histogram.getMax());
+    }
+
+
+    /**
+     * Tests the text and JSON of an empty and a filled histogram.
+     */
+    @Test
+    public void testDescriptions() {
+        assertEquals("count 0, mean 0.0, p50 0, p90 0, p99 0, p99.9 0, max 0",
+            histogram.toText());
+        histogram.record(3);
+        assertEquals("{\"count\": 1, \"mean\": 3.0, \"p50\": 3, \"p90\": 3, "
+            + "\"p99\": 3, \"p999\": 3, \"max\": 3}", histogram.toJson());
+    }
+}
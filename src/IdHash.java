@@ -0,0 +1,69 @@
+/**
+ * The `IdHash` enum lists the functions a probe strategy can apply to an ID
+ * before taking it modulo the capacity of the table.
+ *
+ * - `LEGACY` uses the ID as it is. This is the original scheme and keeps
+ *   the slot of every record, and so the output of `print hashtable`,
+ *   unchanged.
+ * - `MURMUR` applies the 32 bit finalizer of MurmurHash3, so every bit of
+ *   the ID affects every bit of the hash.
+ * - `FIBONACCI` multiplies the ID by 2^32 divided by the golden ratio and
+ *   folds the well mixed high bits onto the low ones.
+ *
+ * IDs that differ only in their high bits, such as blocks of multiples of
+ * 1000, share their low bits and so their home slot in a power of two table
+ * under `LEGACY`. The other functions spread them over the whole table. The
+ * mixed hashes are never negative.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public enum IdHash {
+
+    /**
+     * The ID itself.
+     */
+    LEGACY {
+        @Override
+        public int mix(int id) {
+            return id;
+        }
+    },
+
+    /**
+     * The MurmurHash3 finalizer.
+     */
+    MURMUR {
+        @Override
+        public int mix(int id) {
+            int h = id;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return h & Integer.MAX_VALUE;
+        }
+    },
+
+    /**
+     * Multiplication by the golden ratio.
+     */
+    FIBONACCI {
+        @Override
+        public int mix(int id) {
+            int h = id * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+        }
+    };
+
+    /**
+     * Returns the hash of an ID.
+     *
+     * @param id
+     *            The ID of the record.
+     * @return The hash the probe strategy works with.
+     */
+    public abstract int mix(int id);
+}
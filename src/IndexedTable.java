@@ -0,0 +1,532 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The `IndexedTable` class keeps secondary indexes next to a table of
+ * records, so records can be found by something other than their ID. Each
+ * index is built from the records of the table the first time it is
+ * searched, so runs that never search by keyword, location, date or cost
+ * do not pay for that index. Once built, every insert and delete that
+ * changes the table updates it, and loading a snapshot drops it until it is
+ * searched again.
+ *
+ * The secondary indexes are:
+ *
+ * - a `KeywordIndex` from keyword to the IDs of the records carrying it.
+ * - a `SpatialIndex` from location to the IDs of the records placed there.
+ * - two `OrderedIndex` objects keeping the IDs sorted by date and by cost.
+ *   Records whose date is not ten digits are left out of the date index.
+ *
+ * Inserts and deletes share a read lock, and building an index takes the
+ * write lock, so a change is either seen by the scan that builds an index
+ * or applied to the finished index, never both or neither. Since many
+ * changes hold the read lock at once, each index also guards its own
+ * structure with its monitor.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class IndexedTable implements RecordTable {
+
+    private RecordTable table;
+    private ReentrantReadWriteLock lock;
+    private volatile KeywordIndex keywords;
+    private volatile SpatialIndex locations;
+    private volatile OrderedIndex dates;
+    private volatile OrderedIndex costs;
+
+    /**
+     * Constructs a new `IndexedTable` over a table. Records it already holds
+     * are indexed when an index is first searched.
+     *
+     * @param table
+     *            The table the commands are applied to.
+     */
+    public IndexedTable(RecordTable table) {
+        this.table = table;
+        lock = new ReentrantReadWriteLock();
+    }
+
+
+    /**
+     * Inserts a record and indexes it if the insert succeeded.
+     *
+     * @param record
+     *            The record to be inserted into the table.
+     * @return `true` if the record is inserted successfully, `false` if a
+     *         record with the same ID already exists.
+     */
+    public boolean insert(Record record) {
+        lock.readLock().lock();
+        try {
+            if (!table.insert(record)) {
+                return false;
+            }
+            index(record);
+            return true;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Inserts many records through the bulk load of the table and indexes
+     * the ones that were inserted.
+     *
+     * @param records
+     *            The records to be inserted, in order.
+     * @param result
+     *            Called with each record, in order, and `true` if it was
+     *            inserted or `false` if its ID was already taken.
+     * @return The number of records inserted.
+     */
+    public int insertAll(
+        Record[] records,
+        BiConsumer<Record, Boolean> result) {
+        lock.readLock().lock();
+        try {
+            return table.insertAll(records, (record, added) -> {
+                if (added) {
+                    index(record);
+                }
+                result.accept(record, added);
+            });
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Searches for a record with a given ID in the table.
+     *
+     * @param id
+     *            The ID of the record to search for.
+     * @param searchMode
+     *            `true` to print a message if the search fails,
+     *            `false` otherwise.
+     * @return The found record, `null` if not found.
+     */
+    public Record search(int id, boolean searchMode) {
+        return table.search(id, searchMode);
+    }
+
+
+    /**
+     * Looks up a record by ID without printing a message or counting the
+     * lookup as a search in the metrics.
+     *
+     * @param id
+     *            The ID of the record to look up.
+     * @return The record, `null` if not found.
+     */
+    public Record lookup(int id) {
+        return table.lookup(id);
+    }
+
+
+    /**
+     * Deletes a record and removes it from the indexes that were built. The
+     * record is only read back when there is an index to remove it from.
+     *
+     * @param id
+     *            The ID of the record to be deleted.
+     * @return `true` if the record is found and deleted, `false` otherwise.
+     */
+    public boolean delete(int id) {
+        lock.readLock().lock();
+        try {
+            // Indexes are only built under the write lock, so these stay put
+            KeywordIndex keywordIndex = keywords;
+            SpatialIndex spatialIndex = locations;
+            OrderedIndex dateIndex = dates;
+            OrderedIndex costIndex = costs;
+            if (keywordIndex == null && spatialIndex == null
+                && dateIndex == null && costIndex == null) {
+                return table.delete(id);
+            }
+            Record record = table.lookup(id);
+            if (!table.delete(id)) {
+                return false;
+            }
+            if (keywordIndex != null) {
+                keywordIndex.remove(record);
+            }
+            if (spatialIndex != null) {
+                spatialIndex.remove(record);
+            }
+            if (dateIndex != null) {
+                dateIndex.remove(RecordCodec.packDate(record.getDate()), id);
+            }
+            if (costIndex != null) {
+                costIndex.remove(record.getCost(), id);
+            }
+            return true;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Returns the records matching a query of keywords joined by `AND` and
+     * `OR`.
+     *
+     * @param terms
+     *            The keywords and operators of the query, in order.
+     * @return The matching records in increasing ID order.
+     */
+    public Record[] searchKeywords(List<String> terms) {
+        return fetch(keywordIndex().query(terms));
+    }
+
+
+    /**
+     * Returns the records whose location is at most a distance from a point.
+     *
+     * @param x
+     *            The X coordinate of the point.
+     * @param y
+     *            The Y coordinate of the point.
+     * @param distance
+     *            The largest distance from the point.
+     * @return The matching records in increasing ID order.
+     */
+    public Record[] searchRadius(int x, int y, int distance) {
+        return fetch(spatialIndex().inRadius(x, y, distance));
+    }
+
+
+    /**
+     * Returns the records whose location lies in a rectangle, edges
+     * included.
+     *
+     * @param x1
+     *            One X bound of the rectangle.
+     * @param y1
+     *            One Y bound of the rectangle.
+     * @param x2
+     *            The other X bound of the rectangle.
+     * @param y2
+     *            The other Y bound of the rectangle.
+     * @return The matching records in increasing ID order.
+     */
+    public Record[] searchBox(int x1, int y1, int x2, int y2) {
+        return fetch(spatialIndex().inBox(x1, y1, x2, y2));
+    }
+
+
+    /**
+     * Returns the records dated within a range.
+     *
+     * @param from
+     *            The earliest date, ten digits, inclusive.
+     * @param to
+     *            The latest date, ten digits, inclusive.
+     * @return The matching records in date order, then ID order.
+     */
+    public Record[] searchDates(String from, String to) {
+        return fetch(dateIndex().range(RecordCodec.packDate(from), RecordCodec
+            .packDate(to)));
+    }
+
+
+    /**
+     * Returns the records whose cost lies within a range.
+     *
+     * @param low
+     *            The smallest cost, inclusive.
+     * @param high
+     *            The largest cost, inclusive.
+     * @return The matching records in cost order, then ID order.
+     */
+    public Record[] searchCosts(int low, int high) {
+        return fetch(costIndex().range(low, high));
+    }
+
+
+    /**
+     * Prints the contents of the table.
+     *
+     * @return the table as the output
+     */
+    public String printHashTable() {
+        return table.printHashTable();
+    }
+
+
+    /**
+     * Prints the free blocks of the memory pool.
+     */
+    public void printMemoryBlocks() {
+        table.printMemoryBlocks();
+    }
+
+
+    /**
+     * Passes every record of the table to an action.
+     *
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachRecord(Consumer<Record> action) {
+        table.forEachRecord(action);
+    }
+
+
+    /**
+     * Passes the records with an ID in a range to an action, in increasing
+     * ID order.
+     *
+     * @param low
+     *            The smallest ID, inclusive.
+     * @param high
+     *            The largest ID, inclusive.
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachInRange(int low, int high, Consumer<Record> action) {
+        table.forEachInRange(low, high, action);
+    }
+
+
+    /**
+     * Saves the records of the table to a snapshot file.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public void save(String filename) throws IOException {
+        table.save(filename);
+    }
+
+
+    /**
+     * Replaces the records of the table with the ones in a snapshot file and
+     * drops the indexes.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be read or is not a valid snapshot.
+     */
+    public void load(String filename) throws IOException {
+        lock.writeLock().lock();
+        try {
+            table.load(filename);
+            keywords = null;
+            locations = null;
+            dates = null;
+            costs = null;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Returns the metrics recorded by the table, with its current number of
+     * records, capacity and tombstones.
+     *
+     * @return The metrics of the table.
+     */
+    public TableMetrics getMetrics() {
+        return table.getMetrics();
+    }
+
+
+    /**
+     * Returns the PrintWriter the table writes its own messages to
+     *
+     * @return The writer of the table
+     */
+    public PrintWriter getWriter() {
+        return table.getWriter();
+    }
+
+
+    /**
+     * Changes the PrintWriter the table writes its own messages to.
+     *
+     * @param writer
+     *            The writer to use from now on.
+     */
+    public void setWriter(PrintWriter writer) {
+        table.setWriter(writer);
+    }
+
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return Capacity of the table
+     */
+    public int getCapacity() {
+        return table.getCapacity();
+    }
+
+
+    /**
+     * Adds a record to every index that was built.
+     */
+    private void index(Record record) {
+        KeywordIndex keywordIndex = keywords;
+        if (keywordIndex != null) {
+            keywordIndex.add(record);
+        }
+        SpatialIndex spatialIndex = locations;
+        if (spatialIndex != null) {
+            spatialIndex.add(record);
+        }
+        OrderedIndex dateIndex = dates;
+        if (dateIndex != null) {
+            addDate(dateIndex, record);
+        }
+        OrderedIndex costIndex = costs;
+        if (costIndex != null) {
+            costIndex.add(record.getCost(), record.getId());
+        }
+    }
+
+
+    /**
+     * Returns the keyword index, building it from the records of the table
+     * if it was not searched before.
+     */
+    private KeywordIndex keywordIndex() {
+        KeywordIndex index = keywords;
+        if (index == null) {
+            lock.writeLock().lock();
+            try {
+                index = keywords;
+                if (index == null) {
+                    index = new KeywordIndex();
+                    table.forEachRecord(index::add);
+                    keywords = index;
+                }
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * Returns the location index, building it from the records of the table
+     * if it was not searched before.
+     */
+    private SpatialIndex spatialIndex() {
+        SpatialIndex index = locations;
+        if (index == null) {
+            lock.writeLock().lock();
+            try {
+                index = locations;
+                if (index == null) {
+                    index = new SpatialIndex();
+                    table.forEachRecord(index::add);
+                    locations = index;
+                }
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * Returns the date index, building it from the records of the table if
+     * it was not searched before.
+     */
+    private OrderedIndex dateIndex() {
+        OrderedIndex index = dates;
+        if (index == null) {
+            lock.writeLock().lock();
+            try {
+                index = dates;
+                if (index == null) {
+                    OrderedIndex built = new OrderedIndex();
+                    table.forEachRecord(record -> addDate(built, record));
+                    dates = built;
+                    index = built;
+                }
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * Returns the cost index, building it from the records of the table if
+     * it was not searched before.
+     */
+    private OrderedIndex costIndex() {
+        OrderedIndex index = costs;
+        if (index == null) {
+            lock.writeLock().lock();
+            try {
+                index = costs;
+                if (index == null) {
+                    OrderedIndex built = new OrderedIndex();
+                    table.forEachRecord(record -> built.add(record.getCost(),
+                        record.getId()));
+                    costs = built;
+                    index = built;
+                }
+            }
+            finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return index;
+    }
+
+
+    /**
+     * Adds a record to a date index unless its date is not ten digits.
+     */
+    private static void addDate(OrderedIndex index, Record record) {
+        long date = RecordCodec.packDate(record.getDate());
+        if (date != 0) {
+            index.add(date, record.getId());
+        }
+    }
+
+
+    /**
+     * Looks up the records with the given IDs, skipping any that were
+     * deleted in the meantime.
+     */
+    private Record[] fetch(int[] ids) {
+        Record[] found = new Record[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            Record record = table.lookup(id);
+            if (record != null) {
+                found[count++] = record;
+            }
+        }
+        return count == found.length
+            ? found
+            : Arrays.copyOf(found, count);
+    }
+}
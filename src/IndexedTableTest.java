@@ -0,0 +1,221 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the IndexedTable class. It
+ *          checks that the secondary indexes follow inserts, deletes and
+ *          snapshot loads, and cover records the table held beforehand or
+ *          changed before the first search.
+ */
+public class IndexedTableTest extends TestCase {
+
+    private PrintWriter writer;
+    private HashTable base;
+    private IndexedTable table;
+
+    /**
+     * Sets up an indexed table over a table that already holds a record.
+     */
+    @Before
+    public void setUp() {
+        writer = new PrintWriter(new StringWriter(), true);
+        base = new HashTable(64, 4, writer);
+        base.insert(record(1, "VT, HCI"));
+        table = new IndexedTable(base);
+    }
+
+
+    /**
+     * Creates a record with the given ID and keywords.
+     */
+    private Record record(int id, String keywords) {
+        return new Record(id, "T" + id, "0610071600", 1, (short)1, (short)1,
+            1, "D", keywords);
+    }
+
+
+    /**
+     * Returns the IDs of the records matching a keyword.
+     */
+    private int[] ids(String keyword) {
+        Record[] records = table.searchKeywords(Arrays.asList(keyword));
+        int[] ids = new int[records.length];
+        for (int i = 0; i < records.length; i++) {
+            ids[i] = records[i].getId();
+        }
+        return ids;
+    }
+
+
+    /**
+     * Tests that only successful inserts and deletes change the index.
+     */
+    @Test
+    public void testInsertAndDelete() {
+        assertTrue(table.insert(record(4, "VT")));
+        assertFalse(table.insert(record(4, "Biology")));
+        assertTrue(Arrays.equals(new int[] { 1, 4 }, ids("VT")));
+        assertEquals(0, ids("Biology").length);
+        assertEquals(record(4, "VT"), table.searchKeywords(Arrays.asList(
+            "VT"))[1]);
+
+        assertTrue(table.delete(1));
+        assertFalse(table.delete(1));
+        assertTrue(Arrays.equals(new int[] { 4 }, ids("VT")));
+        assertEquals(0, ids("HCI").length);
+    }
+
+
+    /**
+     * Tests that an index built by its first search covers the changes made
+     * before it, and follows the changes made after it.
+     */
+    @Test
+    public void testIndexOnFirstSearch() {
+        table.insert(new Record(2, "T2", "0610071600", 1, (short)5,
+            (short)5, 1, "D", "HCI"));
+        table.insert(record(3, "HCI"));
+        assertTrue(table.delete(1));
+        assertTrue(Arrays.equals(new int[] { 2, 3 }, ids("HCI")));
+        assertEquals(2, table.searchBox(0, 0, 5, 5)[0].getId());
+        assertEquals(2, table.searchCosts(1, 1).length);
+
+        table.insert(record(4, "HCI"));
+        assertTrue(table.delete(2));
+        assertTrue(Arrays.equals(new int[] { 3, 4 }, ids("HCI")));
+        assertEquals(3, table.searchRadius(1, 1, 0)[0].getId());
+        assertEquals(2, table.searchRadius(1, 1, 0).length);
+        assertEquals(3, table.searchCosts(1, 1)[0].getId());
+        assertEquals(2, table.searchDates("0610071600", "0610071600")
+            .length);
+    }
+
+
+    /**
+     * Tests that index searches and deletes read records without counting
+     * searches in the metrics of the table.
+     */
+    @Test
+    public void testLookupsAreNotSearches() {
+        table.insert(record(2, "VT"));
+        assertEquals(2, ids("VT").length);
+        assertEquals(2, table.searchCosts(1, 1).length);
+        assertTrue(table.delete(1));
+        assertEquals(record(2, "VT"), table.lookup(2));
+        assertNull(table.lookup(1));
+        assertTrue(base.getMetrics().toText().contains(
+            "search: 0 found, 0 not found"));
+        assertNotNull(table.search(2, false));
+        assertTrue(base.getMetrics().toText().contains(
+            "search: 1 found, 0 not found"));
+    }
+
+
+    /**
+     * Tests that deletes of missing IDs reach the table and are counted,
+     * with and without a built index.
+     */
+    @Test
+    public void testFailedDeletesCounted() {
+        assertFalse(table.delete(2));
+        assertTrue(base.getMetrics().toText().contains(
+            "delete: 0 deleted, 1 not found"));
+        assertEquals(1, ids("VT").length);
+        assertFalse(table.delete(3));
+        assertTrue(table.delete(1));
+        assertEquals(0, ids("VT").length);
+        assertTrue(base.getMetrics().toText().contains(
+            "delete: 1 deleted, 2 not found"));
+    }
+
+
+    /**
+     * Tests that a bulk load indexes only the records it inserted.
+     */
+    @Test
+    public void testInsertAll() {
+        Record[] records = { record(4, "VT"), record(1, "Biology"), record(
+            5, "Biology"), record(4, "Biology") };
+        StringBuilder results = new StringBuilder();
+        assertEquals(2, table.insertAll(records, (record, added) -> results
+            .append(added ? '+' : '-')));
+        assertEquals("+-+-", results.toString());
+        assertTrue(Arrays.equals(new int[] { 1, 4 }, ids("VT")));
+        assertTrue(Arrays.equals(new int[] { 5 }, ids("Biology")));
+    }
+
+
+    /**
+     * Tests that the location searches follow inserts and deletes.
+     */
+    @Test
+    public void testLocationSearch() {
+        table.insert(new Record(2, "T2", "0610071600", 1, (short)10,
+            (short)10, 1, "D", "VT"));
+        assertEquals(2, table.searchRadius(0, 0, 15).length);
+        assertEquals(1, table.searchRadius(0, 0, 14).length);
+        assertEquals(2, table.searchBox(10, 10, 1, 1)[1].getId());
+        assertTrue(table.delete(2));
+        assertEquals(0, table.searchBox(2, 2, 20, 20).length);
+    }
+
+
+    /**
+     * Tests that the date and cost searches return records in key order.
+     */
+    @Test
+    public void testRangeSearch() {
+        table.insert(new Record(2, "T2", "0601010000", 1, (short)1, (short)1,
+            5, "D", "VT"));
+        table.insert(new Record(3, "T3", "soon", 1, (short)1, (short)1, 0,
+            "D", "VT"));
+        Record[] dated = table.searchDates("0600000000", "0699999999");
+        assertEquals(2, dated.length);
+        assertEquals(2, dated[0].getId());
+        assertEquals(1, dated[1].getId());
+        assertEquals(1, table.searchDates("0610071600", "0610071600").length);
+
+        Record[] cheap = table.searchCosts(Integer.MIN_VALUE, 5);
+        assertEquals(3, cheap.length);
+        assertEquals(3, cheap[0].getId());
+        assertEquals(1, cheap[1].getId());
+        assertTrue(table.delete(2));
+        assertEquals(1, table.searchDates("0600000000", "0699999999").length);
+        assertEquals(2, table.searchCosts(0, 5).length);
+    }
+
+
+    /**
+     * Tests that loading a snapshot rebuilds the index.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be written or read.
+     */
+    @Test
+    public void testLoadRebuildsIndex() throws IOException {
+        assertTrue(Arrays.equals(new int[] { 1 }, ids("VT")));
+        HashTable other = new HashTable(64, 4, writer);
+        other.insert(record(7, "Biology"));
+        Path file = Files.createTempFile("snapshot", ".bin");
+        try {
+            other.save(file.toString());
+            table.load(file.toString());
+        }
+        finally {
+            Files.delete(file);
+        }
+        assertEquals(0, ids("VT").length);
+        assertTrue(Arrays.equals(new int[] { 7 }, ids("Biology")));
+    }
+}
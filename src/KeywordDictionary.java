@@ -0,0 +1,191 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The `KeywordDictionary` class assigns a small int code to every distinct
+ * keyword, so records can refer to keywords by code instead of repeating the
+ * same tags in every stored record. Codes are handed out in order starting
+ * at 0 and never change.
+ *
+ * Lookups of known keywords take no lock, and new keywords are added under
+ * the dictionary's lock, so one dictionary can be shared by the threads of a
+ * `ConcurrentHashTable`.
+ *
+ * The dictionary returned by `shared` interns the keywords of every `Record`
+ * in the process. Tables code the keywords they store against their own
+ * dictionary, which is saved in their snapshots.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class KeywordDictionary {
+
+    private static final KeywordDictionary SHARED = new KeywordDictionary();
+
+    private ConcurrentHashMap<String, Integer> codes;
+    private volatile String[] words;
+    private volatile int size;
+
+    /**
+     * Constructs a new, empty `KeywordDictionary` object.
+     */
+    public KeywordDictionary() {
+        codes = new ConcurrentHashMap<String, Integer>();
+        words = new String[16];
+        size = 0;
+    }
+
+
+    /**
+     * Returns the dictionary that interns the keywords of every record.
+     *
+     * @return The shared dictionary.
+     */
+    public static KeywordDictionary shared() {
+        return SHARED;
+    }
+
+
+    /**
+     * Returns the code of a keyword, adding the keyword if it is new.
+     *
+     * @param word
+     *            The keyword.
+     * @return The code of the keyword.
+     */
+    public int codeOf(String word) {
+        Integer code = codes.get(word);
+        if (code != null) {
+            return code;
+        }
+        return add(word);
+    }
+
+
+    /**
+     * Returns the code of a keyword without adding it.
+     *
+     * @param word
+     *            The keyword.
+     * @return The code of the keyword, or -1 if it is not in the dictionary.
+     */
+    public int find(String word) {
+        Integer code = codes.get(word);
+        return code != null ? code : -1;
+    }
+
+
+    /**
+     * Returns the keyword with the given code.
+     *
+     * @param code
+     *            The code returned by `codeOf`.
+     * @return The keyword.
+     * @throws IllegalArgumentException
+     *             If no keyword has the code.
+     */
+    public String wordOf(int code) {
+        if (code < 0 || code >= size) {
+            throw new IllegalArgumentException("Unknown keyword code: "
+                + code);
+        }
+        return words[code]; // Read after size, which is published last
+    }
+
+
+    /**
+     * Returns the number of keywords in the dictionary
+     *
+     * @return Number of keywords
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the number of bytes `save` writes for this dictionary.
+     *
+     * @return The size of the saved dictionary in bytes.
+     */
+    public synchronized int snapshotSize() {
+        int bytes = 4;
+        for (int i = 0; i < size; i++) {
+            bytes += 4 + words[i].getBytes(StandardCharsets.UTF_8).length;
+        }
+        return bytes;
+    }
+
+
+    /**
+     * Writes the dictionary to a buffer: the number of keywords, then each
+     * keyword in code order as a length and UTF-8 bytes.
+     *
+     * @param out
+     *            The buffer to write to.
+     */
+    public synchronized void save(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = words[i].getBytes(StandardCharsets.UTF_8);
+            out.putInt(bytes.length);
+            out.put(bytes);
+        }
+    }
+
+
+    /**
+     * Replaces the keywords of this dictionary with the ones written by
+     * `save`.
+     *
+     * @param in
+     *            The buffer to read from.
+     * @throws IllegalArgumentException
+     *             If the saved dictionary is not valid.
+     */
+    public synchronized void restore(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / 4) {
+            throw new IllegalArgumentException("Invalid saved dictionary");
+        }
+        codes.clear();
+        words = new String[Math.max(count, 16)];
+        size = 0;
+        for (int i = 0; i < count; i++) {
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                throw new IllegalArgumentException("Invalid saved keyword");
+            }
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            add(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+
+    /**
+     * Adds a keyword unless another thread added it first. The keyword is
+     * stored and the size raised before the code is put in the map, so a
+     * thread that finds the code can always look up the keyword.
+     */
+    private synchronized int add(String word) {
+        Integer known = codes.get(word);
+        if (known != null) {
+            return known;
+        }
+        String[] current = words;
+        if (size == current.length) {
+            String[] larger = new String[2 * size];
+            System.arraycopy(current, 0, larger, 0, size);
+            current = larger;
+        }
+        int code = size;
+        current[code] = word;
+        words = current;
+        size = code + 1;
+        codes.put(word, code); // Published last, once wordOf accepts the code
+        return code;
+    }
+}
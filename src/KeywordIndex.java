@@ -0,0 +1,255 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The `KeywordIndex` class is an inverted index from keyword to the IDs of
+ * the records that carry it. Keywords are identified by their code in the
+ * shared `KeywordDictionary`, and each posting list is an int array that
+ * is sorted before it is read, so AND and OR queries are linear merges of
+ * sorted lists.
+ *
+ * Queries are a list of keywords joined by `AND` and `OR`, with AND binding
+ * tighter than OR: `VT AND HCI OR Biology` matches records with both VT and
+ * HCI, or with Biology. Keywords next to each other without an operator are
+ * joined by AND.
+ *
+ * Reading a posting list may sort it in place, so queries take the
+ * monitor of the index just as updates do.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class KeywordIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private HashMap<Integer, Postings> postings;
+
+    /**
+     * Constructs a new, empty `KeywordIndex` object.
+     */
+    public KeywordIndex() {
+        postings = new HashMap<Integer, Postings>();
+    }
+
+
+    /**
+     * Adds a record to the posting lists of its keywords.
+     *
+     * @param record
+     *            The record to add.
+     */
+    public synchronized void add(Record record) {
+        for (int code : record.getKeywordCodes()) {
+            Postings list = postings.get(code);
+            if (list == null) {
+                list = new Postings();
+                postings.put(code, list);
+            }
+            list.add(record.getId());
+        }
+    }
+
+
+    /**
+     * Removes a record from the posting lists of its keywords.
+     *
+     * @param record
+     *            The record to remove.
+     */
+    public synchronized void remove(Record record) {
+        for (int code : record.getKeywordCodes()) {
+            Postings list = postings.get(code);
+            if (list != null) {
+                list.remove(record.getId());
+                if (list.size == 0) {
+                    postings.remove(code);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Removes every record from the index.
+     */
+    public synchronized void clear() {
+        postings.clear();
+    }
+
+
+    /**
+     * Returns the IDs of the records with a keyword.
+     *
+     * @param keyword
+     *            The keyword.
+     * @return The IDs in increasing order.
+     */
+    public synchronized int[] lookup(String keyword) {
+        Postings list = postings.get(KeywordDictionary.shared().find(
+            keyword));
+        return list == null ? NONE : list.toArray();
+    }
+
+
+    /**
+     * Returns the IDs of the records matching a query of keywords joined by
+     * `AND` and `OR`.
+     *
+     * @param terms
+     *            The keywords and operators of the query, in order.
+     * @return The IDs in increasing order.
+     */
+    public synchronized int[] query(List<String> terms) {
+        int[] result = NONE;
+        int[] group = null;
+        for (String term : terms) {
+            if (term.equals("OR")) {
+                result = or(result, group == null ? NONE : group);
+                group = null;
+            }
+            else if (!term.isEmpty() && !term.equals("AND")) {
+                int[] ids = lookup(term);
+                group = group == null ? ids : and(group, ids);
+            }
+        }
+        return or(result, group == null ? NONE : group);
+    }
+
+
+    /**
+     * Intersects two sorted ID lists.
+     *
+     * @param a
+     *            The first list.
+     * @param b
+     *            The second list.
+     * @return The IDs in both lists, in increasing order.
+     */
+    public static int[] and(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            }
+            else if (a[i] > b[j]) {
+                j++;
+            }
+            else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+
+    /**
+     * Merges two sorted ID lists.
+     *
+     * @param a
+     *            The first list.
+     * @param b
+     *            The second list.
+     * @return The IDs in either list, in increasing order.
+     */
+    public static int[] or(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[count++] = a[i++];
+            }
+            else if (i == a.length || b[j] < a[i]) {
+                result[count++] = b[j++];
+            }
+            else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+
+    /**
+     * A growable list of record IDs. IDs are appended, and a list that
+     * received IDs out of order is sorted the next time it is read, so
+     * indexing a run of records costs constant time per keyword.
+     */
+    private static class Postings {
+
+        private int[] ids = new int[4];
+        private int size = 0;
+        private boolean sorted = true;
+
+        /**
+         * Appends an ID. An ID equal to the last one is skipped; other
+         * duplicates are dropped when the list is sorted.
+         */
+        void add(int id) {
+            if (sorted && size > 0 && ids[size - 1] >= id) {
+                if (ids[size - 1] == id) {
+                    return;
+                }
+                sorted = false;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+            }
+            ids[size++] = id;
+        }
+
+
+        /**
+         * Removes an ID if it is present.
+         */
+        void remove(int id) {
+            if (sorted) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    System.arraycopy(ids, index + 1, ids, index, size - index
+                        - 1);
+                    size--;
+                }
+                return;
+            }
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] != id) {
+                    ids[count++] = ids[i];
+                }
+            }
+            size = count;
+        }
+
+
+        /**
+         * Returns the IDs in increasing order, sorting the list and dropping
+         * duplicates first if IDs were appended out of order.
+         */
+        int[] toArray() {
+            if (!sorted) {
+                Arrays.sort(ids, 0, size);
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    if (count == 0 || ids[count - 1] != ids[i]) {
+                        ids[count++] = ids[i];
+                    }
+                }
+                size = count;
+                sorted = true;
+            }
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Arrays;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the KeywordIndex class. It
+ *          checks posting list maintenance, the AND and OR merges and the
+ *          precedence of query operators.
+ */
+public class KeywordIndexTest extends TestCase {
+
+    private KeywordIndex index;
+
+    /**
+     * Indexes a few records before each test method.
+     */
+    @Before
+    public void setUp() {
+        index = new KeywordIndex();
+        index.add(record(5, "VT, HCI"));
+        index.add(record(1, "VT, Biology"));
+        index.add(record(9, "HCI"));
+        index.add(record(3, "Biology, VT, VT"));
+    }
+
+
+    /**
+     * Creates a record with the given ID and keywords.
+     */
+    private Record record(int id, String keywords) {
+        return new Record(id, "T", "0610071600", 1, (short)1, (short)1, 1,
+            "D", keywords);
+    }
+
+
+    /**
+     * Runs a query given as one string.
+     */
+    private int[] query(String text) {
+        return index.query(Arrays.asList(text.split(" ")));
+    }
+
+
+    /**
+     * Tests that posting lists are sorted and follow removals.
+     */
+    @Test
+    public void testLookup() {
+        assertTrue(Arrays.equals(new int[] { 1, 3, 5 }, index.lookup("VT")));
+        assertEquals(0, index.lookup("Unknown").length);
+        index.remove(record(3, "Biology, VT, VT"));
+        assertTrue(Arrays.equals(new int[] { 1, 5 }, index.lookup("VT")));
+        assertTrue(Arrays.equals(new int[] { 1 }, index.lookup("Biology")));
+        index.remove(record(1, "VT, Biology"));
+        assertEquals(0, index.lookup("Biology").length);
+    }
+
+
+    /**
+     * Tests that IDs added out of order or more than once are read back
+     * sorted and once, and that removals work before the list is sorted.
+     */
+    @Test
+    public void testUnsortedPostings() {
+        int[] ids = { 40, 12, 40, 7, 33, 12, 50, 2 };
+        for (int id : ids) {
+            index.add(record(id, "Fresh"));
+        }
+        index.remove(record(33, "Fresh"));
+        index.add(record(33, "Fresh"));
+        index.remove(record(12, "Fresh"));
+        assertTrue(Arrays.equals(new int[] { 2, 7, 33, 40, 50 }, index
+            .lookup("Fresh")));
+        index.add(record(60, "Fresh"));
+        index.remove(record(2, "Fresh"));
+        assertTrue(Arrays.equals(new int[] { 7, 33, 40, 50, 60 }, index
+            .lookup("Fresh")));
+    }
+
+
+    /**
+     * Tests AND, OR and their precedence.
+     */
+    @Test
+    public void testQueries() {
+        assertTrue(Arrays.equals(new int[] { 5 }, query("VT AND HCI")));
+        assertTrue(Arrays.equals(new int[] { 5 }, query("VT HCI")));
+        assertTrue(Arrays.equals(new int[] { 1, 3, 5, 9 }, query(
+            "Biology OR HCI")));
+        assertTrue(Arrays.equals(new int[] { 1, 3, 5, 9 }, query(
+            "VT AND Biology OR HCI")));
+        assertTrue(Arrays.equals(new int[] { 1, 3, 5, 9 }, query(
+            "HCI OR VT AND Biology")));
+        assertEquals(0, query("Biology AND HCI OR Unknown").length);
+        assertEquals(0, query("").length);
+    }
+
+
+    /**
+     * Tests the merges of sorted lists.
+     */
+    @Test
+    public void testMerges() {
+        int[] a = { 1, 4, 6, 9 };
+        int[] b = { 2, 4, 9, 12 };
+        assertTrue(Arrays.equals(new int[] { 4, 9 }, KeywordIndex.and(a, b)));
+        assertTrue(Arrays.equals(new int[] { 1, 2, 4, 6, 9, 12 }, KeywordIndex
+            .or(a, b)));
+        assertEquals(0, KeywordIndex.and(a, new int[0]).length);
+    }
+}
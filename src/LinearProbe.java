@@ -0,0 +1,118 @@
+/**
+ * The `LinearProbe` class probes the slot after the home slot, then the one
+ * after that, and so on. Consecutive probes touch neighbouring slots, which
+ * suits IDs that are spread evenly by the modulo.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class LinearProbe implements ProbeStrategy {
+
+    private final IdHash hash;
+
+    /**
+     * Constructs a new `LinearProbe` that uses the IDs as they are.
+     */
+    public LinearProbe() {
+        this(IdHash.LEGACY);
+    }
+
+
+    /**
+     * Constructs a new `LinearProbe` that hashes the IDs first.
+     *
+     * @param hash
+     *            The function applied to each ID.
+     */
+    public LinearProbe(IdHash hash) {
+        this.hash = hash;
+    }
+
+
+    /**
+     * Returns the hash of the ID modulo the capacity.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The home slot of the ID.
+     */
+    @Override
+    public int home(int id, int capacity) {
+        return hash.mix(id) % capacity;
+    }
+
+
+    /**
+     * Returns a step of one slot.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The probe step of the ID.
+     */
+    @Override
+    public int step(int id, int capacity) {
+        return 1;
+    }
+
+
+    /**
+     * Returns the slot after the given one.
+     *
+     * @param index
+     *            The slot probed last.
+     * @param step
+     *            The probe step of the ID.
+     * @param probe
+     *            The number of slots probed so far.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The next slot to probe.
+     */
+    @Override
+    public int next(int index, int step, int probe, int capacity) {
+        return (index + 1) % capacity;
+    }
+
+
+    /**
+     * Returns `true`, since stepping one slot at a time covers every
+     * capacity.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return `true` if the capacity is covered, `false` otherwise.
+     */
+    @Override
+    public boolean covers(int capacity) {
+        return capacity > 0;
+    }
+
+
+    /**
+     * Creates an empty slot table that uses linear probing with tombstones.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The new slot table.
+     */
+    @Override
+    public SlotTable createTable(int capacity) {
+        return new SlotTable(capacity, this);
+    }
+
+
+    /**
+     * Returns the function applied to each ID.
+     *
+     * @return The hash of the IDs.
+     */
+    @Override
+    public IdHash getHash() {
+        return hash;
+    }
+}
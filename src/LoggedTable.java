@@ -0,0 +1,364 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The `LoggedTable` class makes the inserts and deletes of another table
+ * durable. Every insert and delete that changes the table is appended to a
+ * `WriteAheadLog`, and once the log grows past a limit the table is saved to
+ * a checkpoint snapshot and the log is emptied, so recovery never replays
+ * more than one log's worth of commands.
+ *
+ * Recovery loads the checkpoint, if there is one, and replays the log on
+ * top of it. A crash between writing the checkpoint and emptying the log
+ * replays entries the checkpoint already holds; since only successful
+ * inserts and deletes are logged, replaying them again ends in the same
+ * table.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class LoggedTable implements RecordTable {
+
+    /** The default log size in bytes that triggers a checkpoint. */
+    public static final long CHECKPOINT_BYTES = 16L << 20;
+
+    private RecordTable table;
+    private WriteAheadLog log;
+    private String checkpoint;
+    private long checkpointBytes;
+
+    /**
+     * Constructs a new `LoggedTable` with the default checkpoint limit.
+     *
+     * @param table
+     *            The table the commands are applied to.
+     * @param log
+     *            The log the inserts and deletes are appended to.
+     * @param checkpoint
+     *            The name of the checkpoint snapshot file.
+     */
+    public LoggedTable(
+        RecordTable table,
+        WriteAheadLog log,
+        String checkpoint) {
+        this(table, log, checkpoint, CHECKPOINT_BYTES);
+    }
+
+
+    /**
+     * Constructs a new `LoggedTable` object.
+     *
+     * @param table
+     *            The table the commands are applied to.
+     * @param log
+     *            The log the inserts and deletes are appended to.
+     * @param checkpoint
+     *            The name of the checkpoint snapshot file.
+     * @param checkpointBytes
+     *            The log size in bytes that triggers a checkpoint.
+     */
+    public LoggedTable(
+        RecordTable table,
+        WriteAheadLog log,
+        String checkpoint,
+        long checkpointBytes) {
+        this.table = table;
+        this.log = log;
+        this.checkpoint = checkpoint;
+        this.checkpointBytes = checkpointBytes;
+    }
+
+
+    /**
+     * Rebuilds the table from the checkpoint and the log. The messages the
+     * table writes while the entries are replayed, such as its expansions,
+     * belong to the run that logged them and are discarded.
+     *
+     * @return The number of log entries replayed.
+     * @throws IOException
+     *             If the checkpoint or the log cannot be read.
+     */
+    public int recover() throws IOException {
+        PrintWriter writer = table.getWriter();
+        table.setWriter(new PrintWriter(Writer.nullWriter()));
+        try {
+            if (Files.exists(Paths.get(checkpoint))) {
+                table.load(checkpoint);
+            }
+            return log.replay(table);
+        }
+        finally {
+            table.setWriter(writer);
+        }
+    }
+
+
+    /**
+     * Saves the table to the checkpoint file and empties the log. The
+     * snapshot is written next to the checkpoint and moved over it, so the
+     * old checkpoint stays intact until the new one is complete.
+     *
+     * @throws IOException
+     *             If the checkpoint cannot be written.
+     */
+    public void checkpoint() throws IOException {
+        String partial = checkpoint + ".tmp";
+        table.save(partial);
+        Files.move(Paths.get(partial), Paths.get(checkpoint),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        log.truncate();
+    }
+
+
+    /**
+     * Inserts a record and logs the insert if it succeeded.
+     *
+     * @param record
+     *            The record to be inserted into the table.
+     * @return `true` if the record is inserted successfully, `false` if a
+     *         record with the same ID already exists.
+     * @throws UncheckedIOException
+     *             If the log cannot be written.
+     */
+    public boolean insert(Record record) {
+        if (!table.insert(record)) {
+            return false;
+        }
+        try {
+            log.logInsert(record);
+            checkpointIfFull();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+
+    /**
+     * Inserts many records through the bulk load of the table and logs the
+     * ones that were inserted, in order.
+     *
+     * @param records
+     *            The records to be inserted, in order.
+     * @param result
+     *            Called with each record, in order, and `true` if it was
+     *            inserted or `false` if its ID was already taken.
+     * @return The number of records inserted.
+     * @throws UncheckedIOException
+     *             If an insert cannot be logged.
+     */
+    public int insertAll(
+        Record[] records,
+        BiConsumer<Record, Boolean> result) {
+        return table.insertAll(records, (record, added) -> {
+            if (added) {
+                try {
+                    log.logInsert(record);
+                    checkpointIfFull();
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            result.accept(record, added);
+        });
+    }
+
+
+    /**
+     * Searches for a record with a given ID in the table.
+     *
+     * @param id
+     *            The ID of the record to search for.
+     * @param searchMode
+     *            `true` to print a message if the search fails,
+     *            `false` otherwise.
+     * @return The found record, `null` if not found.
+     */
+    public Record search(int id, boolean searchMode) {
+        return table.search(id, searchMode);
+    }
+
+
+    /**
+     * Looks up a record by ID without printing a message or counting the
+     * lookup as a search in the metrics.
+     *
+     * @param id
+     *            The ID of the record to look up.
+     * @return The record, `null` if not found.
+     */
+    public Record lookup(int id) {
+        return table.lookup(id);
+    }
+
+
+    /**
+     * Deletes a record and logs the delete if it succeeded.
+     *
+     * @param id
+     *            The ID of the record to be deleted.
+     * @return `true` if the record is found and deleted, `false` otherwise.
+     * @throws UncheckedIOException
+     *             If the log cannot be written.
+     */
+    public boolean delete(int id) {
+        if (!table.delete(id)) {
+            return false;
+        }
+        try {
+            log.logDelete(id);
+            checkpointIfFull();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+
+    /**
+     * Prints the contents of the table.
+     *
+     * @return the table as the output
+     */
+    public String printHashTable() {
+        return table.printHashTable();
+    }
+
+
+    /**
+     * Prints the free blocks of the memory pool.
+     */
+    public void printMemoryBlocks() {
+        table.printMemoryBlocks();
+    }
+
+
+    /**
+     * Passes every record of the table to an action.
+     *
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachRecord(Consumer<Record> action) {
+        table.forEachRecord(action);
+    }
+
+
+    /**
+     * Passes the records with an ID in a range to an action, in increasing
+     * ID order.
+     *
+     * @param low
+     *            The smallest ID, inclusive.
+     * @param high
+     *            The largest ID, inclusive.
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachInRange(int low, int high, Consumer<Record> action) {
+        table.forEachInRange(low, high, action);
+    }
+
+
+    /**
+     * Saves the records of the table to a snapshot file.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public void save(String filename) throws IOException {
+        table.save(filename);
+    }
+
+
+    /**
+     * Replaces the records of the table with the ones in a snapshot file and
+     * checkpoints right away, since the log cannot describe the change.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be read or is not a valid snapshot.
+     */
+    public void load(String filename) throws IOException {
+        table.load(filename);
+        checkpoint();
+    }
+
+
+    /**
+     * Returns the metrics recorded by the table, with its current number of
+     * records, capacity and tombstones.
+     *
+     * @return The metrics of the table.
+     */
+    public TableMetrics getMetrics() {
+        return table.getMetrics();
+    }
+
+
+    /**
+     * Returns the PrintWriter the table writes its own messages to
+     *
+     * @return The writer of the table
+     */
+    public PrintWriter getWriter() {
+        return table.getWriter();
+    }
+
+
+    /**
+     * Changes the PrintWriter the table writes its own messages to.
+     *
+     * @param writer
+     *            The writer to use from now on.
+     */
+    public void setWriter(PrintWriter writer) {
+        table.setWriter(writer);
+    }
+
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return Capacity of the table
+     */
+    public int getCapacity() {
+        return table.getCapacity();
+    }
+
+
+    /**
+     * Commits the log and closes it.
+     *
+     * @throws IOException
+     *             If the log cannot be written or closed.
+     */
+    public void close() throws IOException {
+        log.close();
+    }
+
+
+    /**
+     * Checkpoints once the log has grown past its limit.
+     */
+    private void checkpointIfFull() throws IOException {
+        if (log.size() >= checkpointBytes) {
+            checkpoint();
+        }
+    }
+}
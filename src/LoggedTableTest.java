@@ -0,0 +1,166 @@
+import student.TestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the LoggedTable class. It
+ *          checks that only changes are logged, that the log is checkpointed
+ *          once it is full, and that recovery rebuilds the table.
+ */
+public class LoggedTableTest extends TestCase {
+
+    private Path logFile;
+    private String checkpoint;
+    private PrintWriter writer;
+
+    /**
+     * Picks fresh log and checkpoint files before each test method.
+     *
+     * @throws IOException
+     *             If the temporary file cannot be created.
+     */
+    @Before
+    public void setUp() throws IOException {
+        logFile = Files.createTempFile("commands", ".wal");
+        Files.delete(logFile);
+        checkpoint = logFile + ".checkpoint";
+        writer = new PrintWriter(new StringWriter(), true);
+    }
+
+
+    /**
+     * Deletes the log and checkpoint files after each test method.
+     *
+     * @throws IOException
+     *             If the files cannot be deleted.
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(Paths.get(checkpoint));
+    }
+
+
+    /**
+     * Creates a record with the given ID and several keywords, some of them
+     * shared with other records, so a recovered table has to code them
+     * against its own dictionary.
+     */
+    private Record record(int id) {
+        return new Record(id, "Logged " + id, "0610071600", 30 + id,
+            (short)id, (short)(id * 2), id, "Checkpointed " + id,
+            "Log, Topic" + id % 3 + ", Keyword" + id);
+    }
+
+
+    /**
+     * Opens a logged table over a new hash table and recovers it.
+     */
+    private LoggedTable open(long checkpointBytes) throws IOException {
+        LoggedTable table = new LoggedTable(new HashTable(64, 4, writer),
+            new WriteAheadLog(logFile.toString()), checkpoint,
+            checkpointBytes);
+        table.recover();
+        return table;
+    }
+
+
+    /**
+     * Tests that failed inserts and deletes are not logged and that a
+     * restart recovers the table.
+     *
+     * @throws IOException
+     *             If the log cannot be read or written.
+     */
+    @Test
+    public void testRecover() throws IOException {
+        LoggedTable table = open(LoggedTable.CHECKPOINT_BYTES);
+        assertTrue(table.insert(record(1)));
+        assertFalse(table.insert(record(1)));
+        assertTrue(table.insert(record(2)));
+        assertTrue(table.delete(1));
+        assertFalse(table.delete(1));
+        table.close();
+
+        LoggedTable recovered = new LoggedTable(new HashTable(64, 4, writer),
+            new WriteAheadLog(logFile.toString()), checkpoint);
+        assertEquals(3, recovered.recover());
+        assertNull(recovered.search(1, false));
+        assertEquals(record(2), recovered.search(2, false));
+        recovered.close();
+    }
+
+
+    /**
+     * Tests that a full log is checkpointed and emptied, and that recovery
+     * combines the checkpoint with the entries logged after it.
+     *
+     * @throws IOException
+     *             If the log cannot be read or written.
+     */
+    @Test
+    public void testCheckpoint() throws IOException {
+        LoggedTable table = open(400);
+        for (int id = 1; id <= 20; id++) {
+            table.insert(record(id));
+        }
+        table.delete(3);
+        table.close();
+        assertTrue(Files.exists(Paths.get(checkpoint)));
+        assertTrue(Files.size(logFile) < 400);
+
+        LoggedTable recovered = open(400);
+        for (int id = 1; id <= 20; id++) {
+            if (id == 3) {
+                assertNull(recovered.search(id, false));
+            }
+            else {
+                assertEquals(record(id), recovered.search(id, false));
+            }
+        }
+        recovered.close();
+    }
+
+
+    /**
+     * Tests that replaying the log does not print the expansions it causes,
+     * and that the table prints its messages again once it is recovered.
+     *
+     * @throws IOException
+     *             If the log cannot be read or written.
+     */
+    @Test
+    public void testRecoverIsQuiet() throws IOException {
+        LoggedTable table = open(LoggedTable.CHECKPOINT_BYTES);
+        for (int id = 1; id <= 40; id++) {
+            table.insert(record(id));
+        }
+        table.close();
+
+        StringWriter output = new StringWriter();
+        PrintWriter quiet = new PrintWriter(output, true);
+        LoggedTable recovered = new LoggedTable(new HashTable(4, 4, quiet),
+            new WriteAheadLog(logFile.toString()), checkpoint);
+        assertEquals(40, recovered.recover());
+        assertEquals("", output.toString());
+        assertEquals(record(40), recovered.search(40, false));
+        assertSame(quiet, recovered.getWriter());
+
+        for (int id = 41; id <= 128; id++) {
+            recovered.insert(record(id));
+        }
+        assertTrue(output.toString().contains("Hash table expanded to"));
+        recovered.close();
+    }
+}
@@ -0,0 +1,349 @@
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.util.TreeSet;
+
+/**
+ * The `MemoryManager` class manages a contiguous byte-addressed memory pool
+ * using the buddy method. Every allocation is rounded up to a power-of-two
+ * block, free blocks are kept in one address-ordered free list per block
+ * size, and a freed block is merged with its buddy whenever the buddy is also
+ * free. When no free block is large enough the pool doubles in size.
+ *
+ * Each allocated block starts with a four byte length header followed by the
+ * stored bytes, so a block can be read back or released from its start
+ * position alone.
+ *
+ * The pool is either an ordinary heap buffer or a direct buffer allocated
+ * outside the Java heap. A direct pool keeps large databases out of the
+ * garbage collected heap, so only the handles in the hash table and the
+ * records materialized for output live on the heap.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class MemoryManager {
+
+    private static final int HEADER_SIZE = 4;
+
+    private ByteBuffer pool;
+    private boolean offHeap;
+    private TreeSet<Integer>[] freeLists;
+    private PrintWriter writer;
+
+    /**
+     * Constructs a new `MemoryManager` whose pool is kept on the Java heap and
+     * initially holds a single free block covering all of its bytes.
+     *
+     * @param memoryPoolSize
+     *            The initial size of the memory pool in bytes. Sizes that are
+     *            not a power of two are rounded up to the next power of two.
+     * @param writer
+     *            The PrintWriter object used for output.
+     */
+    public MemoryManager(int memoryPoolSize, PrintWriter writer) {
+        this(memoryPoolSize, writer, false);
+    }
+
+
+    /**
+     * Constructs a new `MemoryManager` whose pool initially holds a single
+     * free block covering all of its bytes.
+     *
+     * @param memoryPoolSize
+     *            The initial size of the memory pool in bytes. Sizes that are
+     *            not a power of two are rounded up to the next power of two.
+     * @param writer
+     *            The PrintWriter object used for output.
+     * @param offHeap
+     *            `true` to allocate the pool outside the Java heap, `false`
+     *            to keep it on the heap.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public MemoryManager(
+        int memoryPoolSize,
+        PrintWriter writer,
+        boolean offHeap) {
+        int poolSize = roundUp(Math.max(memoryPoolSize, 1));
+        this.offHeap = offHeap;
+        pool = allocatePool(poolSize);
+        freeLists = new TreeSet[31];
+        for (int k = 0; k < freeLists.length; k++) {
+            freeLists[k] = new TreeSet<Integer>();
+        }
+        freeLists[log2(poolSize)].add(0);
+        this.writer = writer;
+    }
+
+
+    /**
+     * Stores a copy of the given bytes in the memory pool, expanding the pool
+     * until a large enough block is available.
+     *
+     * @param data
+     *            The bytes to be stored.
+     * @return The start position of the block holding the bytes.
+     */
+    public int insert(byte[] data) {
+        int k = log2(roundUp(data.length + HEADER_SIZE));
+        int start = allocate(k);
+        while (start == -1) {
+            expandPool();
+            start = allocate(k);
+        }
+        pool.putInt(start, data.length);
+        ByteBuffer block = pool.duplicate();
+        block.position(start + HEADER_SIZE);
+        block.put(data);
+        return start;
+    }
+
+
+    /**
+     * Returns a copy of the bytes stored in the block at the given position.
+     *
+     * @param start
+     *            The start position returned by `insert`.
+     * @return The bytes stored in the block.
+     */
+    public byte[] get(int start) {
+        byte[] data = new byte[pool.getInt(start)];
+        ByteBuffer block = pool.duplicate();
+        block.position(start + HEADER_SIZE);
+        block.get(data);
+        return data;
+    }
+
+
+    /**
+     * Releases the block at the given position and merges it with its buddy
+     * for as long as the buddy is also free.
+     *
+     * @param start
+     *            The start position returned by `insert`.
+     */
+    public void remove(int start) {
+        int k = log2(roundUp(pool.getInt(start) + HEADER_SIZE));
+        int block = start;
+        while ((1 << k) < pool.capacity()) {
+            int buddy = block ^ (1 << k);
+            if (!freeLists[k].remove(buddy)) {
+                break;
+            }
+            block = Math.min(block, buddy);
+            k++;
+        }
+        freeLists[k].add(block);
+    }
+
+
+    /**
+     * Prints the free blocks of the memory pool, one line per block size in
+     * increasing order, followed by the start positions of the free blocks of
+     * that size.
+     */
+    public void printFreeBlocks() {
+        writer.println("\nFreeBlock List:");
+        boolean found = false;
+        for (int k = 0; k < freeLists.length; k++) {
+            if (freeLists[k].isEmpty()) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder();
+            line.append(1 << k).append(":");
+            for (int block : freeLists[k]) {
+                line.append(" ").append(block);
+            }
+            writer.println(line);
+            found = true;
+        }
+        if (!found) {
+            writer.println("There are no freeblocks in the memory pool");
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes `save` writes for this pool.
+     *
+     * @return The size of the saved pool in bytes.
+     */
+    public int snapshotSize() {
+        int blocks = 0;
+        for (TreeSet<Integer> freeList : freeLists) {
+            blocks += freeList.size();
+        }
+        return 8 + 5 * blocks + pool.capacity();
+    }
+
+
+    /**
+     * Writes the pool to a buffer: the pool size, the free blocks as pairs
+     * of size exponent and start position, then the pool bytes.
+     *
+     * @param out
+     *            The buffer to write to.
+     */
+    public void save(ByteBuffer out) {
+        out.putInt(pool.capacity());
+        int blocks = 0;
+        for (TreeSet<Integer> freeList : freeLists) {
+            blocks += freeList.size();
+        }
+        out.putInt(blocks);
+        for (int k = 0; k < freeLists.length; k++) {
+            for (int block : freeLists[k]) {
+                out.put((byte)k);
+                out.putInt(block);
+            }
+        }
+        ByteBuffer contents = pool.duplicate();
+        contents.clear();
+        out.put(contents);
+    }
+
+
+    /**
+     * Replaces the pool and its free blocks with the ones written by `save`.
+     *
+     * @param in
+     *            The buffer to read from.
+     * @throws IllegalArgumentException
+     *             If the saved pool is not valid.
+     */
+    public void restore(ByteBuffer in) {
+        int poolSize = in.getInt();
+        int blocks = in.getInt();
+        if (poolSize <= 0 || Integer.bitCount(poolSize) != 1 || blocks < 0) {
+            throw new IllegalArgumentException("Invalid saved memory pool");
+        }
+        for (TreeSet<Integer> freeList : freeLists) {
+            freeList.clear();
+        }
+        for (int i = 0; i < blocks; i++) {
+            int k = in.get();
+            int block = in.getInt();
+            if (k < 0 || k >= freeLists.length || block < 0
+                || block + (1L << k) > poolSize) {
+                throw new IllegalArgumentException("Invalid saved free block");
+            }
+            freeLists[k].add(block);
+        }
+        pool = allocatePool(poolSize);
+        ByteBuffer contents = in.duplicate();
+        contents.limit(contents.position() + poolSize);
+        pool.put(contents);
+        pool.clear();
+        in.position(in.position() + poolSize);
+    }
+
+
+    /**
+     * Returns the current size of the memory pool
+     *
+     * @return Size of the memory pool in bytes
+     */
+    public int getPoolSize() {
+        return pool.capacity();
+    }
+
+
+    /**
+     * Changes the PrintWriter the messages of the memory pool are written
+     * to.
+     *
+     * @param writer
+     *            The writer to use from now on.
+     */
+    public void setWriter(PrintWriter writer) {
+        this.writer = writer;
+    }
+
+
+    /**
+     * Returns whether the memory pool is allocated outside the Java heap
+     *
+     * @return `true` if the pool is a direct buffer, `false` otherwise
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+
+    /**
+     * Takes a free block of size 2^k, splitting a larger free block if no
+     * block of exactly that size is free.
+     *
+     * @param k
+     *            The exponent of the requested block size.
+     * @return The start position of the block, or -1 if no free block is
+     *         large enough.
+     */
+    private int allocate(int k) {
+        int j = k;
+        while (j < freeLists.length && freeLists[j].isEmpty()) {
+            j++;
+        }
+        if (j == freeLists.length) {
+            return -1;
+        }
+        int block = freeLists[j].pollFirst();
+        while (j > k) {
+            j--;
+            freeLists[j].add(block + (1 << j)); // Upper half stays free
+        }
+        return block;
+    }
+
+
+    /**
+     * Doubles the size of the memory pool. The new upper half is released as
+     * one free block so it merges with the lower half when that is free.
+     */
+    private void expandPool() {
+        ByteBuffer oldPool = pool.duplicate();
+        oldPool.clear();
+        pool = allocatePool(2 * oldPool.capacity());
+        pool.put(oldPool);
+        pool.clear();
+
+        int k = log2(oldPool.capacity());
+        if (freeLists[k].remove(0)) {
+            freeLists[k + 1].add(0);
+        }
+        else {
+            freeLists[k].add(oldPool.capacity());
+        }
+
+        writer.println("Memory pool expanded to " + pool.capacity()
+            + " bytes");
+    }
+
+
+    /**
+     * Allocates a pool buffer of the given size on or off the heap.
+     */
+    private ByteBuffer allocatePool(int poolSize) {
+        if (offHeap) {
+            return ByteBuffer.allocateDirect(poolSize);
+        }
+        return ByteBuffer.allocate(poolSize);
+    }
+
+
+    /**
+     * Rounds a positive value up to the next power of two.
+     */
+    private static int roundUp(int value) {
+        int power = Integer.highestOneBit(value);
+        return power == value ? value : power << 1;
+    }
+
+
+    /**
+     * Returns the base two logarithm of a power of two.
+     */
+    private static int log2(int power) {
+        return Integer.numberOfTrailingZeros(power);
+    }
+}
@@ -0,0 +1,122 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the MemoryManager class. It
+ *          tests allocation and splitting of blocks, merging of buddies on
+ *          removal, and expansion of the memory pool.
+ */
+public class MemoryManagerTest extends TestCase {
+
+    private StringWriter output;
+    private MemoryManager memory;
+
+    /**
+     * Sets up a 64 byte memory pool before each test method.
+     */
+    @Before
+    public void setUp() {
+        output = new StringWriter();
+        memory = new MemoryManager(64, new PrintWriter(output, true));
+    }
+
+
+    /**
+     * Tests that stored bytes are read back unchanged.
+     */
+    @Test
+    public void testInsertAndGet() {
+        byte[] data = { 1, 2, 3, 4, 5 };
+        int start = memory.insert(data);
+        byte[] stored = memory.get(start);
+        assertEquals(data.length, stored.length);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], stored[i]);
+        }
+    }
+
+
+    /**
+     * Tests that a small allocation splits the pool into buddies and that the
+     * remaining free blocks are listed by size.
+     */
+    @Test
+    public void testSplitBlocks() {
+        assertEquals(0, memory.insert(new byte[10])); // 14 bytes -> 16
+        assertEquals(16, memory.insert(new byte[4])); // 8 bytes -> 8
+        memory.printFreeBlocks();
+        assertEquals("\nFreeBlock List:\n8: 24\n32: 32\n", output.toString());
+    }
+
+
+    /**
+     * Tests that removing blocks merges buddies back into a single block.
+     */
+    @Test
+    public void testMergeBuddies() {
+        int first = memory.insert(new byte[10]);
+        int second = memory.insert(new byte[10]);
+        memory.remove(first);
+        memory.remove(second);
+        memory.printFreeBlocks();
+        assertEquals("\nFreeBlock List:\n64: 0\n", output.toString());
+    }
+
+
+    /**
+     * Tests that the pool doubles when no free block is large enough and that
+     * the existing contents survive the expansion.
+     */
+    @Test
+    public void testExpandPool() {
+        int first = memory.insert(new byte[] { 7 });
+        int second = memory.insert(new byte[100]);
+        assertEquals(256, memory.getPoolSize());
+        assertEquals(7, memory.get(first)[0]);
+        assertEquals(128, second);
+        assertTrue(output.toString().contains(
+            "Memory pool expanded to 128 bytes"));
+        assertTrue(output.toString().contains(
+            "Memory pool expanded to 256 bytes"));
+    }
+
+
+    /**
+     * Tests the message printed when every block of the pool is in use.
+     */
+    @Test
+    public void testNoFreeBlocks() {
+        memory.insert(new byte[60]);
+        memory.printFreeBlocks();
+        assertEquals("\nFreeBlock List:\n"
+            + "There are no freeblocks in the memory pool\n", output
+                .toString());
+    }
+
+
+    /**
+     * Tests that an off-heap pool stores, expands and releases blocks the
+     * same way as a heap pool.
+     */
+    @Test
+    public void testOffHeapPool() {
+        MemoryManager direct = new MemoryManager(64, new PrintWriter(output,
+            true), true);
+        assertTrue(direct.isOffHeap());
+        int first = direct.insert(new byte[] { 7 });
+        int second = direct.insert(new byte[100]);
+        assertEquals(256, direct.getPoolSize());
+        assertEquals(7, direct.get(first)[0]);
+        direct.remove(first);
+        direct.remove(second);
+        direct.printFreeBlocks();
+        assertTrue(output.toString().endsWith("256: 0\n"));
+    }
+}
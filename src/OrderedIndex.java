@@ -0,0 +1,217 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The `OrderedIndex` class keeps the IDs of records sorted by a numeric key,
+ * such as a packed date or a cost, so records can be found by a range of
+ * keys. Entries are ordered by key and then by ID, so records sharing a key
+ * come out in increasing ID order.
+ *
+ * The index is a skip list: a sorted linked list in which each node also
+ * links forward past a random number of its successors, so a search skips
+ * most of the list and takes logarithmic time. A range is read by searching
+ * for its lower bound and walking the bottom list, one entry at a time, up
+ * to the upper bound.
+ *
+ * A range walks links that an insert or remove rewires, so ranges and
+ * updates take the monitor of the whole list.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class OrderedIndex {
+
+    private static final int MAX_LEVEL = 24;
+
+    private Node head;
+    private int level;
+    private int size;
+    private int seed;
+
+    /**
+     * Constructs a new, empty `OrderedIndex` object.
+     */
+    public OrderedIndex() {
+        clear();
+        seed = 0x2545F491;
+    }
+
+
+    /**
+     * Adds a record ID under a key. Adding an entry that is already present
+     * has no effect.
+     *
+     * @param key
+     *            The key of the record.
+     * @param id
+     *            The ID of the record.
+     */
+    public synchronized void add(long key, int id) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].before(key, id)) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        Node next = node.next[0];
+        if (next != null && next.key == key && next.id == id) {
+            return;
+        }
+
+        int height = randomLevel();
+        for (int i = level; i < height; i++) {
+            update[i] = head;
+        }
+        level = Math.max(level, height);
+        Node added = new Node(key, id, height);
+        for (int i = 0; i < height; i++) {
+            added.next[i] = update[i].next[i];
+            update[i].next[i] = added;
+        }
+        size++;
+    }
+
+
+    /**
+     * Removes a record ID from under a key.
+     *
+     * @param key
+     *            The key the record was added with.
+     * @param id
+     *            The ID of the record.
+     */
+    public synchronized void remove(long key, int id) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].before(key, id)) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        Node removed = node.next[0];
+        if (removed == null || removed.key != key || removed.id != id) {
+            return;
+        }
+        for (int i = 0; i < removed.next.length; i++) {
+            update[i].next[i] = removed.next[i];
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+
+    /**
+     * Removes every entry from the index.
+     */
+    public synchronized void clear() {
+        head = new Node(Long.MIN_VALUE, Integer.MIN_VALUE, MAX_LEVEL);
+        level = 1;
+        size = 0;
+    }
+
+
+    /**
+     * Passes the IDs with a key in a range to an action, in key order.
+     *
+     * @param low
+     *            The smallest key, inclusive.
+     * @param high
+     *            The largest key, inclusive.
+     * @param action
+     *            The action to perform on each ID.
+     */
+    public synchronized void forEachInRange(
+        long low,
+        long high,
+        IntConsumer action) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].key < low) {
+                node = node.next[i];
+            }
+        }
+        for (node = node.next[0]; node != null && node.key <= high;
+            node = node.next[0]) {
+            action.accept(node.id);
+        }
+    }
+
+
+    /**
+     * Returns the IDs with a key in a range.
+     *
+     * @param low
+     *            The smallest key, inclusive.
+     * @param high
+     *            The largest key, inclusive.
+     * @return The IDs in order of key, then ID.
+     */
+    public synchronized int[] range(long low, long high) {
+        int[][] ids = { new int[16] };
+        int[] count = { 0 };
+        forEachInRange(low, high, id -> {
+            if (count[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], 2 * count[0]);
+            }
+            ids[0][count[0]++] = id;
+        });
+        return Arrays.copyOf(ids[0], count[0]);
+    }
+
+
+    /**
+     * Returns the number of entries in the index
+     *
+     * @return Number of entries
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+
+    /**
+     * Picks the height of a new node: each level above the first is kept
+     * with probability 1/4.
+     */
+    private int randomLevel() {
+        seed ^= seed << 13; // Xorshift generator
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        int height = 1 + Integer.numberOfTrailingZeros(seed | 1 << 30) / 2;
+        return Math.min(height, MAX_LEVEL);
+    }
+
+
+    /**
+     * An entry of the skip list with its forward links, one per level.
+     */
+    private static class Node {
+
+        private final long key;
+        private final int id;
+        private final Node[] next;
+
+        /**
+         * Creates a node with the given number of levels.
+         */
+        Node(long key, int id, int height) {
+            this.key = key;
+            this.id = id;
+            next = new Node[height];
+        }
+
+
+        /**
+         * Checks whether this node comes before an entry.
+         */
+        boolean before(long otherKey, int otherId) {
+            return key < otherKey || key == otherKey && id < otherId;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the OrderedIndex class. It
+ *          checks range queries, duplicate keys and removals, and compares
+ *          the index with a sorted set over many random changes.
+ */
+public class OrderedIndexTest extends TestCase {
+
+    private OrderedIndex index;
+
+    /**
+     * Sets up an empty index before each test method.
+     */
+    @Before
+    public void setUp() {
+        index = new OrderedIndex();
+    }
+
+
+    /**
+     * Tests that ranges are inclusive and ordered by key, then ID.
+     */
+    @Test
+    public void testRange() {
+        index.add(30, 1);
+        index.add(10, 5);
+        index.add(20, 3);
+        index.add(20, 2);
+        index.add(20, 2);
+        assertEquals(4, index.size());
+        assertTrue(Arrays.equals(new int[] { 2, 3, 1 }, index.range(20, 30)));
+        assertTrue(Arrays.equals(new int[] { 5, 2, 3, 1 }, index.range(
+            Long.MIN_VALUE, Long.MAX_VALUE)));
+        assertEquals(0, index.range(11, 19).length);
+        assertEquals(0, index.range(30, 20).length);
+    }
+
+
+    /**
+     * Tests that removing entries leaves the others in place.
+     */
+    @Test
+    public void testRemove() {
+        index.add(10, 1);
+        index.add(10, 2);
+        index.remove(10, 1);
+        index.remove(10, 9);
+        index.remove(11, 2);
+        assertTrue(Arrays.equals(new int[] { 2 }, index.range(0, 100)));
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(0, index.range(0, 100).length);
+    }
+
+
+    /**
+     * Tests the index against a sorted set over random adds and removes.
+     */
+    @Test
+    public void testRandomChanges() {
+        Random random = new Random(7);
+        TreeSet<Long> expected = new TreeSet<Long>();
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(100);
+            int id = random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                index.remove(key, id);
+                expected.remove(key * 1000L + id);
+            }
+            else {
+                index.add(key, id);
+                expected.add(key * 1000L + id);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+        int[] ids = index.range(25, 75);
+        int i = 0;
+        for (long entry : expected.subSet(25000L, 76000L)) {
+            assertEquals(entry % 1000, ids[i++]);
+        }
+        assertEquals(i, ids.length);
+    }
+}
@@ -0,0 +1,277 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.function.Consumer;
+
+/**
+ * The `OrderedTable` class stores seminar records by ID like `HashTable`, but
+ * keeps the IDs in a `BPlusTree` instead of a hash table. Lookups by ID take
+ * logarithmic rather than constant time, and in exchange the records are
+ * always in ID order: printing the table lists the IDs in order and a range
+ * of IDs is read without sorting.
+ *
+ * Records are encoded into a memory pool managed by a `MemoryManager`, the
+ * same way as in `HashTable`, and the tree maps each ID to the pool position
+ * of its record. Snapshots use the same file format as `HashTable`, so a
+ * snapshot written by one table can be loaded by the other.
+ *
+ * Every insert, search and delete is timed in the table's `TableMetrics`.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class OrderedTable implements RecordTable {
+
+    private BPlusTree index;
+    private MemoryManager memory;
+    private KeywordDictionary keywords;
+    private TableMetrics metrics;
+    private PrintWriter writer;
+
+    /**
+     * Constructs a new, empty `OrderedTable` object.
+     *
+     * @param memoryPoolSize
+     *            The size of the memory pool in bytes.
+     * @param writer
+     *            The PrintWriter object used for output.
+     * @param offHeap
+     *            `true` to keep the memory pool outside the Java heap,
+     *            `false` to keep it on the heap.
+     */
+    public OrderedTable(
+        int memoryPoolSize,
+        PrintWriter writer,
+        boolean offHeap) {
+        index = new BPlusTree();
+        memory = new MemoryManager(memoryPoolSize, writer, offHeap);
+        keywords = new KeywordDictionary();
+        metrics = new TableMetrics();
+        this.writer = writer;
+    }
+
+
+    /**
+     * Inserts a record into the table if it doesn't already exist.
+     *
+     * @param record
+     *            The record to be inserted into the table.
+     * @return `true` if the record is inserted successfully, `false` if a
+     *         record with the same ID already exists.
+     */
+    public boolean insert(Record record) {
+        long time = System.nanoTime();
+        boolean inserted = index.get(record.getId()) == BPlusTree.NONE;
+        if (inserted) {
+            int start = memory.insert(RecordCodec.encode(record, keywords));
+            index.put(record.getId(), start);
+        }
+        metrics.recordInsert(inserted, System.nanoTime() - time);
+        return inserted;
+    }
+
+
+    /**
+     * Searches for a record with a given ID in the table.
+     *
+     * @param id
+     *            The ID of the record to search for.
+     * @param searchMode
+     *            `true` to print a message if the search fails,
+     *            `false` otherwise.
+     * @return The found record, `null` if not found.
+     */
+    public Record search(int id, boolean searchMode) {
+        long time = System.nanoTime();
+        Record found = lookup(id);
+        metrics.recordSearch(found != null, System.nanoTime() - time);
+        if (found != null) {
+            return found;
+        }
+        if (searchMode) {
+            writer.println("Search FAILED -- There is no record with ID " + id);
+        }
+        return null;
+    }
+
+
+    /**
+     * Looks up a record by ID without printing a message or counting the
+     * lookup as a search in the metrics.
+     *
+     * @param id
+     *            The ID of the record to look up.
+     * @return The record, `null` if not found.
+     */
+    public Record lookup(int id) {
+        int start = index.get(id);
+        return start == BPlusTree.NONE
+            ? null
+            : RecordCodec.decode(memory.get(start), keywords);
+    }
+
+
+    /**
+     * Deletes a record with a given ID.
+     *
+     * @param id
+     *            The ID of the record to be deleted.
+     * @return `true` if the record is found and deleted, `false` otherwise.
+     */
+    public boolean delete(int id) {
+        long time = System.nanoTime();
+        int start = index.remove(id);
+        if (start != BPlusTree.NONE) {
+            memory.remove(start);
+        }
+        metrics.recordDelete(start != BPlusTree.NONE, System.nanoTime()
+            - time);
+        return start != BPlusTree.NONE;
+    }
+
+
+    /**
+     * Prints the IDs of the table in increasing order, each after its
+     * position in that order.
+     *
+     * @return the table as the output
+     */
+    public String printHashTable() {
+        StringBuilder output = new StringBuilder("OrderedTable:\n");
+        int[] position = { 0 };
+        index.forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, (id,
+            start) -> output.append(position[0]++).append(": ").append(id)
+                .append('\n'));
+        output.append("total records: ").append(index.size());
+        writer.print(output);
+        return output.toString();
+    }
+
+
+    /**
+     * Prints the free blocks of the memory pool.
+     */
+    public void printMemoryBlocks() {
+        memory.printFreeBlocks();
+    }
+
+
+    /**
+     * Passes every record of the table to an action, in increasing ID order.
+     *
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachRecord(Consumer<Record> action) {
+        forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, action);
+    }
+
+
+    /**
+     * Passes the records with an ID in a range to an action, in increasing
+     * ID order, walking the leaves of the tree.
+     *
+     * @param low
+     *            The smallest ID, inclusive.
+     * @param high
+     *            The largest ID, inclusive.
+     * @param action
+     *            The action to perform on each record.
+     */
+    public void forEachInRange(int low, int high, Consumer<Record> action) {
+        index.forEachInRange(low, high, (id, start) -> action.accept(
+            RecordCodec.decode(memory.get(start), keywords)));
+    }
+
+
+    /**
+     * Saves the records to a snapshot file. The IDs are written as the slots
+     * of a double hashing table, the format `HashTable` saves.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public void save(String filename) throws IOException {
+        int capacity = 4;
+        while (capacity < 2 * index.size()) {
+            capacity *= 2;
+        }
+        SlotTable slots = new DoubleHashProbe().createTable(capacity);
+        index.forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, (id,
+            start) -> slots.put(slots.findIndex(id), id, start));
+        new Snapshot(slots, memory, keywords).save(filename);
+    }
+
+
+    /**
+     * Replaces the records of the table with the ones in a snapshot file.
+     * The table is left unchanged if the file cannot be loaded.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be read or is not a valid snapshot.
+     */
+    public void load(String filename) throws IOException {
+        Snapshot snapshot = Snapshot.load(filename, new DoubleHashProbe(),
+            writer, memory.isOffHeap());
+        SlotTable slots = snapshot.getTable();
+        BPlusTree loaded = new BPlusTree();
+        for (int i = 0; i < slots.getCapacity(); i++) {
+            if (slots.getHandle(i) >= 0) {
+                loaded.put(slots.getKey(i), slots.getHandle(i));
+            }
+        }
+        index = loaded;
+        memory = snapshot.getMemory();
+        keywords = snapshot.getKeywords();
+    }
+
+
+    /**
+     * Returns the metrics of the table. The tree has no slots, so its
+     * capacity is its number of records and it has no tombstones.
+     *
+     * @return The metrics recorded since the table was created.
+     */
+    public TableMetrics getMetrics() {
+        metrics.setState(index.size(), index.size(), 0);
+        return metrics;
+    }
+
+
+    /**
+     * Returns the PrintWriter the table writes its own messages to
+     *
+     * @return The writer of the table
+     */
+    public PrintWriter getWriter() {
+        return writer;
+    }
+
+
+    /**
+     * Changes the PrintWriter the table and its memory pool write their
+     * messages to.
+     *
+     * @param writer
+     *            The writer to use from now on.
+     */
+    public void setWriter(PrintWriter writer) {
+        this.writer = writer;
+        memory.setWriter(writer);
+    }
+
+
+    /**
+     * Returns the number of records in the table, since the tree has no
+     * fixed number of slots.
+     *
+     * @return Number of records
+     */
+    public int getCapacity() {
+        return index.size();
+    }
+}
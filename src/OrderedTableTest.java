@@ -0,0 +1,126 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the OrderedTable class. It
+ *          checks the record operations, printing and ranges in ID order,
+ *          and snapshots shared with HashTable.
+ */
+public class OrderedTableTest extends TestCase {
+
+    private StringWriter output;
+    private PrintWriter writer;
+    private OrderedTable table;
+
+    /**
+     * Sets up an ordered table holding records inserted out of order.
+     */
+    @Before
+    public void setUp() {
+        output = new StringWriter();
+        writer = new PrintWriter(output, true);
+        table = new OrderedTable(64, writer, false);
+        for (int id : new int[] { 30, 10, 20 }) {
+            assertTrue(table.insert(record(id)));
+        }
+    }
+
+
+    /**
+     * Creates a record with the given ID.
+     */
+    private Record record(int id) {
+        return new Record(id, "T" + id, "0610071600", 1, (short)1, (short)1,
+            1, "D", "VT");
+    }
+
+
+    /**
+     * Returns the IDs of the records in a range, in the order they are
+     * passed on.
+     */
+    private List<Integer> ids(RecordTable from, int low, int high) {
+        List<Integer> ids = new ArrayList<Integer>();
+        from.forEachInRange(low, high, record -> ids.add(record.getId()));
+        return ids;
+    }
+
+
+    /**
+     * Tests insert, search and delete.
+     */
+    @Test
+    public void testRecordOperations() {
+        assertFalse(table.insert(record(10)));
+        assertEquals(record(20), table.search(20, true));
+        assertNull(table.search(15, true));
+        assertTrue(output.toString().contains(
+            "Search FAILED -- There is no record with ID 15"));
+        assertTrue(table.delete(20));
+        assertFalse(table.delete(20));
+        assertEquals(2, table.getCapacity());
+    }
+
+
+    /**
+     * Tests that printing and ranges follow ID order.
+     */
+    @Test
+    public void testOrder() {
+        assertEquals("OrderedTable:\n0: 10\n1: 20\n2: 30\ntotal records: 3",
+            table.printHashTable());
+        assertEquals("[20, 30]", ids(table, 11, 30).toString());
+        assertEquals("[]", ids(table, 31, 40).toString());
+    }
+
+
+    /**
+     * Tests that the hash table returns ranges in the same order.
+     */
+    @Test
+    public void testHashTableRange() {
+        HashTable hash = new HashTable(64, 4, writer);
+        for (int id : new int[] { 30, 10, 20, 5 }) {
+            hash.insert(record(id));
+        }
+        assertEquals("[10, 20, 30]", ids(hash, 10, 100).toString());
+    }
+
+
+    /**
+     * Tests that snapshots move between the ordered and the hash table.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be written or read.
+     */
+    @Test
+    public void testSnapshots() throws IOException {
+        Path file = Files.createTempFile("snapshot", ".bin");
+        try {
+            table.save(file.toString());
+            HashTable hash = new HashTable(64, 4, writer);
+            hash.load(file.toString());
+            assertEquals(record(30), hash.search(30, false));
+            hash.insert(record(5));
+            hash.save(file.toString());
+            table.load(file.toString());
+        }
+        finally {
+            Files.delete(file);
+        }
+        assertEquals("[5, 10, 20, 30]", ids(table, 0, 100).toString());
+        assertEquals(record(5), table.search(5, false));
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The `OutputWriter` class writes text to a channel through one large byte
+ * buffer. Characters are encoded as UTF-8 straight into the buffer, and the
+ * buffer only goes to the channel when it is full, flushed or closed, so the
+ * output is written in a few big blocks no matter how many small writes make
+ * it up.
+ *
+ * The writer is not thread-safe; callers writing from several threads have
+ * to serialize their writes, as `PrintWriter` does.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class OutputWriter extends Writer {
+
+    /** The default size of the output buffer in bytes. */
+    public static final int BUFFER_SIZE = 1 << 20;
+
+    private WritableByteChannel channel;
+    private ByteBuffer buffer;
+    private char highSurrogate;
+
+    /**
+     * Constructs a new `OutputWriter` that replaces the contents of a file.
+     *
+     * @param filename
+     *            The name of the file to write.
+     * @throws IOException
+     *             If the file cannot be opened.
+     */
+    public OutputWriter(String filename) throws IOException {
+        this(FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+            BUFFER_SIZE);
+    }
+
+
+    /**
+     * Constructs a new `OutputWriter` over a channel.
+     *
+     * @param channel
+     *            The channel the bytes are written to.
+     * @param bufferSize
+     *            The size of the output buffer in bytes, at least four.
+     */
+    public OutputWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(Math.max(bufferSize, 4));
+        highSurrogate = 0;
+    }
+
+
+    @Override
+    public void write(char[] chars, int offset, int length)
+        throws IOException {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            write(chars[i]);
+        }
+    }
+
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            write(text.charAt(i));
+        }
+    }
+
+
+    @Override
+    public void write(int c) throws IOException {
+        write((char)c);
+    }
+
+
+    /**
+     * Writes the buffered bytes to the channel.
+     *
+     * @throws IOException
+     *             If the channel cannot be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+
+    /**
+     * Writes the buffered bytes and closes the channel.
+     *
+     * @throws IOException
+     *             If the channel cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        if (highSurrogate != 0) {
+            encode('?'); // A pair that was never completed
+            highSurrogate = 0;
+        }
+        flush();
+        channel.close();
+    }
+
+
+    /**
+     * Encodes one character, holding back the first half of a surrogate pair
+     * until the second half arrives.
+     */
+    private void write(char c) throws IOException {
+        if (c < 0x80 && highSurrogate == 0) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put((byte)c);
+        }
+        else if (Character.isHighSurrogate(c)) {
+            if (highSurrogate != 0) {
+                encode('?');
+            }
+            highSurrogate = c;
+        }
+        else if (Character.isLowSurrogate(c) && highSurrogate != 0) {
+            encode(Character.toCodePoint(highSurrogate, c));
+            highSurrogate = 0;
+        }
+        else {
+            if (highSurrogate != 0) {
+                encode('?');
+                highSurrogate = 0;
+            }
+            encode(Character.isSurrogate(c) ? '?' : c);
+        }
+    }
+
+
+    /**
+     * Encodes one code point as UTF-8.
+     */
+    private void encode(int codePoint) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+        if (codePoint < 0x80) {
+            buffer.put((byte)codePoint);
+        }
+        else if (codePoint < 0x800) {
+            buffer.put((byte)(0xC0 | (codePoint >> 6)));
+            buffer.put((byte)(0x80 | (codePoint & 0x3F)));
+        }
+        else if (codePoint < 0x10000) {
+            buffer.put((byte)(0xE0 | (codePoint >> 12)));
+            buffer.put((byte)(0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte)(0x80 | (codePoint & 0x3F)));
+        }
+        else {
+            buffer.put((byte)(0xF0 | (codePoint >> 18)));
+            buffer.put((byte)(0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte)(0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte)(0x80 | (codePoint & 0x3F)));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import student.TestCase;
+import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the OutputWriter class. It
+ *          checks that text is encoded as UTF-8, including characters split
+ *          across writes and output larger than the buffer.
+ */
+public class OutputWriterTest extends TestCase {
+
+    /**
+     * Writes the pieces through a writer with the given buffer size and
+     * returns the bytes that reached the channel.
+     */
+    private byte[] write(int bufferSize, String... pieces) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputWriter writer = new OutputWriter(Channels.newChannel(bytes),
+            bufferSize);
+        for (String piece : pieces) {
+            writer.write(piece);
+        }
+        writer.close();
+        return bytes.toByteArray();
+    }
+
+
+    /**
+     * Tests that ASCII and multibyte text is written unchanged, with buffers
+     * both larger and smaller than the text.
+     *
+     * @throws IOException
+     *             If the output cannot be written.
+     */
+    @Test
+    public void testEncoding() throws IOException {
+        String text = "ID: 1, Title: Caf\u00e9 \u4e2d\u6587 \ud83d\ude00\n";
+        byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+        for (int bufferSize : new int[] { 1 << 16, 4, 5 }) {
+            byte[] written = write(bufferSize, text);
+            assertEquals(new String(expected, StandardCharsets.UTF_8),
+                new String(written, StandardCharsets.UTF_8));
+            assertEquals(expected.length, written.length);
+        }
+    }
+
+
+    /**
+     * Tests that a surrogate pair split across two writes is joined, and
+     * that unpaired surrogates become question marks.
+     *
+     * @throws IOException
+     *             If the output cannot be written.
+     */
+    @Test
+    public void testSurrogatePairs() throws IOException {
+        byte[] joined = write(16, "a\ud83d", "\ude00b");
+        assertEquals("a\ud83d\ude00b", new String(joined,
+            StandardCharsets.UTF_8));
+        byte[] unpaired = write(16, "\ude00x\ud83d", "y\ud83d");
+        assertEquals("?x?y?", new String(unpaired, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * The `ProbeStrategy` interface describes how a hash table walks its slots
+ * when looking for a record. A strategy gives the home slot of an ID, a step
+ * worked out once per ID, and the slot each probe moves on to, which may
+ * depend on how many slots were probed before. It also tells which
+ * capacities its probe sequence covers in full and creates the slot tables
+ * that use it.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public interface ProbeStrategy {
+
+    /**
+     * Returns the first slot probed for an ID.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The home slot of the ID.
+     */
+    int home(int id, int capacity);
+
+
+    /**
+     * Returns the part of the probe sequence of an ID that stays the same
+     * from one probe to the next, such as the distance between consecutive
+     * probes. It is passed back to `next` on every probe.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The probe step of the ID.
+     */
+    int step(int id, int capacity);
+
+
+    /**
+     * Returns the slot probed after the given one.
+     *
+     * @param index
+     *            The slot probed last.
+     * @param step
+     *            The probe step of the ID, as returned by `step`.
+     * @param probe
+     *            The number of slots probed so far, 1 after the home slot.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The next slot to probe.
+     */
+    int next(int index, int step, int probe, int capacity);
+
+
+    /**
+     * Checks whether the probe sequence of every ID visits every slot of a
+     * table of the given capacity within that many probes.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return `true` if the capacity is covered, `false` otherwise.
+     */
+    boolean covers(int capacity);
+
+
+    /**
+     * Creates an empty slot table that probes with this strategy.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The new slot table.
+     */
+    SlotTable createTable(int capacity);
+
+
+    /**
+     * Returns the function applied to each ID before it is taken modulo the
+     * capacity.
+     *
+     * @return The hash of the IDs.
+     */
+    IdHash getHash();
+}
@@ -0,0 +1,128 @@
+/**
+ * The `QuadraticProbe` class probes the slots 1, 3, 6, 10, ... past the home
+ * slot: the i-th probe moves i slots further than the one before it, so the
+ * distance from the home slot grows with the triangular numbers. Records
+ * whose home slots are close together spread apart after a few probes
+ * instead of forming one long run as under linear probing, while the first
+ * probes still touch neighbouring slots.
+ *
+ * The triangular numbers modulo a power of two visit every slot, so the
+ * strategy only covers power of two capacities and a table using it stays
+ * at powers of two even under the prime capacity policy.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class QuadraticProbe implements ProbeStrategy {
+
+    private final IdHash hash;
+
+    /**
+     * Constructs a new `QuadraticProbe` that uses the IDs as they are.
+     */
+    public QuadraticProbe() {
+        this(IdHash.LEGACY);
+    }
+
+
+    /**
+     * Constructs a new `QuadraticProbe` that hashes the IDs first.
+     *
+     * @param hash
+     *            The function applied to each ID.
+     */
+    public QuadraticProbe(IdHash hash) {
+        this.hash = hash;
+    }
+
+
+    /**
+     * Returns the hash of the ID modulo the capacity.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The home slot of the ID.
+     */
+    @Override
+    public int home(int id, int capacity) {
+        return hash.mix(id) % capacity;
+    }
+
+
+    /**
+     * Returns 1. The distance between probes grows with the number of probes
+     * and not with the ID.
+     *
+     * @param id
+     *            The ID of the record.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The probe step of the ID.
+     */
+    @Override
+    public int step(int id, int capacity) {
+        return 1;
+    }
+
+
+    /**
+     * Returns the slot as many slots after the given one as slots were
+     * probed so far.
+     *
+     * @param index
+     *            The slot probed last.
+     * @param step
+     *            The probe step of the ID.
+     * @param probe
+     *            The number of slots probed so far.
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The next slot to probe.
+     */
+    @Override
+    public int next(int index, int step, int probe, int capacity) {
+        return (index + probe) % capacity;
+    }
+
+
+    /**
+     * Checks whether the capacity is a power of two, the capacities the
+     * triangular numbers cover.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return `true` if the capacity is covered, `false` otherwise.
+     */
+    @Override
+    public boolean covers(int capacity) {
+        return capacity > 0 && Integer.bitCount(capacity) == 1;
+    }
+
+
+    /**
+     * Creates an empty slot table that uses quadratic probing with
+     * tombstones.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @return The new slot table.
+     */
+    @Override
+    public SlotTable createTable(int capacity) {
+        return new SlotTable(capacity, this);
+    }
+
+
+    /**
+     * Returns the function applied to each ID.
+     *
+     * @return The hash of the IDs.
+     */
+    @Override
+    public IdHash getHash() {
+        return hash;
+    }
+}
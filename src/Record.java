@@ -1,7 +1,14 @@
+import java.util.Arrays;
+import java.util.Objects;
+
 /*
  * The `Record` class represents a record with various properties such as ID,
  * title, date, length, cost, coordinates, description, keywords, size, and
  * deletion status.
+ *
+ * The keywords are interned: each keyword is kept once in the shared
+ * `KeywordDictionary` and a record only holds the codes of its keywords. The
+ * comma separated form is rendered when it is asked for.
  * 
  * @author Aayush Bagrecha
  * @author Yash Shrikant
@@ -17,7 +24,7 @@ public class Record {
     private short x;
     private short y;
     private String description;
-    private String keywords;
+    private int[] keywordCodes;
     private int size;
     private boolean deleted;
 
@@ -62,7 +69,55 @@ public class Record {
         this.y = y;
         this.cost = cost;
         this.description = description;
-        this.keywords = keywords;
+        this.keywordCodes = intern(keywords);
+        this.size = calculateSize();
+        this.deleted = false;
+    }
+
+
+    /**
+     * Constructs a new `Record` object whose keywords are already interned.
+     *
+     * @param id
+     *            The unique identifier (ID) of the record.
+     * @param title
+     *            The title of the record.
+     * @param date
+     *            The date associated with the record.
+     * @param length
+     *            The length of the record.
+     * @param x
+     *            The X-coordinate of the record.
+     * @param y
+     *            The Y-coordinate of the record.
+     * @param cost
+     *            The cost associated with the record.
+     * @param description
+     *            The description of the record.
+     * @param keywordCodes
+     *            The codes of the keywords in the shared
+     *            `KeywordDictionary`. The array is kept, not copied.
+     */
+    public Record(
+        int id,
+        String title,
+        String date,
+        int length,
+        short x,
+        short y,
+        int cost,
+        String description,
+        int[] keywordCodes) {
+
+        this.id = id;
+        this.title = title;
+        this.date = date;
+        this.length = length;
+        this.x = x;
+        this.y = y;
+        this.cost = cost;
+        this.description = description;
+        this.keywordCodes = keywordCodes;
         this.size = calculateSize();
         this.deleted = false;
     }
@@ -75,7 +130,14 @@ public class Record {
      * @return The sum of the lengths of the Title, Description, and Keywords.
      */
     public int calculateSize() {
-        return title.length() + description.length() + keywords.length();
+        KeywordDictionary pool = KeywordDictionary.shared();
+        int keywordsLength = 0;
+        for (int i = 0; i < keywordCodes.length; i++) {
+            keywordsLength += pool.wordOf(keywordCodes[i]).length() + (i > 0
+                ? 2
+                : 0);
+        }
+        return title.length() + description.length() + keywordsLength;
     }
 
 
@@ -160,12 +222,41 @@ public class Record {
 
 
     /**
-     * Returns the keywords associated with the record.
+     * Returns the keywords associated with the record, separated by ", ".
      *
      * @return The keywords of the record.
      */
     public String getKeywords() {
-        return keywords;
+        return appendKeywords(new StringBuilder()).toString();
+    }
+
+
+    /**
+     * Appends the keywords associated with the record, separated by ", ".
+     *
+     * @param out
+     *            The builder to append to.
+     * @return The builder.
+     */
+    public StringBuilder appendKeywords(StringBuilder out) {
+        KeywordDictionary pool = KeywordDictionary.shared();
+        for (int i = 0; i < keywordCodes.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(pool.wordOf(keywordCodes[i]));
+        }
+        return out;
+    }
+
+
+    /**
+     * Returns the codes of the keywords in the shared `KeywordDictionary`.
+     *
+     * @return The keyword codes, in order. The array must not be changed.
+     */
+    public int[] getKeywordCodes() {
+        return keywordCodes;
     }
 
 
@@ -188,4 +279,82 @@ public class Record {
     public void setDeleted(boolean deleted) {
         this.deleted = deleted;
     }
+
+
+    /**
+     * Serializes the record into its compact binary form with the keywords
+     * kept as text, see `RecordCodec`. The deletion status is not part of the
+     * serialized form.
+     *
+     * @return The serialized bytes of the record.
+     */
+    public byte[] serialize() {
+        return RecordCodec.encode(this, null);
+    }
+
+
+    /**
+     * Rebuilds a record from the bytes produced by `serialize`.
+     *
+     * @param data
+     *            The serialized bytes of the record.
+     * @return The deserialized record.
+     */
+    public static Record deserialize(byte[] data) {
+        return RecordCodec.decode(data, null);
+    }
+
+
+    /**
+     * Compares this record with another object. Two records are equal when
+     * all of their fields except the deletion status are equal.
+     *
+     * @param obj
+     *            The object to compare with.
+     * @return `true` if the object is an equal record, `false` otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Record)) {
+            return false;
+        }
+        Record other = (Record)obj;
+        return id == other.id && length == other.length && cost == other.cost
+            && x == other.x && y == other.y && title.equals(other.title)
+            && date.equals(other.date) && description.equals(other.description)
+            && Arrays.equals(keywordCodes, other.keywordCodes);
+    }
+
+
+    /**
+     * Returns a hash code consistent with `equals`.
+     *
+     * @return The hash code of the record.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(id, title, date, length, x, y, cost,
+            description) + Arrays.hashCode(keywordCodes);
+    }
+
+
+    /**
+     * Interns the keywords of a comma separated list. An empty list has no
+     * keywords.
+     */
+    private static int[] intern(String keywords) {
+        if (keywords.isEmpty()) {
+            return new int[0];
+        }
+        String[] words = keywords.split(", ", -1);
+        int[] codes = new int[words.length];
+        KeywordDictionary pool = KeywordDictionary.shared();
+        for (int i = 0; i < words.length; i++) {
+            codes[i] = pool.codeOf(words[i]);
+        }
+        return codes;
+    }
 }
@@ -0,0 +1,266 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The `RecordCodec` class converts records to and from the compact binary
+ * form kept in the memory pool, in snapshots and in the write-ahead log.
+ *
+ * - The ID, length and cost are zigzag varints, so small values take one or
+ *   two bytes.
+ * - A date of ten digits is packed into one varint; any other date is kept
+ *   as text.
+ * - X and Y are raw shorts.
+ * - The title and description are a varint length followed by UTF-8 bytes.
+ * - The keywords are written as varint codes from the table's
+ *   `KeywordDictionary`, translated from and to the codes the record holds
+ *   in the shared dictionary. Without a dictionary they are kept as text,
+ *   which makes the bytes self-contained.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class RecordCodec {
+
+    private static final int DATE_DIGITS = 10;
+    private static final byte KEYWORDS_TEXT = 0;
+    private static final byte KEYWORDS_CODED = 1;
+
+    /**
+     * Prevents instantiation, the codec only has static methods.
+     */
+    private RecordCodec() {
+    }
+
+
+    /**
+     * Encodes a record.
+     *
+     * @param record
+     *            The record to encode.
+     * @param dictionary
+     *            The dictionary the keywords are coded against, or `null` to
+     *            keep them as text.
+     * @return The encoded bytes.
+     */
+    public static byte[] encode(Record record, KeywordDictionary dictionary) {
+        byte[] title = record.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = record.getDescription().getBytes(
+            StandardCharsets.UTF_8);
+        String date = record.getDate();
+        long packedDate = packDate(date);
+        byte[] dateText = packedDate == 0
+            ? date.getBytes(StandardCharsets.UTF_8)
+            : new byte[0];
+        int[] codes = null;
+        byte[] keywordText = null;
+        if (dictionary != null) {
+            codes = record.getKeywordCodes();
+        }
+        else {
+            keywordText = record.getKeywords().getBytes(
+                StandardCharsets.UTF_8);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(48 + title.length
+            + description.length + dateText.length + (codes != null
+                ? 5 * codes.length
+                : keywordText.length));
+        putVarLong(out, zigzag(record.getId()));
+        putBytes(out, title);
+        putVarLong(out, packedDate);
+        if (packedDate == 0) {
+            putBytes(out, dateText);
+        }
+        putVarLong(out, zigzag(record.getLength()));
+        out.putShort(record.getX());
+        out.putShort(record.getY());
+        putVarLong(out, zigzag(record.getCost()));
+        putBytes(out, description);
+        if (codes != null) {
+            KeywordDictionary shared = KeywordDictionary.shared();
+            out.put(KEYWORDS_CODED);
+            putVarLong(out, codes.length);
+            for (int code : codes) {
+                putVarLong(out, dictionary == shared
+                    ? code
+                    : dictionary.codeOf(shared.wordOf(code)));
+            }
+        }
+        else {
+            out.put(KEYWORDS_TEXT);
+            putBytes(out, keywordText);
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+
+    /**
+     * Decodes the bytes produced by `encode`.
+     *
+     * @param data
+     *            The encoded bytes.
+     * @param dictionary
+     *            The dictionary the keywords were coded against, or `null`
+     *            if they were kept as text.
+     * @return The decoded record.
+     * @throws IllegalArgumentException
+     *             If the bytes are not a valid record or need a dictionary
+     *             that was not given.
+     */
+    public static Record decode(byte[] data, KeywordDictionary dictionary) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            int id = unzigzag(getVarLong(in));
+            String title = getString(in);
+            long packedDate = getVarLong(in);
+            String date = packedDate == 0
+                ? getString(in)
+                : unpackDate(packedDate);
+            int length = unzigzag(getVarLong(in));
+            short x = in.getShort();
+            short y = in.getShort();
+            int cost = unzigzag(getVarLong(in));
+            String description = getString(in);
+            byte form = in.get();
+            if (form == KEYWORDS_CODED) {
+                if (dictionary == null) {
+                    throw new IllegalArgumentException(
+                        "Coded keywords need a dictionary");
+                }
+                long count = getVarLong(in);
+                if (count > in.remaining()) {
+                    throw new BufferUnderflowException();
+                }
+                KeywordDictionary shared = KeywordDictionary.shared();
+                int[] codes = new int[(int)count];
+                for (int i = 0; i < codes.length; i++) {
+                    int code = (int)getVarLong(in);
+                    codes[i] = dictionary == shared
+                        ? code
+                        : shared.codeOf(dictionary.wordOf(code));
+                }
+                return new Record(id, title, date, length, x, y, cost,
+                    description, codes);
+            }
+            if (form == KEYWORDS_TEXT) {
+                return new Record(id, title, date, length, x, y, cost,
+                    description, getString(in));
+            }
+            throw new IllegalArgumentException("Invalid keyword form: "
+                + form);
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated record", e);
+        }
+    }
+
+
+    /**
+     * Packs a date of exactly ten digits into a positive number. Packed
+     * dates compare in the same order as the dates they were packed from.
+     *
+     * @param date
+     *            The date to pack.
+     * @return The packed date plus one, or 0 if the date is not ten digits.
+     */
+    public static long packDate(String date) {
+        if (date.length() != DATE_DIGITS) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = 0; i < DATE_DIGITS; i++) {
+            char c = date.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            packed = packed * 10 + (c - '0');
+        }
+        return packed + 1;
+    }
+
+
+    /**
+     * Restores a date packed by `packDate`, leading zeros included.
+     */
+    private static String unpackDate(long packed) {
+        char[] digits = new char[DATE_DIGITS];
+        long value = packed - 1;
+        for (int i = DATE_DIGITS - 1; i >= 0; i--) {
+            digits[i] = (char)('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+
+    /**
+     * Writes a length-prefixed byte array.
+     */
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        putVarLong(out, bytes.length);
+        out.put(bytes);
+    }
+
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     */
+    private static String getString(ByteBuffer in) {
+        long length = getVarLong(in);
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String text = new String(in.array(), in.position(), (int)length,
+            StandardCharsets.UTF_8);
+        in.position(in.position() + (int)length);
+        return text;
+    }
+
+
+    /**
+     * Writes a non-negative number seven bits at a time, low bits first.
+     */
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte)value);
+    }
+
+
+    /**
+     * Reads a number written by `putVarLong`.
+     */
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long)(b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+
+    /**
+     * Maps a signed int to an unsigned one so small magnitudes stay small.
+     */
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+
+    /**
+     * Reverses `zigzag`.
+     */
+    private static int unzigzag(long value) {
+        int bits = (int)value;
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+}
@@ -0,0 +1,161 @@
+import student.TestCase;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the RecordCodec and
+ *          KeywordDictionary classes. It round-trips records with and
+ *          without a dictionary, checks the size of the encoded form and
+ *          rejects invalid bytes.
+ */
+public class RecordCodecTest extends TestCase {
+
+    private static final Record SAMPLE = new Record(2,
+        "Computational Biology  at VT ", "0610071600", 60, (short)20,
+        (short)10, 30, "Introduction to bioinformatics",
+        "Bioinformatics, computation_biology, Biology, VT");
+
+    /**
+     * Tests that records survive encoding with and without a dictionary,
+     * including unusual dates, negative numbers, empty fields and non-ASCII
+     * text.
+     */
+    @Test
+    public void testRoundTrip() {
+        KeywordDictionary dictionary = new KeywordDictionary();
+        Record[] records = { SAMPLE, new Record(-5, "", "2111011200", -1,
+            (short)-32768, (short)32767, Integer.MIN_VALUE, "", ""),
+            new Record(Integer.MAX_VALUE, "Caf\u00e9 \ud83d\ude00",
+                "tomorrow", 0, (short)0, (short)0, 0, "d", "VT, , VT"),
+            new Record(7, "T", "123456789", 1, (short)1, (short)1, 1, "D",
+                "A") };
+        for (Record record : records) {
+            assertEquals(record, RecordCodec.decode(RecordCodec.encode(record,
+                dictionary), dictionary));
+            assertEquals(record, Record.deserialize(record.serialize()));
+        }
+    }
+
+
+    /**
+     * Tests that repeated keywords are stored once in the dictionary and
+     * that coded records are smaller than the text form.
+     */
+    @Test
+    public void testDictionaryCoding() {
+        KeywordDictionary dictionary = new KeywordDictionary();
+        byte[] coded = RecordCodec.encode(SAMPLE, dictionary);
+        RecordCodec.encode(new Record(3, "T", "0610071600", 1, (short)1,
+            (short)1, 1, "D", "VT, Biology"), dictionary);
+        assertEquals(4, dictionary.size());
+        assertEquals(3, dictionary.codeOf("VT"));
+        assertEquals("Biology", dictionary.wordOf(2));
+        assertTrue(coded.length < SAMPLE.serialize().length);
+    }
+
+
+    /**
+     * Tests that records share the interned codes of equal keywords and
+     * render them back in the comma separated form.
+     */
+    @Test
+    public void testInternedKeywords() {
+        Record other = new Record(9, "T", "0610071600", 1, (short)1, (short)1,
+            1, "D", "VT, Biology");
+        int[] sample = SAMPLE.getKeywordCodes();
+        int[] codes = other.getKeywordCodes();
+        assertEquals(4, sample.length);
+        assertEquals(sample[3], codes[0]);
+        assertEquals(sample[2], codes[1]);
+        assertEquals("VT", KeywordDictionary.shared().wordOf(codes[0]));
+        assertEquals("VT, Biology", other.getKeywords());
+        assertEquals(0, new Record(1, "T", "D", 1, (short)1, (short)1, 1, "D",
+            "").getKeywordCodes().length);
+    }
+
+
+    /**
+     * Tests that a saved dictionary restores the same codes.
+     */
+    @Test
+    public void testDictionarySaveRestore() {
+        KeywordDictionary dictionary = new KeywordDictionary();
+        byte[] coded = RecordCodec.encode(SAMPLE, dictionary);
+        ByteBuffer saved = ByteBuffer.allocate(dictionary.snapshotSize());
+        dictionary.save(saved);
+        saved.flip();
+        KeywordDictionary restored = new KeywordDictionary();
+        restored.restore(saved);
+        assertEquals(SAMPLE, RecordCodec.decode(coded, restored));
+        assertEquals(4, restored.codeOf("Fresh"));
+    }
+
+
+    /**
+     * Tests that a reader can look up the keyword of every code it finds
+     * while another thread keeps adding keywords.
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted while waiting for the writer.
+     */
+    @Test
+    public void testConcurrentLookup() throws InterruptedException {
+        KeywordDictionary dictionary = new KeywordDictionary();
+        int count = 20000;
+        Thread adder = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                dictionary.codeOf("Word" + i);
+            }
+        });
+        adder.start();
+        int found = 0;
+        while (found < count) {
+            int code = dictionary.find("Word" + found);
+            if (code >= 0) {
+                assertEquals("Word" + found, dictionary.wordOf(code));
+                found++;
+            }
+        }
+        adder.join();
+        assertEquals(count, dictionary.size());
+    }
+
+
+    /**
+     * Tests that truncated bytes, unknown codes and coded keywords without a
+     * dictionary are rejected.
+     */
+    @Test
+    public void testInvalidBytes() {
+        KeywordDictionary dictionary = new KeywordDictionary();
+        byte[] coded = RecordCodec.encode(SAMPLE, dictionary);
+        byte[][] invalid = { new byte[0], "garbage".getBytes(
+            StandardCharsets.UTF_8), Arrays.copyOf(coded, coded.length - 1) };
+        for (byte[] bytes : invalid) {
+            assertInvalid(bytes, dictionary);
+        }
+        assertInvalid(coded, null);
+        assertInvalid(coded, new KeywordDictionary());
+    }
+
+
+    /**
+     * Checks that decoding the bytes fails.
+     */
+    private void assertInvalid(byte[] bytes, KeywordDictionary dictionary) {
+        Exception thrown = null;
+        try {
+            RecordCodec.decode(bytes, dictionary);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+}
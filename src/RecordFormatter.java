@@ -0,0 +1,175 @@
+import java.io.PrintWriter;
+
+/**
+ * The `RecordFormatter` class builds the messages of the insert, search,
+ * delete and secondary index search commands. Each message is assembled
+ * from precomputed text fragments in one reusable `StringBuilder` and
+ * handed to the writer with a single write, instead of one concatenated
+ * string per line.
+ *
+ * A formatter keeps its own buffers and must only be used by one thread at a
+ * time.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class RecordFormatter {
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    private static final String INSERTED = "Successfully inserted record "
+        + "with ID ";
+    private static final String DUPLICATE = "Insert FAILED - There is already "
+        + "a record with ID ";
+    private static final String FOUND = "Found record with ID ";
+    private static final String FOUND_END = ":" + NEWLINE;
+    private static final String DELETED = "Record with ID ";
+    private static final String DELETED_END = " successfully deleted from the "
+        + "database" + NEWLINE;
+    private static final String NOT_DELETED = "Delete FAILED -- There is no "
+        + "record with ID ";
+    private static final String MATCHES = "Found ";
+    private static final String MATCHES_RECORDS = " records ";
+
+    private static final String ID = "ID: ";
+    private static final String TITLE = ", Title: ";
+    private static final String DATE = NEWLINE + "Date: ";
+    private static final String LENGTH = ", Length: ";
+    private static final String X = ", X: ";
+    private static final String Y = ", Y: ";
+    private static final String COST = ", Cost: ";
+    private static final String DESCRIPTION = NEWLINE + "Description: ";
+    private static final String KEYWORDS = NEWLINE + "Keywords: ";
+
+    private PrintWriter writer;
+    private StringBuilder text;
+    private char[] chars;
+
+    /**
+     * Constructs a new `RecordFormatter` object.
+     *
+     * @param writer
+     *            The PrintWriter object used for output.
+     */
+    public RecordFormatter(PrintWriter writer) {
+        this.writer = writer;
+        text = new StringBuilder(512);
+        chars = new char[512];
+    }
+
+
+    /**
+     * Writes the message for a successful insert followed by the record.
+     *
+     * @param record
+     *            The inserted record.
+     */
+    public void inserted(Record record) {
+        text.setLength(0);
+        text.append(INSERTED).append(record.getId()).append(NEWLINE);
+        appendRecord(record);
+        flush();
+    }
+
+
+    /**
+     * Writes the message for an insert of an ID that is already present.
+     *
+     * @param id
+     *            The ID of the rejected record.
+     */
+    public void duplicate(int id) {
+        text.setLength(0);
+        text.append(DUPLICATE).append(id).append(NEWLINE);
+        flush();
+    }
+
+
+    /**
+     * Writes the message for a successful search followed by the record.
+     *
+     * @param record
+     *            The record that was found.
+     */
+    public void found(Record record) {
+        text.setLength(0);
+        text.append(FOUND).append(record.getId()).append(FOUND_END);
+        appendRecord(record);
+        flush();
+    }
+
+
+    /**
+     * Writes the message for a successful delete.
+     *
+     * @param id
+     *            The ID of the deleted record.
+     */
+    public void deleted(int id) {
+        text.setLength(0);
+        text.append(DELETED).append(id).append(DELETED_END);
+        flush();
+    }
+
+
+    /**
+     * Writes the message for a delete of an ID that is not present.
+     *
+     * @param id
+     *            The ID that was not found.
+     */
+    public void notDeleted(int id) {
+        text.setLength(0);
+        text.append(NOT_DELETED).append(id).append(NEWLINE);
+        flush();
+    }
+
+
+    /**
+     * Writes the result of a search by something other than the ID: the
+     * number of matches followed by every matching record.
+     *
+     * @param records
+     *            The matching records.
+     * @param criteria
+     *            What the records were searched for, such as "with keywords
+     *            VT".
+     */
+    public void matches(Record[] records, String criteria) {
+        text.setLength(0);
+        text.append(MATCHES).append(records.length).append(MATCHES_RECORDS)
+            .append(criteria).append(FOUND_END);
+        for (Record record : records) {
+            appendRecord(record);
+        }
+        flush();
+    }
+
+
+    /**
+     * Appends the four lines describing a record.
+     */
+    private void appendRecord(Record record) {
+        text.append(ID).append(record.getId()).append(TITLE).append(record
+            .getTitle());
+        text.append(DATE).append(record.getDate()).append(LENGTH).append(
+            record.getLength()).append(X).append(record.getX()).append(Y)
+            .append(record.getY()).append(COST).append(record.getCost());
+        text.append(DESCRIPTION).append(record.getDescription());
+        record.appendKeywords(text.append(KEYWORDS)).append(NEWLINE);
+    }
+
+
+    /**
+     * Hands the assembled message to the writer.
+     */
+    private void flush() {
+        int length = text.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, 2 * chars.length)];
+        }
+        text.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+}
@@ -0,0 +1,67 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the RecordFormatter class. It
+ *          checks that every message matches the text the commands have
+ *          always printed.
+ */
+public class RecordFormatterTest extends TestCase {
+
+    private static final String NL = System.lineSeparator();
+
+    private StringWriter output;
+    private RecordFormatter formatter;
+    private Record record;
+
+    /**
+     * Sets up a formatter and a sample record before each test method.
+     */
+    @Before
+    public void setUp() {
+        output = new StringWriter();
+        formatter = new RecordFormatter(new PrintWriter(output, true));
+        record = new Record(7, "Title", "0610071600", 60, (short)20,
+            (short)10, 30, "Description", "A, B");
+    }
+
+
+    /**
+     * Tests the messages that include a record.
+     */
+    @Test
+    public void testRecordMessages() {
+        String fields = "ID: 7, Title: Title" + NL
+            + "Date: 0610071600, Length: 60, X: 20, Y: 10, Cost: 30" + NL
+            + "Description: Description" + NL + "Keywords: A, B" + NL;
+        formatter.inserted(record);
+        assertEquals("Successfully inserted record with ID 7" + NL + fields,
+            output.toString());
+        output.getBuffer().setLength(0);
+        formatter.found(record);
+        assertEquals("Found record with ID 7:" + NL + fields, output
+            .toString());
+    }
+
+
+    /**
+     * Tests the single line messages.
+     */
+    @Test
+    public void testShortMessages() {
+        formatter.duplicate(3);
+        formatter.deleted(4);
+        formatter.notDeleted(5);
+        assertEquals("Insert FAILED - There is already a record with ID 3" + NL
+            + "Record with ID 4 successfully deleted from the database" + NL
+            + "Delete FAILED -- There is no record with ID 5" + NL, output
+                .toString());
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The `RecordTable` interface is the contract shared by the tables that store
+ * seminar records by ID. Commands read from the input file are executed
+ * against a `RecordTable`, so the single threaded `HashTable`, the thread
+ * safe `ConcurrentHashTable` and the ID ordered `OrderedTable` can be used
+ * interchangeably.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public interface RecordTable {
+
+    /**
+     * Inserts a record into the table if it doesn't already exist.
+     *
+     * @param record
+     *            The record to be inserted into the table.
+     * @return `true` if the record is inserted successfully, `false` if a
+     *         record with the same ID already exists.
+     */
+    boolean insert(Record record);
+
+
+    /**
+     * Inserts many records with the same outcome and output as inserting
+     * them one by one in order. Tables that can load records faster in bulk
+     * override this; by default every record goes through `insert`.
+     *
+     * @param records
+     *            The records to be inserted, in order.
+     * @param result
+     *            Called with each record, in order, and `true` if it was
+     *            inserted or `false` if its ID was already taken.
+     * @return The number of records inserted.
+     */
+    default int insertAll(
+        Record[] records,
+        BiConsumer<Record, Boolean> result) {
+        int inserted = 0;
+        for (Record record : records) {
+            boolean added = insert(record);
+            if (added) {
+                inserted++;
+            }
+            result.accept(record, added);
+        }
+        return inserted;
+    }
+
+
+    /**
+     * Searches for a record with a given ID in the table.
+     *
+     * @param id
+     *            The ID of the record to search for.
+     * @param searchMode
+     *            `true` to print a message if the search fails,
+     *            `false` otherwise.
+     * @return The found record, `null` if not found.
+     */
+    Record search(int id, boolean searchMode);
+
+
+    /**
+     * Looks up a record by ID without printing a message or counting the
+     * lookup as a search in the metrics. Wrappers use it to read records
+     * they are about to change or found through an index.
+     *
+     * @param id
+     *            The ID of the record to look up.
+     * @return The record, `null` if not found.
+     */
+    Record lookup(int id);
+
+
+    /**
+     * Deletes a record with a given ID.
+     *
+     * @param id
+     *            The ID of the record to be deleted.
+     * @return `true` if the record is found and deleted, `false` otherwise.
+     */
+    boolean delete(int id);
+
+
+    /**
+     * Prints the contents of the table.
+     *
+     * @return the table as the output
+     */
+    String printHashTable();
+
+
+    /**
+     * Prints the free blocks of the memory pool.
+     */
+    void printMemoryBlocks();
+
+
+    /**
+     * Passes every record of the table to an action, in no particular order.
+     *
+     * @param action
+     *            The action to perform on each record.
+     */
+    void forEachRecord(Consumer<Record> action);
+
+
+    /**
+     * Passes the records with an ID in a range to an action, in increasing
+     * ID order.
+     *
+     * @param low
+     *            The smallest ID, inclusive.
+     * @param high
+     *            The largest ID, inclusive.
+     * @param action
+     *            The action to perform on each record.
+     */
+    void forEachInRange(int low, int high, Consumer<Record> action);
+
+
+    /**
+     * Saves the records of the table to a snapshot file.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    void save(String filename) throws IOException;
+
+
+    /**
+     * Replaces the records of the table with the ones in a snapshot file.
+     * The table is left unchanged if the file cannot be loaded.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be read or is not a valid snapshot.
+     */
+    void load(String filename) throws IOException;
+
+
+    /**
+     * Returns the metrics recorded by the table, with its current number of
+     * records, capacity and tombstones.
+     *
+     * @return The metrics of the table.
+     */
+    TableMetrics getMetrics();
+
+
+    /**
+     * Returns the PrintWriter the table writes its own messages to, such as
+     * the expansion messages and failed searches.
+     *
+     * @return The writer of the table.
+     */
+    PrintWriter getWriter();
+
+
+    /**
+     * Changes the PrintWriter the table writes its own messages to.
+     *
+     * @param writer
+     *            The writer to use from now on.
+     */
+    void setWriter(PrintWriter writer);
+
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return Capacity of the table
+     */
+    int getCapacity();
+}
@@ -0,0 +1,126 @@
+/**
+ * The `RobinHoodTable` class is a slot table that uses Robin Hood hashing
+ * over a linear probe sequence. Records are kept ordered by their distance
+ * from their home slot: an insert displaces any record that is closer to its
+ * home than the new record, and a delete shifts the following records one
+ * slot back until it reaches an empty slot or a record in its home slot.
+ * The table never holds tombstones, and a search can stop as soon as it
+ * passes a record closer to its home than the ID being searched for.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class RobinHoodTable extends SlotTable {
+
+    /**
+     * Constructs a new `RobinHoodTable` with every slot empty.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @param strategy
+     *            The strategy giving the home slot of each ID.
+     */
+    public RobinHoodTable(int capacity, ProbeStrategy strategy) {
+        super(capacity, strategy);
+    }
+
+
+    /**
+     * Finds the index of a record with the given ID.
+     *
+     * @param id
+     *            The ID of the record to search for.
+     * @return The index of the record if it is present, otherwise the slot an
+     *         insert of the ID would take: the first empty slot or the first
+     *         record closer to its home slot than the ID would be. -1 if the
+     *         table is full.
+     */
+    @Override
+    public int findIndex(int id) {
+        int length = keys.length;
+        int index = strategy.home(id, length);
+
+        for (int distance = 0; distance < length; distance++) {
+            lastProbes = distance + 1;
+            if (handles[index] == EMPTY || keys[index] == id
+                || distance(index) < distance) {
+                return index;
+            }
+            index = (index + 1) % length;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Stores a record in the slot returned by `findIndex`, moving the records
+     * from that slot onwards one step along until an empty slot is reached.
+     *
+     * @param index
+     *            The slot to fill.
+     * @param id
+     *            The ID of the record.
+     * @param handle
+     *            The position of the record in the memory pool.
+     */
+    @Override
+    public void put(int index, int id, int handle) {
+        int length = keys.length;
+        int key = id;
+        int value = handle;
+        int slot = index;
+        while (handles[slot] != EMPTY) {
+            int displacedKey = keys[slot];
+            int displacedValue = handles[slot];
+            keys[slot] = key;
+            handles[slot] = value;
+            key = displacedKey;
+            value = displacedValue;
+            slot = (slot + 1) % length;
+        }
+        keys[slot] = key;
+        handles[slot] = value;
+        size++;
+    }
+
+
+    /**
+     * Removes the record at the given index and shifts the records after it
+     * one slot back, leaving no tombstone.
+     *
+     * @param index
+     *            The slot to clear.
+     * @return The position in the memory pool of the removed record.
+     */
+    @Override
+    public int remove(int index) {
+        int length = keys.length;
+        int handle = handles[index];
+        int slot = index;
+        int next = (slot + 1) % length;
+        while (handles[next] != EMPTY && distance(next) > 0) {
+            keys[slot] = keys[next];
+            handles[slot] = handles[next];
+            slot = next;
+            next = (slot + 1) % length;
+        }
+        keys[slot] = EMPTY_KEY;
+        handles[slot] = EMPTY;
+        size--;
+        return handle;
+    }
+
+
+    /**
+     * Returns how many slots the record at an index sits past its home slot.
+     *
+     * @param index
+     *            A slot holding a record.
+     * @return The probe distance of the record.
+     */
+    private int distance(int index) {
+        int length = keys.length;
+        return (index - strategy.home(keys[index], length) + length) % length;
+    }
+}
@@ -1,7 +1,10 @@
-import java.io.File;
-import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Scanner;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * The class containing the main method.
@@ -34,11 +37,16 @@ public class SemManager {
     /**
      * The main function takes command line arguments for memory pool size,
      * initial capacity, and filename, and then calls the beginParsing function
-     * with those arguments.
+     * with those arguments. Optional arguments after the filename select
+     * further modes, see `SemOptions`; `batch` runs the commands in parallel
+     * with beginBatch.
      *
      * @param args
      *            Command line arguments: memory pool size, initial capacity,
-     *            and filename.
+     *            filename, and optionally `offheap`, `batch`, `mmap`,
+     *            `async`, `ordered`, `prime`, `load=<file>`,
+     *            `save=<file>`, `wal=<file>`, `stats=<file>` and
+     *            `hash=<name>`.
      */
     public static void main(String[] args) {
 
@@ -50,8 +58,14 @@ public class SemManager {
         int memoryPoolSize = Integer.parseInt(args[0]);
         int initialCapacity = Integer.parseInt(args[1]);
         String filename = args[2];
+        SemOptions options = SemOptions.parse(args, 3);
 
-        beginParsing(filename, memoryPoolSize, initialCapacity);
+        if (options.isBatch()) {
+            beginBatch(filename, memoryPoolSize, initialCapacity, options);
+        }
+        else {
+            beginParsing(filename, memoryPoolSize, initialCapacity, options);
+        }
     }
 
 
@@ -72,110 +86,211 @@ public class SemManager {
         String filename,
         int memoryPoolSize,
         int initialCapacity) {
+        beginParsing(filename, memoryPoolSize, initialCapacity,
+            new SemOptions());
+    }
+
+
+    /**
+     * The beginParsing function reads commands from a file, performs
+     * operations on a hash table based on the commands, and writes
+     * the results to an output file.
+     * 
+     * @param filename
+     *            The name of the file that contains the commands to be parsed.
+     * @param memoryPoolSize
+     *            The size of the memory pool that will be used by the HashTable
+     *            object.
+     * @param initialCapacity
+     *            The initial size of the hash table.
+     * @param options
+     *            The optional modes selected on the command line.
+     */
+    public static void beginParsing(
+        String filename,
+        int memoryPoolSize,
+        int initialCapacity,
+        SemOptions options) {
         try {
-            String outputFile = "output.txt";
-            PrintWriter writer = new PrintWriter(new FileWriter(outputFile));
-            HashTable ht = new HashTable(memoryPoolSize, initialCapacity,
-                writer);
-            Scanner lines = new Scanner(new File(filename));
-
-            while (lines.hasNext()) {
-                String cmd = lines.nextLine().replaceAll("\\s+", " ").trim();
-                String verb = cmd.split("\\s")[0];
-
-                switch (verb) {
-                    case "insert":
-                        int id = Integer.parseInt(cmd.split(" ")[1]);
-                        String title = lines.nextLine();
-                        String dateField = lines.nextLine().replaceAll("\\s+",
-                            " ").trim();
-                        String date = dateField.split(" ")[0];
-                        int length = Integer.parseInt(dateField.split(" ")[1]);
-                        short x = Short.parseShort(dateField.split(" ")[2]);
-                        short y = Short.parseShort(dateField.split(" ")[3]);
-                        int cost = Integer.parseInt(dateField.split(" ")[4]);
-                        String keywords = lines.nextLine().replaceAll("\\s+",
-                            " ").trim().replaceAll(" ", ", ");
-                        String description = lines.nextLine().replaceAll("\\s+",
-                            " ").trim();
-                        Record record = new Record(id, title, date, length, x,
-                            y, cost, description, keywords);
-                        boolean inserted = ht.insert(record);
-
-                        if (inserted) {
-                            writer.println(
-                                "Successfully inserted record with ID " + id);
-                            writer.println("ID: " + id + ", Title: " + title);
-                            writer.println("Date: " + date + ", Length: "
-                                + length + ", X: " + x + ", Y: " + y
-                                + ", Cost: " + cost);
-                            writer.println("Description: " + description);
-                            writer.println("Keywords: " + keywords);
-                        }
-                        else {
-                            writer.println(
-                                "Insert FAILED - There is already a record "
-                                    + "with ID " + id);
-                        }
-                        break;
-
-                    case "search":
-                        id = Integer.parseInt(cmd.split(" ")[1]);
-                        Record searchedRecord = ht.search(id, true);
-
-                        if (searchedRecord != null) {
-                            writer.println("Found record with ID "
-                                + searchedRecord.getId() + ":");
-                            writer.println("ID: " + searchedRecord.getId()
-                                + ", Title: " + searchedRecord.getTitle());
-                            writer.println("Date: " + searchedRecord.getDate()
-                                + ", Length: " + searchedRecord.getLength()
-                                + ", X: " + searchedRecord.getX() + ", Y: "
-                                + searchedRecord.getY() + ", Cost: "
-                                + searchedRecord.getCost());
-                            writer.println("Description: " + searchedRecord
-                                .getDescription());
-                            writer.println("Keywords: " + searchedRecord
-                                .getKeywords());
-                        }
-                        break;
-
-                    case "delete":
-                        id = Integer.parseInt(cmd.split(" ")[1]);
-                        boolean deletedStatus = ht.delete(id);
-
-                        if (deletedStatus) {
-                            writer.println("Record with ID " + id
-                                + " successfully deleted from the database");
-                        }
-                        else {
-                            writer.println(
-                                "Delete FAILED -- There is no record with ID "
-                                    + id);
-                        }
-                        break;
-
-                    case "print":
-                        String printCondition = cmd.split(" ")[1].replaceAll(
-                            "\\s+", " ").trim();
-
-                        if (printCondition.equals("blocks")) {
-                            ht.printMemoryBlocks();
-                        }
-                        else {
-                            ht.printHashTable();
-                        }
-                        break;
-
-                    default:
-                        break;
+            PrintWriter writer = openOutput("output.txt", options);
+            LoggedTable logged = null;
+            CommandReader lines = null;
+            try {
+                RecordTable ht;
+                if (options.isOrdered()) {
+                    ht = new OrderedTable(memoryPoolSize, writer, options
+                        .isOffHeap());
+                }
+                else {
+                    HashTable hash = new HashTable(memoryPoolSize,
+                        initialCapacity, writer, options.isOffHeap());
+                    hash.setProbeStrategy(new DoubleHashProbe(options
+                        .getHash()));
+                    hash.setPrimeCapacity(options.isPrimeCapacity());
+                    ht = hash;
+                }
+                if (options.getLogFile() != null) {
+                    logged = new LoggedTable(ht, new WriteAheadLog(options
+                        .getLogFile()), options.getLogFile()
+                            + ".checkpoint");
+                    logged.recover();
+                    ht = logged;
+                }
+                CommandExecutor executor = new CommandExecutor(ht, writer);
+                lines = openReader(filename, options);
+
+                if (options.getLoadSnapshot() != null) {
+                    executor.execute(new Command("load", 0, null, options
+                        .getLoadSnapshot()));
+                }
+                Command command = lines.next();
+                while (command != null) {
+                    executor.execute(command);
+                    command = lines.next();
+                }
+                if (options.getSaveSnapshot() != null) {
+                    executor.execute(new Command("save", 0, null, options
+                        .getSaveSnapshot()));
+                }
+                writeStats(executor.getMetrics(), options);
+            }
+            finally {
+                // Output of the commands run before a failure is kept
+                writer.close();
+                if (logged != null) {
+                    logged.close();
+                }
+                if (lines != null) {
+                    lines.close();
                 }
             }
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-            writer.close();
+
+    /**
+     * The beginBatch function reads every command from a file up front,
+     * performs them in parallel against a concurrent hash table, and writes
+     * the results to an output file in the original command order.
+     *
+     * @param filename
+     *            The name of the file that contains the commands to be parsed.
+     * @param memoryPoolSize
+     *            The size of the memory pool that will be used by the table.
+     * @param initialCapacity
+     *            The initial size of the hash table.
+     * @param options
+     *            The optional modes selected on the command line.
+     */
+    public static void beginBatch(
+        String filename,
+        int memoryPoolSize,
+        int initialCapacity,
+        SemOptions options) {
+        if (options.getLogFile() != null) {
+            System.err.println("The wal option is ignored in batch mode");
+        }
+        if (options.isOrdered()) {
+            System.err.println("The ordered option is ignored in batch mode");
+        }
+        if (options.getHash() != IdHash.LEGACY) {
+            System.err.println("The hash option is ignored in batch mode");
+        }
+        if (options.isPrimeCapacity()) {
+            System.err.println("The prime option is ignored in batch mode");
+        }
+        try {
+            PrintWriter writer = openOutput("output.txt", options);
+            CommandReader lines = null;
+            BatchExecutor batch = null;
+            try {
+                lines = openReader(filename, options);
+                batch = new BatchExecutor(memoryPoolSize, initialCapacity,
+                    options.isOffHeap(), writer, Runtime.getRuntime()
+                        .availableProcessors());
+                List<Command> commands = BatchExecutor.readAll(lines);
+                if (options.getLoadSnapshot() != null) {
+                    commands.add(0, new Command("load", 0, null, options
+                        .getLoadSnapshot()));
+                }
+                if (options.getSaveSnapshot() != null) {
+                    commands.add(new Command("save", 0, null, options
+                        .getSaveSnapshot()));
+                }
+                batch.run(commands);
+                writeStats(batch.getMetrics(), options);
+            }
+            finally {
+                if (batch != null) {
+                    batch.close();
+                }
+                writer.close();
+                if (lines != null) {
+                    lines.close();
+                }
+            }
         }
         catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+
+    /**
+     * Writes the metrics of the table as JSON if a metrics file was given.
+     */
+    private static void writeStats(TableMetrics metrics, SemOptions options)
+        throws IOException {
+        if (options.getStatsFile() != null) {
+            Files.write(Paths.get(options.getStatsFile()), metrics.toJson()
+                .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+
+    /**
+     * Opens the command file, memory-mapped if the options ask for it.
+     *
+     * @param filename
+     *            The name of the file that contains the commands.
+     * @param options
+     *            The optional modes selected on the command line.
+     * @return The reader for the file.
+     * @throws IOException
+     *             If the file cannot be opened.
+     */
+    private static CommandReader openReader(
+        String filename,
+        SemOptions options)
+        throws IOException {
+        if (options.isMemoryMapped()) {
+            return CommandReader.mapped(filename);
+        }
+        return new CommandReader(filename);
+    }
+
+
+    /**
+     * Opens the output file, written on a separate thread if the options ask
+     * for it.
+     *
+     * @param filename
+     *            The name of the output file.
+     * @param options
+     *            The optional modes selected on the command line.
+     * @return The writer for the file.
+     * @throws IOException
+     *             If the file cannot be opened.
+     */
+    private static PrintWriter openOutput(String filename, SemOptions options)
+        throws IOException {
+        Writer out = new OutputWriter(filename);
+        if (options.isAsyncOutput()) {
+            out = new AsyncWriter(out);
+        }
+        return new PrintWriter(out);
+    }
 }
@@ -0,0 +1,356 @@
+import java.util.Locale;
+
+/**
+ * The `SemOptions` class holds the optional command line arguments that may
+ * follow the memory pool size, initial capacity and filename:
+ *
+ * - `offheap` places the memory pool outside the Java heap.
+ * - `batch` runs the commands in parallel.
+ * - `mmap` memory-maps the command file instead of reading it.
+ * - `async` writes the output on a separate thread.
+ * - `ordered` keeps the records in an `OrderedTable` instead of a
+ *   `HashTable`, so they are printed in ID order; sequential runs only.
+ * - `load=<file>` loads a snapshot before the first command.
+ * - `save=<file>` saves a snapshot after the last command.
+ * - `wal=<file>` logs every insert and delete to a write-ahead log and
+ *   recovers the table from it on startup; sequential runs only.
+ * - `stats=<file>` writes the table metrics as JSON after the last command.
+ * - `hash=<name>` mixes the IDs with the `IdHash` of that name, `legacy`,
+ *   `murmur` or `fibonacci`, before they are hashed; sequential runs only.
+ *   The default, `legacy`, keeps the output of the original scheme.
+ * - `prime` gives the hash table prime capacities instead of powers of two;
+ *   sequential runs only.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class SemOptions {
+
+    private boolean offHeap;
+    private boolean batch;
+    private boolean memoryMapped;
+    private boolean asyncOutput;
+    private boolean ordered;
+    private String loadSnapshot;
+    private String saveSnapshot;
+    private String logFile;
+    private String statsFile;
+    private IdHash hash;
+    private boolean primeCapacity;
+
+    /**
+     * Constructs a new `SemOptions` object with every option turned off.
+     */
+    public SemOptions() {
+        offHeap = false;
+        batch = false;
+        memoryMapped = false;
+        asyncOutput = false;
+        ordered = false;
+        loadSnapshot = null;
+        saveSnapshot = null;
+        logFile = null;
+        statsFile = null;
+        hash = IdHash.LEGACY;
+        primeCapacity = false;
+    }
+
+
+    /**
+     * Reads the options from the command line arguments. Unknown options are
+     * reported and ignored.
+     *
+     * @param args
+     *            The command line arguments.
+     * @param from
+     *            The index of the first optional argument.
+     * @return The options.
+     */
+    public static SemOptions parse(String[] args, int from) {
+        SemOptions options = new SemOptions();
+        for (int i = from; i < args.length; i++) {
+            if (args[i].startsWith("load=")) {
+                options.loadSnapshot = args[i].substring(5);
+                continue;
+            }
+            if (args[i].startsWith("save=")) {
+                options.saveSnapshot = args[i].substring(5);
+                continue;
+            }
+            if (args[i].startsWith("wal=")) {
+                options.logFile = args[i].substring(4);
+                continue;
+            }
+            if (args[i].startsWith("stats=")) {
+                options.statsFile = args[i].substring(6);
+                continue;
+            }
+            if (args[i].startsWith("hash=")) {
+                try {
+                    options.hash = IdHash.valueOf(args[i].substring(5)
+                        .toUpperCase(Locale.ROOT));
+                }
+                catch (IllegalArgumentException e) {
+                    System.err.println("Unknown option: " + args[i]);
+                }
+                continue;
+            }
+            switch (args[i]) {
+                case "offheap":
+                    options.offHeap = true;
+                    break;
+                case "batch":
+                    options.batch = true;
+                    break;
+                case "mmap":
+                    options.memoryMapped = true;
+                    break;
+                case "async":
+                    options.asyncOutput = true;
+                    break;
+                case "ordered":
+                    options.ordered = true;
+                    break;
+                case "prime":
+                    options.primeCapacity = true;
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    break;
+            }
+        }
+        return options;
+    }
+
+
+    /**
+     * Returns whether the memory pool is kept outside the Java heap.
+     *
+     * @return `true` for an off-heap memory pool.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+
+    /**
+     * Sets whether the memory pool is kept outside the Java heap.
+     *
+     * @param offHeap
+     *            `true` for an off-heap memory pool.
+     */
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+
+    /**
+     * Returns whether the commands are run in parallel.
+     *
+     * @return `true` for batch mode.
+     */
+    public boolean isBatch() {
+        return batch;
+    }
+
+
+    /**
+     * Sets whether the commands are run in parallel.
+     *
+     * @param batch
+     *            `true` for batch mode.
+     */
+    public void setBatch(boolean batch) {
+        this.batch = batch;
+    }
+
+
+    /**
+     * Returns whether the command file is memory-mapped.
+     *
+     * @return `true` to memory-map the command file.
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+
+    /**
+     * Sets whether the command file is memory-mapped.
+     *
+     * @param memoryMapped
+     *            `true` to memory-map the command file.
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+
+    /**
+     * Returns whether the output is written on a separate thread.
+     *
+     * @return `true` for asynchronous output.
+     */
+    public boolean isAsyncOutput() {
+        return asyncOutput;
+    }
+
+
+    /**
+     * Sets whether the output is written on a separate thread.
+     *
+     * @param asyncOutput
+     *            `true` for asynchronous output.
+     */
+    public void setAsyncOutput(boolean asyncOutput) {
+        this.asyncOutput = asyncOutput;
+    }
+
+
+    /**
+     * Returns whether the records are kept in ID order.
+     *
+     * @return `true` for an ordered table.
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+
+    /**
+     * Sets whether the records are kept in ID order.
+     *
+     * @param ordered
+     *            `true` for an ordered table.
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+
+    /**
+     * Returns the snapshot loaded before the first command.
+     *
+     * @return The snapshot file, or `null` to start with an empty table.
+     */
+    public String getLoadSnapshot() {
+        return loadSnapshot;
+    }
+
+
+    /**
+     * Sets the snapshot loaded before the first command.
+     *
+     * @param loadSnapshot
+     *            The snapshot file, or `null` to start with an empty table.
+     */
+    public void setLoadSnapshot(String loadSnapshot) {
+        this.loadSnapshot = loadSnapshot;
+    }
+
+
+    /**
+     * Returns the snapshot saved after the last command.
+     *
+     * @return The snapshot file, or `null` to save nothing.
+     */
+    public String getSaveSnapshot() {
+        return saveSnapshot;
+    }
+
+
+    /**
+     * Sets the snapshot saved after the last command.
+     *
+     * @param saveSnapshot
+     *            The snapshot file, or `null` to save nothing.
+     */
+    public void setSaveSnapshot(String saveSnapshot) {
+        this.saveSnapshot = saveSnapshot;
+    }
+
+
+    /**
+     * Returns the write-ahead log the inserts and deletes are logged to.
+     *
+     * @return The log file, or `null` to keep no log.
+     */
+    public String getLogFile() {
+        return logFile;
+    }
+
+
+    /**
+     * Sets the write-ahead log the inserts and deletes are logged to.
+     *
+     * @param logFile
+     *            The log file, or `null` to keep no log.
+     */
+    public void setLogFile(String logFile) {
+        this.logFile = logFile;
+    }
+
+
+    /**
+     * Returns the file the table metrics are written to.
+     *
+     * @return The metrics file, or `null` to write no metrics.
+     */
+    public String getStatsFile() {
+        return statsFile;
+    }
+
+
+    /**
+     * Sets the file the table metrics are written to.
+     *
+     * @param statsFile
+     *            The metrics file, or `null` to write no metrics.
+     */
+    public void setStatsFile(String statsFile) {
+        this.statsFile = statsFile;
+    }
+
+
+    /**
+     * Returns the function the IDs are mixed with before they are hashed.
+     *
+     * @return The ID hash, `IdHash.LEGACY` by default.
+     */
+    public IdHash getHash() {
+        return hash;
+    }
+
+
+    /**
+     * Sets the function the IDs are mixed with before they are hashed.
+     *
+     * @param hash
+     *            The ID hash.
+     */
+    public void setHash(IdHash hash) {
+        this.hash = hash;
+    }
+
+
+    /**
+     * Returns whether the hash table is given prime capacities.
+     *
+     * @return `true` for prime capacities, `false` for powers of two.
+     */
+    public boolean isPrimeCapacity() {
+        return primeCapacity;
+    }
+
+
+    /**
+     * Sets whether the hash table is given prime capacities.
+     *
+     * @param primeCapacity
+     *            `true` for prime capacities, `false` for powers of two.
+     */
+    public void setPrimeCapacity(boolean primeCapacity) {
+        this.primeCapacity = primeCapacity;
+    }
+}
@@ -0,0 +1,344 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The `SlotTable` class holds the slots of an open addressing hash table as
+ * two parallel int arrays: `keys` holds the ID stored in each slot and
+ * `handles` holds the position of the record in the memory pool, or `EMPTY` /
+ * `TOMBSTONE` for slots without a live record. Probing only reads the dense
+ * `keys` array and looks at `handles` when a slot might be empty or a
+ * tombstone.
+ *
+ * Deleted slots become tombstones. Probes skip past them and an insert takes
+ * the first tombstone on its probe path. The order in which slots are probed
+ * comes from a `ProbeStrategy`.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class SlotTable {
+
+    /** Handle of a slot that has never held a record. */
+    protected static final int EMPTY = -1;
+    /** Handle of a slot whose record was deleted. */
+    protected static final int TOMBSTONE = -2;
+    /** Key of a slot that has never held a record. */
+    protected static final int EMPTY_KEY = Integer.MIN_VALUE;
+    /** Key of a slot whose record was deleted. */
+    protected static final int TOMBSTONE_KEY = Integer.MIN_VALUE + 1;
+
+    /** The ID stored in each slot. */
+    protected int[] keys;
+    /** The memory pool position stored in each slot. */
+    protected int[] handles;
+    /** The number of live records. */
+    protected int size;
+    /** The number of tombstones. */
+    protected int tombstones;
+    /** The probe sequence used by the table. */
+    protected ProbeStrategy strategy;
+    /** The number of slots the last call of `findIndex` examined. */
+    protected int lastProbes;
+
+    /**
+     * Constructs a new `SlotTable` with every slot empty.
+     *
+     * @param capacity
+     *            The number of slots in the table.
+     * @param strategy
+     *            The probe sequence used by the table.
+     */
+    public SlotTable(int capacity, ProbeStrategy strategy) {
+        keys = new int[capacity];
+        handles = new int[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        Arrays.fill(handles, EMPTY);
+        size = 0;
+        tombstones = 0;
+        this.strategy = strategy;
+    }
+
+
+    /**
+     * Finds the index of a record with the given ID. The probe skips
+     * tombstones and stops at the first empty slot.
+     *
+     * @param id
+     *            The ID of the record to search for.
+     * @return The index of the record if it is present, otherwise the slot an
+     *         insert of the ID would take: the first tombstone on the probe
+     *         path, or the empty slot that ended it. -1 if the record is not
+     *         present and every slot on the probe path holds another record.
+     */
+    public int findIndex(int id) {
+        int length = keys.length;
+        int index = strategy.home(id, length);
+        int step = strategy.step(id, length);
+        int firstTombstone = -1;
+
+        int probes = 0;
+        while (probes < length) {
+            int key = keys[index];
+            probes++;
+            if (key == id && handles[index] >= 0) {
+                lastProbes = probes;
+                return index;
+            }
+            if (key == EMPTY_KEY && handles[index] == EMPTY) {
+                break;
+            }
+            if (key == TOMBSTONE_KEY && firstTombstone == -1
+                && handles[index] == TOMBSTONE) {
+                firstTombstone = index;
+            }
+            index = strategy.next(index, step, probes, length);
+        }
+
+        lastProbes = probes;
+        if (firstTombstone != -1) {
+            return firstTombstone;
+        }
+        return probes < length ? index : -1; // The probe path is full
+    }
+
+
+    /**
+     * Checks whether the slot at the given index holds a non-deleted record
+     * with the given ID.
+     *
+     * @param index
+     *            The slot to check, or -1 for no slot.
+     * @param id
+     *            The ID of the record.
+     * @return `true` if the slot holds the live record, `false` otherwise.
+     */
+    public boolean isLive(int index, int id) {
+        return index >= 0 && keys[index] == id && handles[index] >= 0;
+    }
+
+
+    /**
+     * Stores a record in the slot returned by `findIndex` for its ID.
+     *
+     * @param index
+     *            The slot to fill.
+     * @param id
+     *            The ID of the record.
+     * @param handle
+     *            The position of the record in the memory pool.
+     */
+    public void put(int index, int id, int handle) {
+        if (handles[index] == TOMBSTONE) {
+            tombstones--; // Reusing a tombstone on the probe path
+        }
+        keys[index] = id;
+        handles[index] = handle;
+        size++;
+    }
+
+
+    /**
+     * Turns the live slot at the given index into a tombstone.
+     *
+     * @param index
+     *            The slot to clear.
+     * @return The position in the memory pool of the removed record.
+     */
+    public int remove(int index) {
+        int handle = handles[index];
+        keys[index] = TOMBSTONE_KEY; // Mark the slot as deleted with a
+        handles[index] = TOMBSTONE; // tombstone
+        size--;
+        tombstones++;
+        return handle;
+    }
+
+
+    /**
+     * Moves the live slots in a range of this table into another table. The
+     * moved slots are removed here, so lookups that consult both tables never
+     * find a record twice. A slot is checked again after its record is
+     * removed in case the removal shifted another record into it.
+     *
+     * @param target
+     *            The table receiving the records.
+     * @param from
+     *            The first slot to move.
+     * @param count
+     *            The number of slots to move.
+     * @return The slot after the last one moved.
+     * @throws IllegalStateException
+     *             If the probe path of a record in the target table is full.
+     */
+    public int moveTo(SlotTable target, int from, int count) {
+        int end = Math.min(keys.length, from + count);
+        int i = from;
+        while (i < end) {
+            if (handles[i] >= 0) {
+                int index = target.findIndex(keys[i]);
+                if (index == -1) {
+                    throw new IllegalStateException(
+                        "No free slot on the probe path of ID " + keys[i]);
+                }
+                target.put(index, keys[i], handles[i]);
+                remove(i);
+            }
+            else {
+                i++;
+            }
+        }
+        return end;
+    }
+
+
+    /**
+     * Returns the number of bytes `save` writes for this table.
+     *
+     * @return The size of the saved table in bytes.
+     */
+    public int snapshotSize() {
+        return 12 + 8 * keys.length;
+    }
+
+
+    /**
+     * Writes the table to a buffer: the capacity, the number of live records
+     * and of tombstones, then the keys and the handles of every slot.
+     *
+     * @param out
+     *            The buffer to write to.
+     */
+    public void save(ByteBuffer out) {
+        out.putInt(keys.length);
+        out.putInt(size);
+        out.putInt(tombstones);
+        out.asIntBuffer().put(keys);
+        out.position(out.position() + 4 * keys.length);
+        out.asIntBuffer().put(handles);
+        out.position(out.position() + 4 * handles.length);
+    }
+
+
+    /**
+     * Replaces the slots of this table with the ones written by `save`. The
+     * saved capacity must match the capacity of this table.
+     *
+     * @param in
+     *            The buffer to read from.
+     * @throws IllegalArgumentException
+     *             If the saved capacity does not match.
+     */
+    public void restore(ByteBuffer in) {
+        int capacity = in.getInt();
+        if (capacity != keys.length) {
+            throw new IllegalArgumentException("Saved capacity " + capacity
+                + " does not match table capacity " + keys.length);
+        }
+        size = in.getInt();
+        tombstones = in.getInt();
+        in.asIntBuffer().get(keys);
+        in.position(in.position() + 4 * keys.length);
+        in.asIntBuffer().get(handles);
+        in.position(in.position() + 4 * handles.length);
+    }
+
+
+    /**
+     * Returns the ID stored in a slot.
+     *
+     * @param index
+     *            The slot to read.
+     * @return The ID of the record in the slot.
+     */
+    public int getKey(int index) {
+        return keys[index];
+    }
+
+
+    /**
+     * Returns the memory pool position stored in a slot.
+     *
+     * @param index
+     *            The slot to read.
+     * @return The position of the record, or a negative value if the slot
+     *         holds no live record.
+     */
+    public int getHandle(int index) {
+        return handles[index];
+    }
+
+
+    /**
+     * Checks whether a slot has never held a record.
+     *
+     * @param index
+     *            The slot to check.
+     * @return `true` if the slot is empty, `false` otherwise.
+     */
+    public boolean isEmpty(int index) {
+        return handles[index] == EMPTY;
+    }
+
+
+    /**
+     * Checks whether a slot is a tombstone.
+     *
+     * @param index
+     *            The slot to check.
+     * @return `true` if the slot is a tombstone, `false` otherwise.
+     */
+    public boolean isTombstone(int index) {
+        return handles[index] == TOMBSTONE;
+    }
+
+
+    /**
+     * Returns the number of slots the last call of `findIndex` examined.
+     *
+     * @return The length of the last probe.
+     */
+    public int getLastProbeCount() {
+        return lastProbes;
+    }
+
+
+    /**
+     * Returns the probe sequence used by the table
+     *
+     * @return The probe strategy
+     */
+    public ProbeStrategy getStrategy() {
+        return strategy;
+    }
+
+
+    /**
+     * Returns the number of slots in the table
+     *
+     * @return Number of slots
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+
+    /**
+     * Returns the number of live records in the table
+     *
+     * @return Number of live records
+     */
+    public int getSize() {
+        return size;
+    }
+
+
+    /**
+     * Returns the number of tombstones in the table
+     *
+     * @return Number of tombstones
+     */
+    public int getTombstoneCount() {
+        return tombstones;
+    }
+}
@@ -0,0 +1,332 @@
+import student.TestCase;
+import org.junit.Test;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the SlotTable class and the
+ *          probe strategies. It runs the same random mix of inserts, searches
+ *          and deletes against every strategy and checks the results against
+ *          a java.util.HashMap, checks which capacities each strategy covers,
+ *          and compares their probe lengths on clustered IDs.
+ */
+public class SlotTableTest extends TestCase {
+
+    /**
+     * Runs a random workload against a hash table using the given strategy.
+     *
+     * @param strategy
+     *            The probe strategy under test.
+     * @param incremental
+     *            The number of slots moved per operation during expansion.
+     */
+    private void runWorkload(ProbeStrategy strategy, int incremental) {
+        runWorkload(strategy, incremental, false);
+    }
+
+
+    /**
+     * Runs a random workload against a hash table using the given strategy
+     * and capacity policy.
+     *
+     * @param strategy
+     *            The probe strategy under test.
+     * @param incremental
+     *            The number of slots moved per operation during expansion.
+     * @param prime
+     *            `true` for prime capacities.
+     */
+    private void runWorkload(
+        ProbeStrategy strategy,
+        int incremental,
+        boolean prime) {
+        HashTable hash = new HashTable(64, 4, new PrintWriter(
+            new StringWriter()));
+        hash.setProbeStrategy(strategy);
+        hash.setIncrementalResize(incremental);
+        hash.setPrimeCapacity(prime);
+        HashMap<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 3000; i++) {
+            int id = random.nextInt(500) * 8;
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                Record record = new Record(id, "T" + i, "2111011200", i,
+                    (short)1, (short)2, 3, "D", "K");
+                boolean inserted = hash.insert(record);
+                assertEquals(!expected.containsKey(id), inserted);
+                if (inserted) {
+                    expected.put(id, i);
+                }
+            }
+            else if (choice == 1) {
+                assertEquals(expected.remove(id) != null, hash.delete(id));
+            }
+            else {
+                Record found = hash.search(id, false);
+                if (expected.containsKey(id)) {
+                    assertNotNull(found);
+                    assertEquals((int)expected.get(id), found.getLength());
+                }
+                else {
+                    assertNull(found);
+                }
+            }
+        }
+        assertTrue(hash.printHashTable().endsWith("total records: "
+            + expected.size()));
+    }
+
+
+    /**
+     * Tests the original double hashing scheme.
+     */
+    @Test
+    public void testDoubleHashing() {
+        runWorkload(new DoubleHashProbe(), 0);
+        runWorkload(new DoubleHashProbe(), 3);
+    }
+
+
+    /**
+     * Tests linear probing.
+     */
+    @Test
+    public void testLinearProbing() {
+        runWorkload(new LinearProbe(), 0);
+        runWorkload(new LinearProbe(), 3);
+    }
+
+
+    /**
+     * Tests quadratic probing, and that it keeps power of two capacities
+     * under the prime capacity policy, since it does not cover primes.
+     */
+    @Test
+    public void testQuadraticProbing() {
+        runWorkload(new QuadraticProbe(), 0);
+        runWorkload(new QuadraticProbe(), 3);
+        runWorkload(new QuadraticProbe(), 0, true);
+
+        HashTable hash = new HashTable(64, 4, new PrintWriter(
+            new StringWriter()));
+        hash.setProbeStrategy(new QuadraticProbe());
+        hash.setPrimeCapacity(true);
+        for (int id = 0; id < 10; id++) {
+            hash.insert(new Record(id, "T", "2111011200", 1, (short)1,
+                (short)2, 3, "D", "K"));
+        }
+        assertEquals(32, hash.getCapacity());
+    }
+
+
+    /**
+     * Tests that each strategy visits every slot of the capacities it claims
+     * to cover, and reports the ones it does not.
+     */
+    @Test
+    public void testCoverage() {
+        ProbeStrategy[] strategies = { new DoubleHashProbe(),
+            new LinearProbe(), new QuadraticProbe(), new RobinHoodProbe() };
+        for (ProbeStrategy strategy : strategies) {
+            for (int capacity = 2; capacity <= 64; capacity++) {
+                if (strategy.covers(capacity)) {
+                    for (int id = 0; id < 200; id += 7) {
+                        assertEquals(capacity, visited(strategy, id,
+                            capacity));
+                    }
+                }
+            }
+        }
+        assertTrue(new DoubleHashProbe().covers(11));
+        assertFalse(new DoubleHashProbe().covers(10));
+        assertTrue(new QuadraticProbe().covers(16));
+        assertFalse(new QuadraticProbe().covers(12));
+        assertTrue(visited(new QuadraticProbe(), 5, 12) < 12);
+        assertTrue(new LinearProbe().covers(10));
+    }
+
+
+    /**
+     * Returns the number of distinct slots the probe sequence of an ID
+     * visits in as many probes as the table has slots.
+     */
+    private int visited(ProbeStrategy strategy, int id, int capacity) {
+        boolean[] seen = new boolean[capacity];
+        int index = strategy.home(id, capacity);
+        int step = strategy.step(id, capacity);
+        int count = 0;
+        for (int probe = 1; probe <= capacity; probe++) {
+            if (!seen[index]) {
+                seen[index] = true;
+                count++;
+            }
+            index = strategy.next(index, step, probe, capacity);
+        }
+        return count;
+    }
+
+
+    /**
+     * Compares the strategies on IDs that come in runs of consecutive
+     * numbers: linear probing builds long clusters, quadratic probing
+     * spreads the runs apart and double hashing spreads them further.
+     */
+    @Test
+    public void testClusteredIds() {
+        double linear = clusteredProbes(new LinearProbe());
+        double quadratic = clusteredProbes(new QuadraticProbe());
+        double doubleHash = clusteredProbes(new DoubleHashProbe());
+        assertTrue(quadratic < linear / 2);
+        assertTrue(doubleHash < quadratic);
+    }
+
+
+    /**
+     * Inserts 250 runs of 8 consecutive IDs at random starting points,
+     * searches for each of them and for 2000 missing IDs, and returns the
+     * mean number of slots probed.
+     */
+    private double clusteredProbes(ProbeStrategy strategy) {
+        HashTable hash = new HashTable(64, 4, new PrintWriter(
+            new StringWriter()));
+        hash.setProbeStrategy(strategy);
+        Random random = new Random(7);
+        int[] ids = new int[2000];
+        for (int i = 0; i < ids.length; i += 8) {
+            int start = random.nextInt(1 << 20);
+            for (int k = 0; k < 8; k++) {
+                ids[i + k] = start + k;
+            }
+        }
+        for (int id : ids) {
+            hash.insert(new Record(id, "T", "2111011200", 1, (short)1,
+                (short)2, 3, "D", "K"));
+        }
+        for (int id : ids) {
+            assertEquals(id, hash.search(id, false).getId());
+        }
+        for (int i = 0; i < 2000; i++) {
+            assertNull(hash.search((1 << 21) + random.nextInt(1 << 20),
+                false));
+        }
+        return hash.getMetrics().getProbes().getMean();
+    }
+
+
+    /**
+     * Tests Robin Hood hashing.
+     */
+    @Test
+    public void testRobinHood() {
+        runWorkload(new RobinHoodProbe(), 0);
+        runWorkload(new RobinHoodProbe(), 3);
+    }
+
+
+    /**
+     * Tests that a probe path without a free slot is reported instead of
+     * ending on another record, and that a table given a capacity the step
+     * does not cover rounds it up and keeps every record.
+     */
+    @Test
+    public void testFullProbePath() {
+        SlotTable slots = new DoubleHashProbe().createTable(10);
+        slots.put(slots.findIndex(5), 5, 0);
+        slots.put(slots.findIndex(0), 0, 16);
+        assertEquals(-1, slots.findIndex(25));
+        assertFalse(slots.isLive(-1, 25));
+
+        HashTable hash = new HashTable(64, 10, new PrintWriter(
+            new StringWriter()));
+        assertEquals(16, hash.getCapacity());
+        for (int id : new int[] { 5, 0, 25 }) {
+            assertTrue(hash.insert(new Record(id, "T", "2111011200", 1,
+                (short)1, (short)2, 3, "D", "K")));
+        }
+        for (int id : new int[] { 5, 0, 25 }) {
+            assertEquals(id, hash.search(id, false).getId());
+        }
+        assertEquals(2, new HashTable(64, 1, new PrintWriter(
+            new StringWriter())).getCapacity());
+    }
+
+
+    /**
+     * Tests every ID hash with every strategy, with power of two and with
+     * prime capacities.
+     */
+    @Test
+    public void testIdHashes() {
+        for (IdHash hash : IdHash.values()) {
+            runWorkload(new DoubleHashProbe(hash), 0, false);
+            runWorkload(new DoubleHashProbe(hash), 3, true);
+            runWorkload(new LinearProbe(hash), 0, true);
+            runWorkload(new QuadraticProbe(hash), 3, false);
+            runWorkload(new RobinHoodProbe(hash), 3, true);
+        }
+    }
+
+
+    /**
+     * Tests that mixing the IDs or using a prime capacity avoids the long
+     * probe chains of IDs that are all multiples of 1000.
+     */
+    @Test
+    public void testStructuredIds() {
+        assertTrue(meanProbes(new DoubleHashProbe(), false) > 2);
+        assertTrue(meanProbes(new DoubleHashProbe(IdHash.MURMUR),
+            false) < 1.8);
+        assertTrue(meanProbes(new DoubleHashProbe(IdHash.FIBONACCI),
+            false) < 1.8);
+        assertTrue(meanProbes(new DoubleHashProbe(), true) < 1.1);
+        assertTrue(meanProbes(new LinearProbe(), false) > 3);
+        assertTrue(meanProbes(new LinearProbe(IdHash.MURMUR), false) < 2);
+    }
+
+
+    /**
+     * Inserts 2000 IDs that are multiples of 1000 and returns the mean
+     * number of slots probed per insert.
+     */
+    private double meanProbes(ProbeStrategy strategy, boolean prime) {
+        HashTable hash = new HashTable(64, 4, new PrintWriter(
+            new StringWriter()));
+        hash.setProbeStrategy(strategy);
+        hash.setPrimeCapacity(prime);
+        for (int i = 0; i < 2000; i++) {
+            hash.insert(new Record(1000 * i, "T", "2111011200", 1, (short)1,
+                (short)2, 3, "D", "K"));
+        }
+        return hash.getMetrics().getProbes().getMean();
+    }
+
+
+    /**
+     * Tests that Robin Hood deletion shifts records back instead of leaving
+     * tombstones.
+     */
+    @Test
+    public void testRobinHoodBackwardShift() {
+        SlotTable table = new RobinHoodProbe().createTable(8);
+        table.put(table.findIndex(1), 1, 100);
+        table.put(table.findIndex(9), 9, 900);
+        table.put(table.findIndex(2), 2, 200);
+        // 1 and 9 share home slot 1, so 2 was displaced to slot 3
+        assertEquals(3, table.findIndex(2));
+
+        assertEquals(100, table.remove(table.findIndex(1)));
+        assertEquals(0, table.getTombstoneCount());
+        assertEquals(1, table.findIndex(9));
+        assertEquals(2, table.findIndex(2));
+        assertTrue(table.isEmpty(3));
+        assertFalse(table.isLive(table.findIndex(1), 1));
+    }
+}
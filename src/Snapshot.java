@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The `Snapshot` class saves the slots of a table and its memory pool to a
+ * binary file and reads them back. The file holds a header with a magic
+ * number, the format version and the name of the probe strategy, followed by
+ * the slot arrays, the keyword dictionary and the memory pool as written by
+ * `SlotTable.save`, `KeywordDictionary.save` and `MemoryManager.save`. The
+ * pool bytes hold the records in their `RecordCodec` form.
+ *
+ * A snapshot is written with one write and read back with one bulk read.
+ * When the table it is loaded into uses the same probe strategy and ID hash,
+ * the slot arrays are restored as they are and no record is hashed again;
+ * otherwise the records are rehashed into a table of the saved capacity.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class Snapshot {
+
+    private static final int MAGIC = 0x53454D53; // "SEMS"
+    private static final int VERSION = 2;
+
+    private SlotTable table;
+    private MemoryManager memory;
+    private KeywordDictionary keywords;
+
+    /**
+     * Constructs a new `Snapshot` of a table and its memory pool.
+     *
+     * @param table
+     *            The slots of the table.
+     * @param memory
+     *            The memory pool holding the records.
+     * @param keywords
+     *            The dictionary the keywords of the records are coded
+     *            against.
+     */
+    public Snapshot(
+        SlotTable table,
+        MemoryManager memory,
+        KeywordDictionary keywords) {
+        this.table = table;
+        this.memory = memory;
+        this.keywords = keywords;
+    }
+
+
+    /**
+     * Writes the snapshot to a file, replacing its contents.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public void save(String filename) throws IOException {
+        byte[] strategyName = nameOf(table.getStrategy()).getBytes(
+            StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(10 + strategyName.length + table
+            .snapshotSize() + keywords.snapshotSize() + memory
+                .snapshotSize());
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putShort((short)strategyName.length);
+        out.put(strategyName);
+        table.save(out);
+        keywords.save(out);
+        memory.save(out);
+        out.flip();
+
+        try (FileChannel file = FileChannel.open(Paths.get(filename),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                file.write(out);
+            }
+        }
+    }
+
+
+    /**
+     * Reads a snapshot from a file into a new table and memory pool.
+     *
+     * @param filename
+     *            The name of the snapshot file.
+     * @param strategy
+     *            The probe sequence of the table the snapshot is loaded into.
+     * @param writer
+     *            The PrintWriter object used by the new memory pool.
+     * @param offHeap
+     *            `true` to keep the new memory pool outside the Java heap.
+     * @return The snapshot holding the new table and memory pool.
+     * @throws IOException
+     *             If the file cannot be read or is not a valid snapshot.
+     */
+    public static Snapshot load(
+        String filename,
+        ProbeStrategy strategy,
+        PrintWriter writer,
+        boolean offHeap)
+        throws IOException {
+        ByteBuffer in;
+        try (FileChannel file = FileChannel.open(Paths.get(filename),
+            StandardOpenOption.READ)) {
+            if (file.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large: " + filename);
+            }
+            in = ByteBuffer.allocate((int)file.size());
+            while (in.hasRemaining() && file.read(in) != -1) {
+                continue;
+            }
+            in.flip();
+        }
+
+        try {
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not a snapshot file: " + filename);
+            }
+            byte[] strategyName = new byte[in.getShort()];
+            in.get(strategyName);
+            int capacity = in.getInt(in.position());
+            if (capacity <= 0 || capacity > in.remaining() / 8) {
+                throw new IOException("Invalid table in snapshot: "
+                    + filename);
+            }
+
+            SlotTable table = strategy.createTable(capacity);
+            if (new String(strategyName, StandardCharsets.UTF_8).equals(
+                nameOf(strategy))) {
+                table.restore(in);
+            }
+            else {
+                SlotTable saved = new SlotTable(capacity, strategy);
+                saved.restore(in);
+                saved.moveTo(table, 0, capacity);
+            }
+
+            KeywordDictionary keywords = new KeywordDictionary();
+            keywords.restore(in);
+            MemoryManager memory = new MemoryManager(1, writer, offHeap);
+            memory.restore(in);
+            return new Snapshot(table, memory, keywords);
+        }
+        catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Invalid snapshot file: " + filename, e);
+        }
+    }
+
+
+    /**
+     * Returns the slots of the table
+     *
+     * @return The table
+     */
+    public SlotTable getTable() {
+        return table;
+    }
+
+
+    /**
+     * Returns the dictionary the keywords of the records are coded against
+     *
+     * @return The keyword dictionary
+     */
+    public KeywordDictionary getKeywords() {
+        return keywords;
+    }
+
+
+    /**
+     * Returns the memory pool holding the records
+     *
+     * @return The memory pool
+     */
+    public MemoryManager getMemory() {
+        return memory;
+    }
+
+
+    /**
+     * Returns the name a probe strategy is saved under: its class name,
+     * followed by its ID hash unless that is the legacy one, so snapshots
+     * of legacy tables keep their names.
+     */
+    private static String nameOf(ProbeStrategy strategy) {
+        String name = strategy.getClass().getName();
+        if (strategy.getHash() != IdHash.LEGACY) {
+            name += ":" + strategy.getHash();
+        }
+        return name;
+    }
+}
@@ -0,0 +1,248 @@
+import student.TestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the Snapshot class. It saves
+ *          tables and loads them back into hash tables with the same and with
+ *          a different probe strategy, into a concurrent hash table, and
+ *          checks that invalid files leave the table unchanged.
+ */
+public class SnapshotTest extends TestCase {
+
+    private StringWriter output;
+    private PrintWriter writer;
+    private HashTable saved;
+    private Path file;
+
+    /**
+     * Fills a table with records, deletes one and saves it before each test
+     * method.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be written.
+     */
+    @Before
+    public void setUp() throws IOException {
+        output = new StringWriter();
+        writer = new PrintWriter(output, true);
+        saved = new HashTable(64, 4, writer);
+        for (int id = 1; id <= 12; id++) {
+            saved.insert(record(id));
+        }
+        saved.delete(5);
+        file = Files.createTempFile("snapshot", ".bin");
+        saved.save(file.toString());
+    }
+
+
+    /**
+     * Deletes the snapshot file after each test method.
+     *
+     * @throws IOException
+     *             If the file cannot be deleted.
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+
+    /**
+     * Creates a record with the given ID. Every third record has a date that
+     * is not ten digits, and the records share some keywords, so the saved
+     * dictionary and the uncoded dates both round trip.
+     */
+    private Record record(int id) {
+        String date = id % 3 == 0 ? "Spring" : "21110112" + (10 + id % 50);
+        return new Record(id, "Snapshot " + id, date, 45, (short)(id * 3),
+            (short)-id, 200 - id, "Saved " + id, "VT, Shared" + id % 4
+                + ", Keyword" + id);
+    }
+
+
+    /**
+     * Tests that a loaded table has the same slots, records and free blocks
+     * as the saved one, and keeps working afterwards.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be read.
+     */
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        HashTable loaded = new HashTable(16, 2, writer);
+        loaded.load(file.toString());
+        assertEquals(saved.getCapacity(), loaded.getCapacity());
+        assertEquals(saved.getTombstoneCount(), loaded.getTombstoneCount());
+        assertEquals(saved.printHashTable(), loaded.printHashTable());
+        for (int id = 1; id <= 12; id++) {
+            assertEquals(saved.search(id, false), loaded.search(id, false));
+        }
+
+        output.getBuffer().setLength(0);
+        saved.printMemoryBlocks();
+        String savedBlocks = output.toString();
+        output.getBuffer().setLength(0);
+        loaded.printMemoryBlocks();
+        assertEquals(savedBlocks, output.toString());
+
+        assertTrue(loaded.insert(record(5)));
+        assertFalse(loaded.insert(record(6)));
+        assertEquals(record(5), loaded.search(5, false));
+    }
+
+
+    /**
+     * Tests that a table with another probe strategy rehashes the records
+     * while loading.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be read.
+     */
+    @Test
+    public void testLoadWithOtherStrategy() throws IOException {
+        HashTable loaded = new HashTable(16, 2, writer);
+        loaded.setProbeStrategy(new LinearProbe());
+        loaded.load(file.toString());
+        assertEquals(saved.getCapacity(), loaded.getCapacity());
+        assertEquals(0, loaded.getTombstoneCount());
+        for (int id = 1; id <= 12; id++) {
+            assertEquals(saved.search(id, false), loaded.search(id, false));
+        }
+    }
+
+
+    /**
+     * Tests that a table with the same probe strategy but another ID hash
+     * rehashes the records while loading.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be read.
+     */
+    @Test
+    public void testLoadWithOtherHash() throws IOException {
+        HashTable loaded = new HashTable(16, 2, writer);
+        loaded.setProbeStrategy(new DoubleHashProbe(IdHash.MURMUR));
+        loaded.load(file.toString());
+        assertEquals(0, loaded.getTombstoneCount());
+        for (int id = 1; id <= 12; id++) {
+            assertEquals(saved.search(id, false), loaded.search(id, false));
+        }
+    }
+
+
+    /**
+     * Tests that a table loaded from a snapshot with a prime capacity grows
+     * to powers of two, which the double hashing step covers, instead of
+     * doubling the prime.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be read or written.
+     */
+    @Test
+    public void testLoadPrimeCapacity() throws IOException {
+        HashTable prime = new HashTable(64, 4, writer);
+        prime.setPrimeCapacity(true);
+        for (int id = 1; id <= 4; id++) {
+            prime.insert(record(100 + id));
+        }
+        assertEquals(11, prime.getCapacity());
+        prime.save(file.toString());
+
+        HashTable loaded = new HashTable(16, 2, writer);
+        loaded.load(file.toString());
+        assertEquals(11, loaded.getCapacity());
+        for (int id = 1; id <= 16; id++) {
+            loaded.insert(record(1000 + id));
+        }
+        assertEquals(64, loaded.getCapacity());
+        for (int id : new int[] { 0, 11, 22, 33, 220 }) {
+            assertTrue(loaded.insert(record(id)));
+        }
+        for (int id : new int[] { 0, 11, 22, 33, 220, 101, 1016 }) {
+            assertEquals(record(id), loaded.search(id, false));
+        }
+
+        ConcurrentHashTable concurrent = new ConcurrentHashTable(16, 2,
+            writer);
+        concurrent.load(file.toString());
+        concurrent.expandTable();
+        assertEquals(16, concurrent.getCapacity());
+        assertEquals(record(102), concurrent.search(102, false));
+    }
+
+
+    /**
+     * Tests that snapshots move between the sequential and the concurrent
+     * table in both directions.
+     *
+     * @throws IOException
+     *             If the snapshot cannot be read or written.
+     */
+    @Test
+    public void testConcurrentTable() throws IOException {
+        ConcurrentHashTable concurrent = new ConcurrentHashTable(16, 2,
+            writer);
+        concurrent.load(file.toString());
+        assertEquals(11, concurrent.getSize());
+        assertEquals(saved.printHashTable(), concurrent.printHashTable());
+        assertEquals(record(7), concurrent.search(7, false));
+
+        concurrent.delete(7);
+        concurrent.save(file.toString());
+        HashTable loaded = new HashTable(16, 2, writer);
+        loaded.load(file.toString());
+        assertNull(loaded.search(7, false));
+        assertEquals(concurrent.printHashTable(), loaded.printHashTable());
+    }
+
+
+    /**
+     * Tests that missing, foreign and truncated files are rejected without
+     * changing the table.
+     *
+     * @throws IOException
+     *             If the test files cannot be written.
+     */
+    @Test
+    public void testInvalidFiles() throws IOException {
+        byte[] contents = Files.readAllBytes(file);
+        String before = saved.printHashTable();
+        String[] invalid = { "not a snapshot", "" };
+        for (String text : invalid) {
+            Files.write(file, text.getBytes());
+            assertInvalid(file.toString());
+        }
+        Files.write(file, Arrays.copyOf(contents, contents.length - 1));
+        assertInvalid(file.toString());
+        Files.delete(file);
+        assertInvalid(file.toString());
+        assertEquals(before, saved.printHashTable());
+    }
+
+
+    /**
+     * Checks that loading the file fails.
+     */
+    private void assertInvalid(String filename) {
+        Exception thrown = null;
+        try {
+            saved.load(filename);
+        }
+        catch (IOException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+}
@@ -0,0 +1,306 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The `SpatialIndex` class finds records by their X and Y coordinates. The
+ * coordinate space is divided into a grid of square cells, and only cells
+ * holding at least one record are kept, in a map from cell number to the
+ * records in the cell.
+ *
+ * A query visits only the cells its region overlaps and checks the records
+ * in those cells, so its cost depends on the size of the region and the
+ * number of records near it, not on the size of the table. When a region
+ * overlaps more cells than are occupied, the occupied cells are visited
+ * instead.
+ *
+ * The records of a cell are plain arrays that an update may replace or
+ * reorder, so queries and updates take the monitor of the whole index.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class SpatialIndex {
+
+    /** The default width and height of a cell. */
+    public static final int CELL_SIZE = 64;
+
+    private static final int ORIGIN = Short.MIN_VALUE;
+
+    private int cellShift;
+    private int cellsPerRow;
+    private HashMap<Integer, Cell> cells;
+
+    /**
+     * Constructs a new, empty `SpatialIndex` with the default cell size.
+     */
+    public SpatialIndex() {
+        this(CELL_SIZE);
+    }
+
+
+    /**
+     * Constructs a new, empty `SpatialIndex` object.
+     *
+     * @param cellSize
+     *            The width and height of a cell, a power of two between 1
+     *            and 65536.
+     * @throws IllegalArgumentException
+     *             If the cell size is not valid.
+     */
+    public SpatialIndex(int cellSize) {
+        if (cellSize < 1 || cellSize > 1 << 16 || Integer.bitCount(
+            cellSize) != 1) {
+            throw new IllegalArgumentException(
+                "Cell size must be a power of two up to 65536: " + cellSize);
+        }
+        cellShift = Integer.numberOfTrailingZeros(cellSize);
+        cellsPerRow = (1 << 16) >> cellShift;
+        cells = new HashMap<Integer, Cell>();
+    }
+
+
+    /**
+     * Adds a record at its coordinates.
+     *
+     * @param record
+     *            The record to add.
+     */
+    public synchronized void add(Record record) {
+        int key = cellOf(column(record.getX()), column(record.getY()));
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell();
+            cells.put(key, cell);
+        }
+        cell.add(record.getId(), record.getX(), record.getY());
+    }
+
+
+    /**
+     * Removes a record from its coordinates.
+     *
+     * @param record
+     *            The record to remove.
+     */
+    public synchronized void remove(Record record) {
+        int key = cellOf(column(record.getX()), column(record.getY()));
+        Cell cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(record.getId());
+            if (cell.size == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+
+    /**
+     * Removes every record from the index.
+     */
+    public synchronized void clear() {
+        cells.clear();
+    }
+
+
+    /**
+     * Returns the IDs of the records inside a rectangle, edges included.
+     *
+     * @param x1
+     *            One X bound of the rectangle.
+     * @param y1
+     *            One Y bound of the rectangle.
+     * @param x2
+     *            The other X bound of the rectangle.
+     * @param y2
+     *            The other Y bound of the rectangle.
+     * @return The IDs in increasing order.
+     */
+    public synchronized int[] inBox(int x1, int y1, int x2, int y2) {
+        return collect(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2),
+            Math.max(y1, y2), -1, 0, 0);
+    }
+
+
+    /**
+     * Returns the IDs of the records at most a distance from a point.
+     *
+     * @param x
+     *            The X coordinate of the point.
+     * @param y
+     *            The Y coordinate of the point.
+     * @param distance
+     *            The largest distance, not negative.
+     * @return The IDs in increasing order.
+     */
+    public synchronized int[] inRadius(int x, int y, int distance) {
+        if (distance < 0) {
+            return new int[0];
+        }
+        return collect((long)x - distance, (long)y - distance, (long)x
+            + distance, (long)y + distance, (long)distance * distance, x, y);
+    }
+
+
+    /**
+     * Collects the records inside a rectangle, and within a distance of a
+     * center if the squared distance is not negative. The bounds are longs,
+     * so a bound past the int range is clamped to the coordinate space
+     * instead of wrapping around.
+     */
+    private int[] collect(
+        long minX,
+        long minY,
+        long maxX,
+        long maxY,
+        long squaredDistance,
+        int centerX,
+        int centerY) {
+        minX = Math.max(minX, Short.MIN_VALUE);
+        minY = Math.max(minY, Short.MIN_VALUE);
+        maxX = Math.min(maxX, Short.MAX_VALUE);
+        maxY = Math.min(maxY, Short.MAX_VALUE);
+        if (minX > maxX || minY > maxY) {
+            return new int[0];
+        }
+
+        Matches matches = new Matches();
+        int firstColumn = column((int)minX);
+        int lastColumn = column((int)maxX);
+        int firstRow = column((int)minY);
+        int lastRow = column((int)maxY);
+        long covered = (long)(lastColumn - firstColumn + 1) * (lastRow
+            - firstRow + 1);
+        if (covered > cells.size()) {
+            for (Cell cell : cells.values()) {
+                cell.match(matches, minX, minY, maxX, maxY, squaredDistance,
+                    centerX, centerY);
+            }
+        }
+        else {
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int col = firstColumn; col <= lastColumn; col++) {
+                    Cell cell = cells.get(cellOf(col, row));
+                    if (cell != null) {
+                        cell.match(matches, minX, minY, maxX, maxY,
+                            squaredDistance, centerX, centerY);
+                    }
+                }
+            }
+        }
+        int[] ids = Arrays.copyOf(matches.ids, matches.size);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+
+    /**
+     * Returns the grid column or row of a coordinate.
+     */
+    private int column(int coordinate) {
+        return (coordinate - ORIGIN) >> cellShift;
+    }
+
+
+    /**
+     * Returns the number of the cell at a column and row.
+     */
+    private int cellOf(int col, int row) {
+        return row * cellsPerRow + col;
+    }
+
+
+    /**
+     * A growable list of matching IDs.
+     */
+    private static class Matches {
+
+        private int[] ids = new int[16];
+        private int size = 0;
+
+        /**
+         * Appends an ID.
+         */
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+            }
+            ids[size++] = id;
+        }
+    }
+
+
+    /**
+     * The records in one cell, as parallel arrays of IDs and coordinates.
+     */
+    private static class Cell {
+
+        private int[] ids = new int[4];
+        private short[] xs = new short[4];
+        private short[] ys = new short[4];
+        private int size = 0;
+
+        /**
+         * Appends a record.
+         */
+        void add(int id, short x, short y) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+                xs = Arrays.copyOf(xs, 2 * size);
+                ys = Arrays.copyOf(ys, 2 * size);
+            }
+            ids[size] = id;
+            xs[size] = x;
+            ys[size] = y;
+            size++;
+        }
+
+
+        /**
+         * Removes a record by moving the last record into its place.
+         */
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    xs[i] = xs[size];
+                    ys[i] = ys[size];
+                    return;
+                }
+            }
+        }
+
+
+        /**
+         * Adds the records of the cell that lie in the rectangle, and within
+         * the distance of the center if the squared distance is not
+         * negative.
+         */
+        void match(
+            Matches matches,
+            long minX,
+            long minY,
+            long maxX,
+            long maxY,
+            long squaredDistance,
+            int centerX,
+            int centerY) {
+            for (int i = 0; i < size; i++) {
+                int x = xs[i];
+                int y = ys[i];
+                if (x < minX || x > maxX || y < minY || y > maxY) {
+                    continue;
+                }
+                if (squaredDistance >= 0) {
+                    long dx = x - centerX;
+                    long dy = y - centerY;
+                    if (dx * dx + dy * dy > squaredDistance) {
+                        continue;
+                    }
+                }
+                matches.add(ids[i]);
+            }
+        }
+    }
+}
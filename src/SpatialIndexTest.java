@@ -0,0 +1,112 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Arrays;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the SpatialIndex class. It
+ *          checks radius and box queries against records in one cell, across
+ *          cells and at the edges of the coordinate space.
+ */
+public class SpatialIndexTest extends TestCase {
+
+    private SpatialIndex index;
+
+    /**
+     * Sets up an index with small cells so queries cross cell edges.
+     */
+    @Before
+    public void setUp() {
+        index = new SpatialIndex(8);
+        index.add(record(1, 0, 0));
+        index.add(record(2, 3, 4));
+        index.add(record(3, 20, -20));
+        index.add(record(4, Short.MAX_VALUE, Short.MIN_VALUE));
+    }
+
+
+    /**
+     * Creates a record with the given ID and location.
+     */
+    private Record record(int id, int x, int y) {
+        return new Record(id, "T", "0610071600", 1, (short)x, (short)y, 1,
+            "D", "K");
+    }
+
+
+    /**
+     * Tests that a radius query includes points exactly at the distance.
+     */
+    @Test
+    public void testRadius() {
+        assertTrue(Arrays.equals(new int[] { 1, 2 }, index.inRadius(0, 0,
+            5)));
+        assertTrue(Arrays.equals(new int[] { 1 }, index.inRadius(0, 0, 4)));
+        assertTrue(Arrays.equals(new int[] { 1, 2, 3 }, index.inRadius(12,
+            -8, 15)));
+        assertEquals(0, index.inRadius(0, 0, -1).length);
+        assertEquals(4, index.inRadius(0, 0, 100000).length);
+    }
+
+
+    /**
+     * Tests that radius queries whose bounds leave the int range are clamped
+     * instead of wrapping around.
+     */
+    @Test
+    public void testHugeRadius() {
+        int far = Integer.MAX_VALUE;
+        assertEquals(4, index.inRadius(0, 0, far).length);
+        assertEquals(4, index.inRadius(far, 0, far).length);
+        assertTrue(Arrays.equals(new int[] { 1 }, index.inRadius(-far, 0,
+            far)));
+        assertEquals(0, index.inRadius(Integer.MIN_VALUE, Integer.MIN_VALUE,
+            far).length);
+    }
+
+
+    /**
+     * Tests box queries with swapped and out of range bounds.
+     */
+    @Test
+    public void testBox() {
+        assertTrue(Arrays.equals(new int[] { 2, 3 }, index.inBox(20, 4, 3,
+            -20)));
+        assertTrue(Arrays.equals(new int[] { 4 }, index.inBox(40000, -40000,
+            32000, -32000)));
+        assertEquals(0, index.inBox(1, 1, 2, 2).length);
+    }
+
+
+    /**
+     * Tests that removed records are no longer found.
+     */
+    @Test
+    public void testRemoveAndClear() {
+        index.remove(record(1, 0, 0));
+        index.remove(record(9, 0, 0));
+        assertTrue(Arrays.equals(new int[] { 2 }, index.inBox(0, 0, 5, 5)));
+        index.clear();
+        assertEquals(0, index.inBox(-40000, -40000, 40000, 40000).length);
+    }
+
+
+    /**
+     * Tests that invalid cell sizes are rejected.
+     */
+    @Test
+    public void testInvalidCellSize() {
+        Exception thrown = null;
+        try {
+            new SpatialIndex(6);
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+}
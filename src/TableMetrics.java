@@ -0,0 +1,256 @@
+import java.util.Locale;
+
+/**
+ * The `TableMetrics` class collects what a table does while it runs: how
+ * many inserts, searches and deletes it performed and with what outcome,
+ * how long each took, how many slots each probe examined, and how often and
+ * for how long the table expanded or purged its tombstones. Latencies are in
+ * nanoseconds and are kept in `Histogram` objects, so percentiles can be
+ * reported as well as means.
+ *
+ * The state of the table, its number of records, capacity and tombstones,
+ * is set by the table when the metrics are read. The metrics can be written
+ * as text for the `print stats` command or as JSON.
+ *
+ * The metrics are not synchronized and are recorded by the single threaded
+ * tables.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class TableMetrics {
+
+    private Histogram insertLatency;
+    private Histogram searchLatency;
+    private Histogram deleteLatency;
+    private Histogram probes;
+    private Histogram expansionTime;
+    private long inserted;
+    private long duplicates;
+    private long found;
+    private long notFound;
+    private long deleted;
+    private long notDeleted;
+    private long purges;
+    private int size;
+    private int capacity;
+    private int tombstones;
+
+    /**
+     * Constructs a new `TableMetrics` object with nothing recorded.
+     */
+    public TableMetrics() {
+        insertLatency = new Histogram();
+        searchLatency = new Histogram();
+        deleteLatency = new Histogram();
+        probes = new Histogram();
+        expansionTime = new Histogram();
+    }
+
+
+    /**
+     * Records an insert.
+     *
+     * @param success
+     *            `true` if the record was inserted, `false` if its ID was
+     *            already taken.
+     * @param nanos
+     *            The time the insert took.
+     */
+    public void recordInsert(boolean success, long nanos) {
+        if (success) {
+            inserted++;
+        }
+        else {
+            duplicates++;
+        }
+        insertLatency.record(nanos);
+    }
+
+
+    /**
+     * Records a search.
+     *
+     * @param success
+     *            `true` if the record was found, `false` otherwise.
+     * @param nanos
+     *            The time the search took.
+     */
+    public void recordSearch(boolean success, long nanos) {
+        if (success) {
+            found++;
+        }
+        else {
+            notFound++;
+        }
+        searchLatency.record(nanos);
+    }
+
+
+    /**
+     * Records a delete.
+     *
+     * @param success
+     *            `true` if the record was deleted, `false` if it was not
+     *            found.
+     * @param nanos
+     *            The time the delete took.
+     */
+    public void recordDelete(boolean success, long nanos) {
+        if (success) {
+            deleted++;
+        }
+        else {
+            notDeleted++;
+        }
+        deleteLatency.record(nanos);
+    }
+
+
+    /**
+     * Records the number of slots a probe examined.
+     *
+     * @param count
+     *            The number of slots.
+     */
+    public void recordProbes(int count) {
+        probes.record(count);
+    }
+
+
+    /**
+     * Records an expansion of the table.
+     *
+     * @param nanos
+     *            The time the expansion took.
+     */
+    public void recordExpansion(long nanos) {
+        expansionTime.record(nanos);
+    }
+
+
+    /**
+     * Records a rehash that cleared the tombstones of the table.
+     */
+    public void recordPurge() {
+        purges++;
+    }
+
+
+    /**
+     * Sets the current state of the table.
+     *
+     * @param records
+     *            The number of records in the table.
+     * @param slots
+     *            The capacity of the table.
+     * @param deletedSlots
+     *            The number of tombstones in the table.
+     */
+    public void setState(int records, int slots, int deletedSlots) {
+        size = records;
+        capacity = slots;
+        tombstones = deletedSlots;
+    }
+
+
+    /**
+     * Returns the distribution of probe lengths
+     *
+     * @return The probe length histogram
+     */
+    public Histogram getProbes() {
+        return probes;
+    }
+
+
+    /**
+     * Returns the distribution of insert latencies
+     *
+     * @return The insert latency histogram
+     */
+    public Histogram getInsertLatency() {
+        return insertLatency;
+    }
+
+
+    /**
+     * Returns the number of expansions of the table
+     *
+     * @return Number of expansions
+     */
+    public long getExpansions() {
+        return expansionTime.getCount();
+    }
+
+
+    /**
+     * Returns the number of records per slot of the table
+     *
+     * @return The load factor, or 0 for a table without slots
+     */
+    public double getLoadFactor() {
+        return capacity == 0 ? 0 : (double)size / capacity;
+    }
+
+
+    /**
+     * Describes the metrics for the `print stats` command, one line per
+     * kind of operation followed by the state of the table.
+     *
+     * @return The description, ending with a line break.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder("Stats:\n");
+        text.append("insert: ").append(inserted).append(" inserted, ").append(
+            duplicates).append(" duplicates, latency ns ").append(insertLatency
+                .toText()).append('\n');
+        text.append("search: ").append(found).append(" found, ").append(
+            notFound).append(" not found, latency ns ").append(searchLatency
+                .toText()).append('\n');
+        text.append("delete: ").append(deleted).append(" deleted, ").append(
+            notDeleted).append(" not found, latency ns ").append(deleteLatency
+                .toText()).append('\n');
+        text.append("probes: ").append(probes.toText()).append('\n');
+        text.append(String.format(Locale.ROOT,
+            "records: %d, capacity: %d, load factor: %.3f, tombstones: %d\n",
+            size, capacity, getLoadFactor(), tombstones));
+        text.append("expansions: ").append(getExpansions()).append(
+            ", duration ns ").append(expansionTime.toText()).append('\n');
+        text.append("purges: ").append(purges).append('\n');
+        return text.toString();
+    }
+
+
+    /**
+     * Describes the metrics as a JSON object.
+     *
+     * @return The JSON object.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"insert\": {\"inserted\": ").append(inserted).append(
+            ", \"duplicates\": ").append(duplicates).append(
+                ", \"latencyNanos\": ").append(insertLatency.toJson()).append(
+                    "},\n");
+        json.append("  \"search\": {\"found\": ").append(found).append(
+            ", \"notFound\": ").append(notFound).append(
+                ", \"latencyNanos\": ").append(searchLatency.toJson()).append(
+                    "},\n");
+        json.append("  \"delete\": {\"deleted\": ").append(deleted).append(
+            ", \"notFound\": ").append(notDeleted).append(
+                ", \"latencyNanos\": ").append(deleteLatency.toJson()).append(
+                    "},\n");
+        json.append("  \"probes\": ").append(probes.toJson()).append(",\n");
+        json.append(String.format(Locale.ROOT,
+            "  \"records\": %d,\n  \"capacity\": %d,\n"
+                + "  \"loadFactor\": %.3f,\n  \"tombstones\": %d,\n", size,
+            capacity, getLoadFactor(), tombstones));
+        json.append("  \"expansions\": {\"count\": ").append(getExpansions())
+            .append(", \"durationNanos\": ").append(expansionTime.toJson())
+            .append("},\n");
+        json.append("  \"purges\": ").append(purges).append("\n}\n");
+        return json.toString();
+    }
+}
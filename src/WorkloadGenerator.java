@@ -0,0 +1,446 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * The `WorkloadGenerator` class writes command files in the format read by
+ * `SemManager`, for load tests of any size. Commands are written as they are
+ * generated, so the size of a workload is limited by the disk rather than by
+ * memory, and the same seed always produces the same file.
+ *
+ * A workload is described by:
+ *
+ * - the mix: relative weights of insert, search, delete and print commands,
+ * - the key distribution of the IDs: `uniform` over the key space, `zipf`
+ *   over the key space with small IDs the most frequent, or `sequential`,
+ *   where inserts use increasing IDs and searches and deletes cycle through
+ *   the IDs inserted so far,
+ * - the keyword vocabulary size and the number of keywords per record,
+ * - the number of words in titles and descriptions.
+ *
+ * Usage: `java WorkloadGenerator <file> <count> [option=value ...]` with the
+ * options `mix=I:S:D:P`, `keys=uniform|zipf|sequential`, `space=N`,
+ * `exponent=X`, `vocabulary=N`, `keywords=N`, `title=N`, `description=N` and
+ * `seed=N`.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class WorkloadGenerator {
+
+    private static final String[] WORDS = { "research", "systems", "data",
+        "seminar", "overview", "computing", "learning", "networks", "design",
+        "analysis", "security", "graphics", "biology", "theory", "software",
+        "methods" };
+
+    private int[] mix;
+    private String keys;
+    private int keySpace;
+    private double exponent;
+    private int vocabularySize;
+    private int keywordsPerRecord;
+    private int titleWords;
+    private int descriptionWords;
+    private long seed;
+
+    /**
+     * Constructs a new `WorkloadGenerator` with the default workload: half
+     * inserts, a third searches, the rest mostly deletes with a few prints,
+     * uniform IDs below 100000, and a vocabulary of 1000 keywords.
+     */
+    public WorkloadGenerator() {
+        mix = new int[] { 50, 35, 14, 1 };
+        keys = "uniform";
+        keySpace = 100000;
+        exponent = 1.0;
+        vocabularySize = 1000;
+        keywordsPerRecord = 4;
+        titleWords = 5;
+        descriptionWords = 12;
+        seed = 42;
+    }
+
+
+    /**
+     * Writes the given number of commands to a file.
+     *
+     * @param args
+     *            The file name, the number of commands and any options.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        for (int i = 2; i < args.length; i++) {
+            int split = args[i].indexOf('=');
+            String value = args[i].substring(split + 1);
+            switch (split < 0 ? args[i] : args[i].substring(0, split)) {
+                case "mix":
+                    String[] weights = value.split(":");
+                    generator.setMix(Integer.parseInt(weights[0]), Integer
+                        .parseInt(weights[1]), Integer.parseInt(weights[2]),
+                        Integer.parseInt(weights[3]));
+                    break;
+                case "keys":
+                    generator.setKeys(value);
+                    break;
+                case "space":
+                    generator.setKeySpace(Integer.parseInt(value));
+                    break;
+                case "exponent":
+                    generator.setExponent(Double.parseDouble(value));
+                    break;
+                case "vocabulary":
+                    generator.setVocabularySize(Integer.parseInt(value));
+                    break;
+                case "keywords":
+                    generator.setKeywordsPerRecord(Integer.parseInt(value));
+                    break;
+                case "title":
+                    generator.setTitleWords(Integer.parseInt(value));
+                    break;
+                case "description":
+                    generator.setDescriptionWords(Integer.parseInt(value));
+                    break;
+                case "seed":
+                    generator.setSeed(Long.parseLong(value));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    break;
+            }
+        }
+        try (Writer out = new OutputWriter(args[0])) {
+            generator.generate(out, Long.parseLong(args[1]));
+        }
+    }
+
+
+    /**
+     * Writes a workload of commands.
+     *
+     * @param out
+     *            The writer receiving the commands.
+     * @param count
+     *            The number of commands to write.
+     * @throws IOException
+     *             If the commands cannot be written.
+     */
+    public void generate(Writer out, long count) throws IOException {
+        PrintWriter text = new PrintWriter(out);
+        Random random = new Random(seed);
+        ZipfSampler zipf = keys.equals("zipf")
+            ? new ZipfSampler(keySpace, exponent)
+            : null;
+        int total = mix[0] + mix[1] + mix[2] + mix[3];
+        long inserted = 0;
+        long cursor = 0;
+        boolean blocks = false;
+
+        for (long i = 0; i < count; i++) {
+            int pick = random.nextInt(total);
+            if (pick < mix[0]) {
+                int id = keys.equals("sequential")
+                    ? (int)inserted
+                    : nextKey(random, zipf);
+                inserted++;
+                writeInsert(text, random, id);
+                continue;
+            }
+            if (pick >= mix[0] + mix[1] + mix[2]) {
+                text.print(blocks ? "print blocks\n" : "print hashtable\n");
+                blocks = !blocks;
+                continue;
+            }
+            String verb = pick < mix[0] + mix[1] ? "search" : "delete";
+            int id;
+            if (keys.equals("sequential")) {
+                id = inserted == 0 ? 0 : (int)(cursor++ % inserted);
+            }
+            else {
+                id = nextKey(random, zipf);
+            }
+            text.print(verb + " " + id + "\n");
+        }
+        text.flush();
+        if (text.checkError()) {
+            throw new IOException("Cannot write the workload");
+        }
+    }
+
+
+    /**
+     * Writes an insert command with a generated record.
+     */
+    private void writeInsert(PrintWriter text, Random random, int id) {
+        StringBuilder command = new StringBuilder(256);
+        command.append("insert ").append(id).append('\n');
+        appendWords(command, random, titleWords);
+        command.append('\n');
+        command.append(pad(random.nextInt(100))); // YYMMDDhhmm
+        command.append(pad(1 + random.nextInt(12)));
+        command.append(pad(1 + random.nextInt(28)));
+        command.append(pad(random.nextInt(24)));
+        command.append(pad(random.nextInt(60)));
+        command.append(' ').append(15 + random.nextInt(166));
+        command.append(' ').append(random.nextInt(1024));
+        command.append(' ').append(random.nextInt(1024));
+        command.append(' ').append(random.nextInt(201)).append('\n');
+        for (int k = 0; k < keywordsPerRecord; k++) {
+            if (k > 0) {
+                command.append(' ');
+            }
+            command.append("topic").append(random.nextInt(vocabularySize));
+        }
+        command.append('\n');
+        appendWords(command, random, descriptionWords);
+        command.append('\n');
+        text.print(command);
+    }
+
+
+    /**
+     * Appends words picked from the word list, separated by spaces.
+     */
+    private static void appendWords(
+        StringBuilder command,
+        Random random,
+        int count) {
+        for (int w = 0; w < count; w++) {
+            if (w > 0) {
+                command.append(' ');
+            }
+            command.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+    }
+
+
+    /**
+     * Formats a number below 100 with two digits.
+     */
+    private static String pad(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
+
+    /**
+     * Picks an ID from the uniform or the Zipf distribution.
+     */
+    private int nextKey(Random random, ZipfSampler zipf) {
+        return zipf != null
+            ? zipf.sample(random) - 1
+            : random.nextInt(keySpace);
+    }
+
+
+    /**
+     * Sets the relative weights of the commands.
+     *
+     * @param insert
+     *            The weight of insert commands.
+     * @param search
+     *            The weight of search commands.
+     * @param delete
+     *            The weight of delete commands.
+     * @param print
+     *            The weight of print commands.
+     * @throws IllegalArgumentException
+     *             If a weight is negative or they are all zero.
+     */
+    public void setMix(int insert, int search, int delete, int print) {
+        if (insert < 0 || search < 0 || delete < 0 || print < 0 || insert
+            + search + delete + print <= 0) {
+            throw new IllegalArgumentException("Invalid command mix");
+        }
+        mix = new int[] { insert, search, delete, print };
+    }
+
+
+    /**
+     * Sets the key distribution of the IDs.
+     *
+     * @param keys
+     *            `uniform`, `zipf` or `sequential`.
+     * @throws IllegalArgumentException
+     *             If the distribution is not known.
+     */
+    public void setKeys(String keys) {
+        if (!keys.equals("uniform") && !keys.equals("zipf") && !keys.equals(
+            "sequential")) {
+            throw new IllegalArgumentException("Unknown key distribution: "
+                + keys);
+        }
+        this.keys = keys;
+    }
+
+
+    /**
+     * Sets the number of distinct IDs of the uniform and Zipf distributions.
+     *
+     * @param keySpace
+     *            The IDs are drawn from 0 to `keySpace - 1`.
+     */
+    public void setKeySpace(int keySpace) {
+        this.keySpace = Math.max(keySpace, 1);
+    }
+
+
+    /**
+     * Sets the exponent of the Zipf distribution.
+     *
+     * @param exponent
+     *            The skew of the distribution, greater than 0; larger values
+     *            concentrate more of the commands on the smallest IDs.
+     */
+    public void setExponent(double exponent) {
+        this.exponent = exponent;
+    }
+
+
+    /**
+     * Sets the number of distinct keywords.
+     *
+     * @param vocabularySize
+     *            The number of keywords records choose from.
+     */
+    public void setVocabularySize(int vocabularySize) {
+        this.vocabularySize = Math.max(vocabularySize, 1);
+    }
+
+
+    /**
+     * Sets the number of keywords of each record.
+     *
+     * @param keywordsPerRecord
+     *            The number of keywords, at least one.
+     */
+    public void setKeywordsPerRecord(int keywordsPerRecord) {
+        this.keywordsPerRecord = Math.max(keywordsPerRecord, 1);
+    }
+
+
+    /**
+     * Sets the number of words in each title.
+     *
+     * @param titleWords
+     *            The number of words, at least one.
+     */
+    public void setTitleWords(int titleWords) {
+        this.titleWords = Math.max(titleWords, 1);
+    }
+
+
+    /**
+     * Sets the number of words in each description.
+     *
+     * @param descriptionWords
+     *            The number of words, at least one.
+     */
+    public void setDescriptionWords(int descriptionWords) {
+        this.descriptionWords = Math.max(descriptionWords, 1);
+    }
+
+
+    /**
+     * Sets the seed of the random choices.
+     *
+     * @param seed
+     *            The seed; the same seed gives the same workload.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+
+    /**
+     * Draws ranks from 1 to n with probability proportional to
+     * `1 / rank^exponent`, by rejection-inversion (Hormann and Derflinger),
+     * in constant time and memory whatever the number of ranks.
+     */
+    private static class ZipfSampler {
+
+        private final int n;
+        private final double exponent;
+        private final double integralFirst;
+        private final double integralLast;
+        private final double threshold;
+
+        /**
+         * Creates a sampler over the ranks 1 to n.
+         */
+        ZipfSampler(int n, double exponent) {
+            this.n = n;
+            this.exponent = exponent;
+            integralFirst = integral(1.5) - 1.0;
+            integralLast = integral(n + 0.5);
+            threshold = 2.0 - inverse(integral(2.5) - density(2.0));
+        }
+
+
+        /**
+         * Draws one rank.
+         */
+        int sample(Random random) {
+            while (true) {
+                double u = integralLast + random.nextDouble() * (integralFirst
+                    - integralLast);
+                double x = inverse(u);
+                int k = (int)Math.max(1, Math.min(n, (long)(x + 0.5)));
+                if (k - x <= threshold || u >= integral(k + 0.5) - density(
+                    k)) {
+                    return k;
+                }
+            }
+        }
+
+
+        /**
+         * Returns `x^-exponent`.
+         */
+        private double density(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+
+        /**
+         * Returns an antiderivative of `density`.
+         */
+        private double integral(double x) {
+            double logX = Math.log(x);
+            return expm1OverX((1.0 - exponent) * logX) * logX;
+        }
+
+
+        /**
+         * Returns the inverse of `integral`.
+         */
+        private double inverse(double x) {
+            double t = Math.max(x * (1.0 - exponent), -1.0);
+            return Math.exp(log1pOverX(t) * x);
+        }
+
+
+        /**
+         * Returns `log(1 + x) / x`, accurate near zero.
+         */
+        private static double log1pOverX(double x) {
+            if (Math.abs(x) > 1e-8) {
+                return Math.log1p(x) / x;
+            }
+            return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+        }
+
+
+        /**
+         * Returns `(exp(x) - 1) / x`, accurate near zero.
+         */
+        private static double expm1OverX(double x) {
+            if (Math.abs(x) > 1e-8) {
+                return Math.expm1(x) / x;
+            }
+            return 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import student.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the WorkloadGenerator class.
+ *          It reads generated workloads back with CommandReader and checks
+ *          the command mix, the key distributions and that a seed always
+ *          gives the same workload.
+ */
+public class WorkloadGeneratorTest extends TestCase {
+
+    private WorkloadGenerator generator;
+
+    /**
+     * Sets up a generator with the default workload.
+     */
+    @Before
+    public void setUp() {
+        generator = new WorkloadGenerator();
+    }
+
+
+    /**
+     * Generates a workload as text.
+     */
+    private String generate(long count) throws IOException {
+        StringWriter out = new StringWriter();
+        generator.generate(out, count);
+        return out.toString();
+    }
+
+
+    /**
+     * Reads a workload back and counts the commands by verb, or by ID for
+     * the commands carrying one when the verb is given.
+     */
+    private Map<String, Integer> count(String text, String verb)
+        throws IOException {
+        CommandReader reader = new CommandReader(Channels.newChannel(
+            new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))));
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (Command command = reader.next(); command != null; command = reader
+            .next()) {
+            String key = verb == null
+                ? command.getVerb()
+                : command.getVerb().equals(verb)
+                    ? String.valueOf(command.getId())
+                    : null;
+            if (key != null) {
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+
+    /**
+     * Tests that every command parses and the mix follows the weights.
+     *
+     * @throws IOException
+     *             If the workload cannot be read.
+     */
+    @Test
+    public void testMix() throws IOException {
+        generator.setMix(2, 1, 1, 0);
+        Map<String, Integer> verbs = count(generate(4000), null);
+        assertEquals(4000, verbs.get("insert") + verbs.get("search") + verbs
+            .get("delete"));
+        assertTrue(Math.abs(verbs.get("insert") - 2000) < 200);
+        assertTrue(Math.abs(verbs.get("search") - 1000) < 150);
+        assertNull(verbs.get("print"));
+    }
+
+
+    /**
+     * Tests that sequential keys insert 0, 1, 2 and search what exists.
+     *
+     * @throws IOException
+     *             If the workload cannot be read.
+     */
+    @Test
+    public void testSequentialKeys() throws IOException {
+        generator.setKeys("sequential");
+        generator.setMix(1, 1, 0, 0);
+        String text = generate(1000);
+        Map<String, Integer> inserts = count(text, "insert");
+        for (Map.Entry<String, Integer> entry : inserts.entrySet()) {
+            assertEquals(1, (int)entry.getValue());
+            assertTrue(Integer.parseInt(entry.getKey()) < inserts.size());
+        }
+        for (String id : count(text, "search").keySet()) {
+            assertTrue(inserts.containsKey(id));
+        }
+    }
+
+
+    /**
+     * Tests that Zipf keys favor the smallest IDs and stay in the key space.
+     *
+     * @throws IOException
+     *             If the workload cannot be read.
+     */
+    @Test
+    public void testZipfKeys() throws IOException {
+        generator.setKeys("zipf");
+        generator.setKeySpace(1000);
+        generator.setMix(0, 1, 0, 0);
+        Map<String, Integer> searches = count(generate(20000), "search");
+        for (String id : searches.keySet()) {
+            assertTrue(Integer.parseInt(id) >= 0);
+            assertTrue(Integer.parseInt(id) < 1000);
+        }
+        assertTrue(searches.get("0") > 2 * searches.get("1"));
+        assertTrue(searches.get("0") > 10 * searches.getOrDefault("99", 1));
+    }
+
+
+    /**
+     * Tests that the same seed gives the same workload and a new seed does
+     * not.
+     *
+     * @throws IOException
+     *             If the workload cannot be written.
+     */
+    @Test
+    public void testSeed() throws IOException {
+        String first = generate(100);
+        assertEquals(first, generate(100));
+        generator.setSeed(7);
+        assertFalse(first.equals(generate(100)));
+    }
+
+
+    /**
+     * Tests that unknown key distributions are rejected.
+     */
+    @Test
+    public void testInvalidKeys() {
+        Exception thrown = null;
+        try {
+            generator.setKeys("gaussian");
+        }
+        catch (IllegalArgumentException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+}
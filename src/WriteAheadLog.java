@@ -0,0 +1,326 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * The `WriteAheadLog` class keeps an append-only log of the inserts and
+ * deletes applied to a table, so the table can be rebuilt after a restart.
+ *
+ * The file starts with a magic number and a version. Each entry is one type
+ * byte, the payload length, the payload and a CRC-32 of the three: an insert
+ * carries the serialized record and a delete carries the ID.
+ *
+ * Entries are committed in groups. Appends collect in a buffer, and the
+ * buffer is written and forced to disk once it holds a group worth of
+ * bytes or the oldest unsynced entry is older than the commit window, so a
+ * burst of commands pays for one fsync instead of one each. A background
+ * thread commits idle logs at the end of each window.
+ *
+ * On replay the entries are applied in order until the end of the file or
+ * the first damaged entry, and the log is cut back to the last complete
+ * entry so a torn write from a crash is dropped.
+ *
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ */
+public class WriteAheadLog {
+
+    /** The default number of buffered bytes that triggers a commit. */
+    public static final int GROUP_BYTES = 1 << 16;
+    /** The default commit window in milliseconds. */
+    public static final long GROUP_MILLIS = 10;
+
+    private static final int MAGIC = 0x53454D57; // "SEMW"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final byte INSERT = 1;
+    private static final byte DELETE = 2;
+
+    private FileChannel file;
+    private ByteBuffer pending;
+    private int groupBytes;
+    private long groupNanos;
+    private long oldestPending;
+    private long size;
+    private CRC32 checksum;
+    private ScheduledExecutorService committer;
+
+    /**
+     * Opens a log with the default group commit settings, creating the file
+     * if it does not exist.
+     *
+     * @param filename
+     *            The name of the log file.
+     * @throws IOException
+     *             If the file cannot be opened or is not a log file.
+     */
+    public WriteAheadLog(String filename) throws IOException {
+        this(filename, GROUP_BYTES, GROUP_MILLIS);
+    }
+
+
+    /**
+     * Opens a log, creating the file if it does not exist.
+     *
+     * @param filename
+     *            The name of the log file.
+     * @param groupBytes
+     *            The number of buffered bytes that triggers a commit.
+     * @param groupMillis
+     *            The longest time in milliseconds an entry stays buffered,
+     *            or 0 to commit every entry on its own.
+     * @throws IOException
+     *             If the file cannot be opened or is not a log file.
+     */
+    public WriteAheadLog(String filename, int groupBytes, long groupMillis)
+        throws IOException {
+        file = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (file.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            file.write(header, 0);
+            file.force(false);
+        }
+        else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            file.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+                || header.getInt() != VERSION) {
+                file.close();
+                throw new IOException("Not a log file: " + filename);
+            }
+        }
+        size = file.size();
+        file.position(size);
+        pending = ByteBuffer.allocate(Math.max(groupBytes, 64) * 2);
+        this.groupBytes = Math.max(groupBytes, 1);
+        this.groupNanos = TimeUnit.MILLISECONDS.toNanos(groupMillis);
+        checksum = new CRC32();
+
+        if (groupMillis > 0) {
+            committer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "log-committer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            committer.scheduleWithFixedDelay(this::commitIfDue, groupMillis,
+                groupMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    /**
+     * Appends an insert of a record.
+     *
+     * @param record
+     *            The inserted record.
+     * @throws IOException
+     *             If a commit fails.
+     */
+    public synchronized void logInsert(Record record) throws IOException {
+        append(INSERT, record.serialize());
+    }
+
+
+    /**
+     * Appends a delete of an ID.
+     *
+     * @param id
+     *            The deleted ID.
+     * @throws IOException
+     *             If a commit fails.
+     */
+    public synchronized void logDelete(int id) throws IOException {
+        append(DELETE, ByteBuffer.allocate(4).putInt(id).array());
+    }
+
+
+    /**
+     * Writes the buffered entries to the file and forces them to disk.
+     *
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public synchronized void commit() throws IOException {
+        if (pending.position() == 0) {
+            return;
+        }
+        pending.flip();
+        while (pending.hasRemaining()) {
+            file.write(pending);
+        }
+        pending.clear();
+        file.force(false);
+    }
+
+
+    /**
+     * Applies every complete entry of the log to a table, in order, and cuts
+     * off a damaged or incomplete tail.
+     *
+     * @param table
+     *            The table the entries are applied to.
+     * @return The number of entries applied.
+     * @throws IOException
+     *             If the file cannot be read.
+     */
+    public synchronized int replay(RecordTable table) throws IOException {
+        commit();
+        long valid = HEADER_SIZE;
+        int applied = 0;
+        file.position(HEADER_SIZE);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(file), 1 << 16));
+        try {
+            while (true) {
+                byte type = in.readByte();
+                int length = in.readInt();
+                if (length < 0 || length > size - valid) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (in.readInt() != crc(type, payload)) {
+                    break;
+                }
+                if (type == INSERT) {
+                    table.insert(Record.deserialize(payload));
+                }
+                else if (type == DELETE) {
+                    table.delete(ByteBuffer.wrap(payload).getInt());
+                }
+                else {
+                    break;
+                }
+                valid += 9 + length;
+                applied++;
+            }
+        }
+        catch (EOFException e) {
+            // The last entry was not written completely
+        }
+
+        if (valid < size) {
+            file.truncate(valid);
+            file.force(false);
+        }
+        size = valid;
+        file.position(size);
+        return applied;
+    }
+
+
+    /**
+     * Empties the log, buffered entries included, once the records it holds
+     * are saved elsewhere.
+     *
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public synchronized void truncate() throws IOException {
+        pending.clear();
+        file.truncate(HEADER_SIZE);
+        file.force(false);
+        size = HEADER_SIZE;
+        file.position(size);
+    }
+
+
+    /**
+     * Returns the size of the log, including entries not committed yet
+     *
+     * @return Size of the log in bytes
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+
+    /**
+     * Commits the buffered entries, stops the background commits and closes
+     * the file.
+     *
+     * @throws IOException
+     *             If the file cannot be written or closed.
+     */
+    public synchronized void close() throws IOException {
+        if (!file.isOpen()) {
+            return;
+        }
+        if (committer != null) {
+            committer.shutdown();
+        }
+        commit();
+        file.close();
+    }
+
+
+    /**
+     * Buffers one entry and commits the group if it is full or old enough.
+     */
+    private void append(byte type, byte[] payload) throws IOException {
+        int length = 9 + payload.length;
+        if (pending.remaining() < length) {
+            commit();
+            if (pending.capacity() < length) {
+                pending = ByteBuffer.allocate(length);
+            }
+        }
+        if (pending.position() == 0) {
+            oldestPending = System.nanoTime();
+        }
+        pending.put(type);
+        pending.putInt(payload.length);
+        pending.put(payload);
+        pending.putInt(crc(type, payload));
+        size += length;
+
+        if (pending.position() >= groupBytes || System.nanoTime()
+            - oldestPending >= groupNanos) {
+            commit();
+        }
+    }
+
+
+    /**
+     * Commits the buffered entries if the oldest one has waited a whole
+     * window. Runs on the background thread.
+     */
+    private synchronized void commitIfDue() {
+        try {
+            if (file.isOpen() && pending.position() > 0 && System.nanoTime()
+                - oldestPending >= groupNanos) {
+                commit();
+            }
+        }
+        catch (IOException e) {
+            // The next append or close commits again and reports the error
+        }
+    }
+
+
+    /**
+     * Computes the checksum of an entry.
+     */
+    private int crc(byte type, byte[] payload) {
+        checksum.reset();
+        checksum.update(type);
+        checksum.update(ByteBuffer.allocate(4).putInt(payload.length)
+            .array());
+        checksum.update(payload);
+        return (int)checksum.getValue();
+    }
+}
@@ -0,0 +1,145 @@
+import student.TestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author Aayush Bagrecha
+ * @author Yash Shrikant
+ * @version 1.0
+ *
+ *          This class contains JUnit tests for the WriteAheadLog class. It
+ *          replays logged inserts and deletes, drops damaged tails and
+ *          rejects files that are not logs.
+ */
+public class WriteAheadLogTest extends TestCase {
+
+    private Path file;
+    private PrintWriter writer;
+
+    /**
+     * Picks a fresh log file before each test method.
+     *
+     * @throws IOException
+     *             If the temporary file cannot be created.
+     */
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("commands", ".wal");
+        Files.delete(file);
+        writer = new PrintWriter(new StringWriter(), true);
+    }
+
+
+    /**
+     * Deletes the log file after each test method.
+     *
+     * @throws IOException
+     *             If the file cannot be deleted.
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+
+    /**
+     * Creates a record with the given ID. Odd IDs get a date that is not ten
+     * digits and negative coordinates, so the log stores both forms.
+     */
+    private Record record(int id) {
+        boolean odd = id % 2 == 1;
+        return new Record(id, "Seminar " + id, odd ? "TBA" : "2111011200",
+            60, (short)(odd ? -id : id), (short)-20, 100 + id, "Description "
+                + id, "Keyword" + id + ", VT");
+    }
+
+
+    /**
+     * Writes a log with a few inserts and deletes.
+     */
+    private void writeLog() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(file.toString(), 32, 1000);
+        for (int id = 1; id <= 5; id++) {
+            log.logInsert(record(id));
+        }
+        log.logDelete(2);
+        log.logDelete(4);
+        log.close();
+    }
+
+
+    /**
+     * Tests that a replay applies every entry in order.
+     *
+     * @throws IOException
+     *             If the log cannot be read or written.
+     */
+    @Test
+    public void testReplay() throws IOException {
+        writeLog();
+        HashTable table = new HashTable(64, 4, writer);
+        WriteAheadLog log = new WriteAheadLog(file.toString());
+        assertEquals(7, log.replay(table));
+        log.close();
+        assertEquals(record(1), table.search(1, false));
+        assertNull(table.search(2, false));
+        assertEquals(record(3), table.search(3, false));
+        assertNull(table.search(4, false));
+        assertEquals(record(5), table.search(5, false));
+    }
+
+
+    /**
+     * Tests that a torn last entry is cut off and later appends follow the
+     * last complete entry.
+     *
+     * @throws IOException
+     *             If the log cannot be read or written.
+     */
+    @Test
+    public void testTornTail() throws IOException {
+        writeLog();
+        long complete = Files.size(file);
+        Files.write(file, new byte[] { 1, 0, 0, 0, 40, 7, 7 },
+            StandardOpenOption.APPEND);
+
+        WriteAheadLog log = new WriteAheadLog(file.toString(), 32, 0);
+        assertEquals(7, log.replay(new HashTable(64, 4, writer)));
+        assertEquals(complete, Files.size(file));
+        log.logInsert(record(9));
+        log.close();
+
+        HashTable table = new HashTable(64, 4, writer);
+        log = new WriteAheadLog(file.toString());
+        assertEquals(8, log.replay(table));
+        log.close();
+        assertEquals(record(9), table.search(9, false));
+    }
+
+
+    /**
+     * Tests that a file that is not a log is rejected.
+     *
+     * @throws IOException
+     *             If the test file cannot be written.
+     */
+    @Test
+    public void testNotALog() throws IOException {
+        Files.write(file, "insert 1\n".getBytes());
+        Exception thrown = null;
+        try {
+            new WriteAheadLog(file.toString());
+        }
+        catch (IOException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+}